@@ -0,0 +1,146 @@
+package com.ocp.study.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * So sánh {@link CsvReader} với cách đọc cũ của import câu hỏi ({@code BufferedReader.readLine}
+ * rồi {@code parseCSVLine}) trên một file CSV tổng hợp. Record đều nằm trên một dòng để
+ * cách cũ đọc được; field có dấu phẩy, {@code ""} và khoảng trắng được đặt trong ngoặc kép.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class CsvReaderBenchmark {
+
+    private static final String[] WORDS = { "List", "Map", "stream", "filter", "var", "record", "sealed",
+            "Optional", "lambda", "interface", "default", "static", "final", "switch", "yield", "module" };
+
+    @Param("100")
+    private int sizeMb;
+
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void createFile() throws IOException {
+        file = Files.createTempFile("csv-benchmark", ".csv");
+        Random random = new Random(42);
+        long target = sizeMb * 1024L * 1024L;
+        long written = 0;
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            CsvWriter csv = new CsvWriter(out);
+            csv.writeRecord("topic", "content", "option_a", "option_b", "option_c", "option_d", "correct",
+                    "explanation", "difficulty", "code_snippet");
+            while (written < target) {
+                String[] row = {
+                        "Topic " + random.nextInt(40),
+                        sentence(random, 12) + ", " + sentence(random, 6) + "?",
+                        sentence(random, 4),
+                        sentence(random, 4),
+                        "\"" + sentence(random, 3) + "\"",
+                        sentence(random, 4),
+                        String.valueOf((char) ('A' + random.nextInt(4))),
+                        sentence(random, 20),
+                        String.valueOf(1 + random.nextInt(5)),
+                        "  var x = " + WORDS[random.nextInt(WORDS.length)] + ".of(1, 2);" };
+                csv.writeRecord(row);
+                for (String value : row) {
+                    written += value.length() + 1;
+                }
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFile() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public long csvReader(Blackhole blackhole) throws IOException {
+        long records = 0;
+        try (CsvReader reader = new CsvReader(
+                new InputStreamReader(Files.newInputStream(file), StandardCharsets.UTF_8))) {
+            List<String> record;
+            while ((record = reader.readRecord()) != null) {
+                blackhole.consume(record);
+                records++;
+            }
+        }
+        return records;
+    }
+
+    @Benchmark
+    public long readLineAndParseCsvLine(Blackhole blackhole) throws IOException {
+        long records = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                blackhole.consume(parseCSVLine(line));
+                records++;
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Bản sao nguyên văn của QuestionImportService.parseCSVLine trước khi chuyển sang {@link CsvReader}
+     */
+    private static List<String> parseCSVLine(String line) {
+        List<String> result = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean inQuotes = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                inQuotes = !inQuotes;
+            } else if (c == ',' && !inQuotes) {
+                result.add(current.toString().trim());
+                current = new StringBuilder();
+            } else {
+                current.append(c);
+            }
+        }
+        result.add(current.toString().trim());
+        return result;
+    }
+
+    private static String sentence(Random random, int words) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                sb.append(' ');
+            }
+            sb.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sb.toString();
+    }
+}
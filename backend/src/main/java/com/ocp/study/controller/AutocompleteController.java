@@ -0,0 +1,38 @@
+package com.ocp.study.controller;
+
+import com.ocp.study.dto.AutocompleteDTO;
+import com.ocp.study.service.AutocompleteService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * REST Controller cho autocomplete certification / topic / subtopic.
+ * 
+ * @author OCP Study Team
+ * @since 1.0.0
+ */
+@RestController
+@RequestMapping("/autocomplete")
+@RequiredArgsConstructor
+@Tag(name = "Autocomplete", description = "API gợi ý certification, topic, subtopic theo prefix")
+public class AutocompleteController {
+
+    private final AutocompleteService autocompleteService;
+
+    @GetMapping
+    @Operation(summary = "Gợi ý theo prefix", description = "Khớp đầu mỗi từ, không phân biệt hoa thường / dấu")
+    public ResponseEntity<List<AutocompleteDTO>> suggest(
+            @RequestParam String q,
+            @RequestParam(required = false) Set<String> types,
+            @RequestParam(required = false) UUID certificationId,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(autocompleteService.suggest(q, types, certificationId, limit));
+    }
+}
@@ -1,7 +1,12 @@
 package com.ocp.study.controller;
 
 import com.ocp.study.dto.FlashcardDTO;
+import com.ocp.study.dto.FlashcardReviewBatchDTO;
+import com.ocp.study.dto.FlashcardReviewBatchResultDTO;
+import com.ocp.study.service.DueQueueService;
+import com.ocp.study.service.FlashcardReviewBatchService;
 import com.ocp.study.service.FlashcardService;
+import com.ocp.study.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -26,6 +31,9 @@ import java.util.UUID;
 public class FlashcardController {
 
     private final FlashcardService flashcardService;
+    private final DueQueueService dueQueueService;
+    private final FlashcardReviewBatchService flashcardReviewBatchService;
+    private final UserService userService;
 
     @GetMapping
     @Operation(summary = "Lấy tất cả flashcards (có phân trang)")
@@ -48,6 +56,12 @@ public class FlashcardController {
         return ResponseEntity.ok(flashcardService.getFlashcardsToReview());
     }
 
+    @GetMapping("/review/next")
+    @Operation(summary = "Lấy n flashcard đến hạn review sớm nhất", description = "Đọc từ hàng đợi trong bộ nhớ của user, không query DB trong phiên học")
+    public ResponseEntity<List<FlashcardDTO>> getNextToReview(@RequestParam(defaultValue = "1") int n) {
+        return ResponseEntity.ok(dueQueueService.next(userService.getCurrentUserId(), n));
+    }
+
     @GetMapping("/review/topic/{topicId}")
     @Operation(summary = "Lấy flashcards cần review theo topic")
     public ResponseEntity<List<FlashcardDTO>> getFlashcardsToReviewByTopic(@PathVariable UUID topicId) {
@@ -89,4 +103,12 @@ public class FlashcardController {
             @RequestParam boolean correct) {
         return ResponseEntity.ok(flashcardService.markReviewed(id, correct));
     }
+
+    @PostMapping("/reviews/batch")
+    @Operation(summary = "Gửi nhiều lượt review một lần", description = "Đồng bộ cả phiên học (kể cả review offline) bằng một batch upsert; lượt đã đồng bộ được bỏ qua")
+    public ResponseEntity<FlashcardReviewBatchResultDTO> submitReviews(
+            @Valid @RequestBody FlashcardReviewBatchDTO request) {
+        return ResponseEntity.ok(flashcardReviewBatchService.submit(userService.getCurrentUserId(),
+                request.getReviews()));
+    }
 }
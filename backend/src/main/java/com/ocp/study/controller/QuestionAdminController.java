@@ -1,26 +1,44 @@
 package com.ocp.study.controller;
 
 import com.ocp.study.dto.CreateQuestionRequest;
+import com.ocp.study.dto.DuplicateClusterDTO;
+import com.ocp.study.dto.ImportJobDTO;
+import com.ocp.study.dto.QuestionImportResultDTO;
+import com.ocp.study.dto.QuestionStatsDTO;
+import com.ocp.study.dto.ReviewSchedulerConfigDTO;
+import com.ocp.study.dto.SimilarQuestionDTO;
 import com.ocp.study.entity.Question;
 import com.ocp.study.entity.QuestionOption;
 import com.ocp.study.entity.Topic;
 import com.ocp.study.repository.QuestionRepository;
 import com.ocp.study.repository.TopicRepository;
+import com.ocp.study.service.AnswerKeyCache;
+import com.ocp.study.service.ExportService;
+import com.ocp.study.service.FlashcardImportService;
+import com.ocp.study.service.ImportJobService;
+import com.ocp.study.service.NearDuplicateService;
+import com.ocp.study.service.QuestionImportService;
+import com.ocp.study.service.QuestionPoolService;
+import com.ocp.study.service.QuestionStatsService;
+import com.ocp.study.service.QuizStatsService;
+import com.ocp.study.service.RelatedContentService;
+import com.ocp.study.service.ReviewSchedulerService;
+import com.ocp.study.util.QuestionContentHash;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
+import java.io.InputStream;
 import java.util.*;
 
 /**
@@ -41,6 +59,39 @@ public class QuestionAdminController {
     @Autowired
     private TopicRepository topicRepository;
 
+    @Autowired
+    private QuestionPoolService questionPoolService;
+
+    @Autowired
+    private AnswerKeyCache answerKeyCache;
+
+    @Autowired
+    private QuestionStatsService questionStatsService;
+
+    @Autowired
+    private QuizStatsService quizStatsService;
+
+    @Autowired
+    private QuestionImportService questionImportService;
+
+    @Autowired
+    private ImportJobService importJobService;
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private FlashcardImportService flashcardImportService;
+
+    @Autowired
+    private NearDuplicateService nearDuplicateService;
+
+    @Autowired
+    private RelatedContentService relatedContentService;
+
+    @Autowired
+    private ReviewSchedulerService reviewSchedulerService;
+
     /**
      * GET /admin/questions - Lấy danh sách tất cả câu hỏi
      */
@@ -64,6 +115,21 @@ public class QuestionAdminController {
         return ResponseEntity.ok(result);
     }
 
+    /**
+     * GET /admin/questions/stats - Câu hỏi khó nhất / hay sai nhất của topic
+     * 
+     * @param sort        hardest (tỉ lệ đúng thấp nhất) hoặc missed (số lần sai nhiều nhất)
+     * @param minAttempts Bỏ qua câu hỏi có quá ít lượt làm
+     */
+    @GetMapping("/questions/stats")
+    public ResponseEntity<List<QuestionStatsDTO>> getQuestionStats(
+            @RequestParam UUID topicId,
+            @RequestParam(defaultValue = "hardest") String sort,
+            @RequestParam(defaultValue = "5") long minAttempts,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(questionStatsService.getTopicStats(topicId, sort, minAttempts, limit));
+    }
+
     /**
      * GET /admin/questions/{id} - Lấy chi tiết câu hỏi theo ID
      */
@@ -133,12 +199,43 @@ public class QuestionAdminController {
         }
         question.setOptions(optionList);
 
-        questionRepository.save(question);
+        // Không tạo câu hỏi trùng nội dung
+        question.setContentHash(QuestionContentHash.of(question.getContent(), question.getCodeSnippet(),
+                optionList.stream()
+                        .sorted(Comparator.comparing(QuestionOption::getOptionKey))
+                        .map(QuestionOption::getContent)
+                        .toList()));
+        Optional<UUID> duplicate = questionRepository.findIdByContentHash(question.getContentHash());
+        if (duplicate.isPresent()) {
+            return duplicateQuestion(duplicate.get());
+        }
+
+        try {
+            questionRepository.save(question);
+        } catch (DataIntegrityViolationException e) {
+            return questionRepository.findIdByContentHash(question.getContentHash())
+                    .map(this::duplicateQuestion)
+                    .orElseThrow(() -> e);
+        }
+        questionPoolService.add(topic.getId(), question.getDifficulty(), question.getId());
+
+        // Cảnh báo (không chặn) nếu gần trùng với câu hỏi đã có
+        List<SimilarQuestionDTO> similar = nearDuplicateService.findSimilar(question.getContent(),
+                question.getCodeSnippet(), question.getId());
+        nearDuplicateService.addAfterCommit(question.getId(), question.getContent(), question.getCodeSnippet());
 
         return ResponseEntity.status(HttpStatus.CREATED).body(Map.of(
                 "success", true,
                 "message", "Tạo câu hỏi thành công",
-                "questionId", question.getId()));
+                "questionId", question.getId(),
+                "similarQuestions", similar));
+    }
+
+    private ResponseEntity<Map<String, Object>> duplicateQuestion(UUID existingId) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+                "success", false,
+                "message", "Câu hỏi đã tồn tại",
+                "questionId", existingId));
     }
 
     /**
@@ -154,12 +251,44 @@ public class QuestionAdminController {
             return ResponseEntity.notFound().build();
         }
 
+        UUID oldTopicId = question.getTopic().getId();
+        Integer oldDifficulty = question.getDifficulty();
+        if (request.getTopicId() != null && !request.getTopicId().equals(oldTopicId)) {
+            Topic topic = topicRepository.findById(request.getTopicId()).orElse(null);
+            if (topic == null) {
+                return ResponseEntity.badRequest().body(Map.of(
+                        "success", false,
+                        "message", "Topic không tồn tại"));
+            }
+            question.setTopic(topic);
+        }
         question.setContent(request.getContent());
         question.setCodeSnippet(request.getCodeSnippet());
         question.setDifficulty(request.getDifficulty());
         question.setExplanation(request.getExplanation());
 
-        questionRepository.save(question);
+        question.setContentHash(QuestionContentHash.of(question.getContent(), question.getCodeSnippet(),
+                question.getOptions().stream().map(QuestionOption::getContent).toList()));
+        Optional<UUID> duplicate = questionRepository.findIdByContentHash(question.getContentHash());
+        if (duplicate.isPresent() && !duplicate.get().equals(id)) {
+            return duplicateQuestion(duplicate.get());
+        }
+
+        try {
+            questionRepository.save(question);
+        } catch (DataIntegrityViolationException e) {
+            return questionRepository.findIdByContentHash(question.getContentHash())
+                    .filter(existingId -> !existingId.equals(id))
+                    .map(this::duplicateQuestion)
+                    .orElseThrow(() -> e);
+        }
+        // Pool chia câu hỏi theo (topic, độ khó): chuyển sang bucket mới nếu một trong hai thay đổi
+        if (!question.getTopic().getId().equals(oldTopicId)
+                || !Objects.equals(question.getDifficulty(), oldDifficulty)) {
+            questionPoolService.remove(id);
+            questionPoolService.add(question.getTopic().getId(), question.getDifficulty(), id);
+        }
+        nearDuplicateService.addAfterCommit(id, question.getContent(), question.getCodeSnippet());
 
         return ResponseEntity.ok(Map.of(
                 "success", true,
@@ -175,9 +304,37 @@ public class QuestionAdminController {
             return ResponseEntity.notFound().build();
         }
         questionRepository.deleteById(id);
+        questionPoolService.remove(id);
+        answerKeyCache.evict(id);
+        nearDuplicateService.removeAfterCommit(id);
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * GET /admin/questions/duplicates - Các cụm câu hỏi gần trùng trong toàn bộ ngân hàng
+     * 
+     * @param threshold Optional - độ giống tối thiểu (0-1), mặc định theo cấu hình
+     */
+    @GetMapping("/questions/duplicates")
+    public ResponseEntity<List<DuplicateClusterDTO>> getDuplicateClusters(
+            @RequestParam(required = false) Double threshold) {
+        if (threshold != null && (threshold <= 0 || threshold > 1)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(nearDuplicateService.findClusters(threshold));
+    }
+
+    /**
+     * POST /admin/questions/duplicates/rebuild - Dựng lại index câu hỏi gần trùng từ DB
+     */
+    @PostMapping("/questions/duplicates/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildDuplicateIndex() {
+        int indexed = nearDuplicateService.rebuild();
+        return ResponseEntity.ok(Map.of(
+                "success", true,
+                "indexed", indexed));
+    }
+
     /**
      * GET /admin/questions/template - Download CSV template
      */
@@ -191,97 +348,106 @@ public class QuestionAdminController {
                 .body(resource);
     }
 
+    /**
+     * GET /admin/questions/export - Export câu hỏi (kèm options) dạng CSV theo template
+     * hoặc NDJSON, ghi thẳng từ DB ra response
+     * 
+     * @param topicId Optional - chỉ export câu hỏi của topic
+     * @param format  csv (default) hoặc ndjson
+     */
+    @GetMapping("/questions/export")
+    public ResponseEntity<StreamingResponseBody> exportQuestions(
+            @RequestParam(required = false) UUID topicId,
+            @RequestParam(defaultValue = "csv") String format) {
+        ExportService.Format exportFormat;
+        try {
+            exportFormat = ExportService.Format.of(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        StreamingResponseBody body = out -> exportService.exportQuestions(topicId, exportFormat, out);
+        return exportResponse("questions", exportFormat, body);
+    }
+
+    /**
+     * GET /admin/flashcards/export - Export flashcards dạng CSV hoặc NDJSON
+     * 
+     * @param topicId Optional - chỉ export flashcard của topic
+     * @param format  csv (default) hoặc ndjson
+     */
+    @GetMapping("/flashcards/export")
+    public ResponseEntity<StreamingResponseBody> exportFlashcards(
+            @RequestParam(required = false) UUID topicId,
+            @RequestParam(defaultValue = "csv") String format) {
+        ExportService.Format exportFormat;
+        try {
+            exportFormat = ExportService.Format.of(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        StreamingResponseBody body = out -> exportService.exportFlashcards(topicId, exportFormat, out);
+        return exportResponse("flashcards", exportFormat, body);
+    }
+
+    /**
+     * POST /admin/flashcards/import - Import flashcard hàng loạt từ CSV hoặc NDJSON
+     * 
+     * @param format csv hoặc ndjson, bỏ trống thì đoán theo đuôi file
+     */
+    @PostMapping("/flashcards/import")
+    public ResponseEntity<?> importFlashcards(@RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) String format) {
+        if (file.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "success", false,
+                    "message", "File trống"));
+        }
+
+        String fileName = file.getOriginalFilename() != null ? file.getOriginalFilename().toLowerCase() : "";
+        try (InputStream input = file.getInputStream()) {
+            ExportService.Format importFormat = format == null
+                    && (fileName.endsWith(".ndjson") || fileName.endsWith(".jsonl"))
+                            ? ExportService.Format.NDJSON
+                            : ExportService.Format.of(format);
+            return ResponseEntity.ok(flashcardImportService.importFile(input, importFormat));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "success", false,
+                    "message", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(
+                    "success", false,
+                    "message", "Lỗi đọc file: " + e.getMessage()));
+        }
+    }
+
+    private ResponseEntity<StreamingResponseBody> exportResponse(String name, ExportService.Format format,
+            StreamingResponseBody body) {
+        boolean csv = format == ExportService.Format.CSV;
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"" + name + (csv ? ".csv" : ".ndjson") + "\"")
+                .header(HttpHeaders.CONTENT_TYPE, csv ? "text/csv; charset=UTF-8" : "application/x-ndjson")
+                .body(body);
+    }
+
     /**
      * POST /admin/questions/import-csv - Import từ CSV
      */
     @PostMapping("/questions/import-csv")
-    public ResponseEntity<Map<String, Object>> importCSV(@RequestParam("file") MultipartFile file) {
+    public ResponseEntity<?> importCSV(@RequestParam("file") MultipartFile file) {
         if (file.isEmpty()) {
             return ResponseEntity.badRequest().body(Map.of(
                     "success", false,
                     "message", "File trống"));
         }
 
-        try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8))) {
-
-            String headerLine = reader.readLine(); // Skip header
-            String line;
-            int imported = 0;
-            List<String> errors = new ArrayList<>();
-
-            while ((line = reader.readLine()) != null) {
-                if (line.trim().isEmpty())
-                    continue;
-
-                try {
-                    List<String> values = parseCSVLine(line);
-                    if (values.size() < 11) {
-                        errors.add("Dòng thiếu dữ liệu: " + line.substring(0, Math.min(50, line.length())));
-                        continue;
-                    }
-
-                    // Parse values
-                    UUID topicId = UUID.fromString(values.get(0).trim());
-                    String content = values.get(1);
-                    String codeSnippet = values.get(2);
-                    String questionType = values.get(3);
-                    Integer difficulty = Integer.parseInt(values.get(4).trim());
-                    String explanation = values.get(5);
-                    String optionA = values.get(6);
-                    String optionB = values.get(7);
-                    String optionC = values.get(8);
-                    String optionD = values.get(9);
-                    String correctAnswer = values.get(10).trim().toUpperCase();
-
-                    // Get topic
-                    Topic topic = topicRepository.findById(topicId).orElse(null);
-                    if (topic == null) {
-                        errors.add("Topic ID không tồn tại: " + topicId);
-                        continue;
-                    }
-
-                    // Create question
-                    Question question = new Question();
-                    question.setTopic(topic);
-                    question.setContent(content);
-                    question.setCodeSnippet(codeSnippet.isEmpty() ? null : codeSnippet);
-                    question.setQuestionType(Question.QuestionType.valueOf(questionType));
-                    question.setDifficulty(difficulty);
-                    question.setExplanation(explanation);
-
-                    // Create options
-                    List<QuestionOption> optionList = new ArrayList<>();
-                    String[] optContents = { optionA, optionB, optionC, optionD };
-                    String[] optKeys = { "A", "B", "C", "D" };
-                    int correctIndex = correctAnswer.charAt(0) - 'A';
-
-                    for (int i = 0; i < 4; i++) {
-                        QuestionOption opt = new QuestionOption();
-                        opt.setQuestion(question);
-                        opt.setOptionKey(optKeys[i]);
-                        opt.setContent(optContents[i]);
-                        opt.setIsCorrect(i == correctIndex);
-                        optionList.add(opt);
-                    }
-                    question.setOptions(optionList);
-
-                    questionRepository.save(question);
-                    imported++;
-
-                } catch (Exception e) {
-                    errors.add("Lỗi parse dòng: " + e.getMessage());
-                }
+        try (InputStream input = file.getInputStream()) {
+            QuestionImportResultDTO result = questionImportService.importCsv(input);
+            if (result.getImported() > 0 || result.getUpdated() > 0) {
+                questionPoolService.refresh();
             }
-
-            Map<String, Object> result = new HashMap<>();
-            result.put("success", true);
-            result.put("imported", imported);
-            result.put("errors", errors);
-            result.put("message", "Import thành công " + imported + " câu hỏi");
-
             return ResponseEntity.ok(result);
-
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(
                     "success", false,
@@ -289,23 +455,140 @@ public class QuestionAdminController {
         }
     }
 
-    private List<String> parseCSVLine(String line) {
-        List<String> result = new ArrayList<>();
-        StringBuilder current = new StringBuilder();
-        boolean inQuotes = false;
-
-        for (int i = 0; i < line.length(); i++) {
-            char c = line.charAt(i);
-            if (c == '"') {
-                inQuotes = !inQuotes;
-            } else if (c == ',' && !inQuotes) {
-                result.add(current.toString().trim());
-                current = new StringBuilder();
-            } else {
-                current.append(c);
-            }
+    /**
+     * POST /admin/questions/import-jobs - Import CSV chạy nền, trả về job ID ngay
+     */
+    @PostMapping("/questions/import-jobs")
+    public ResponseEntity<?> createImportJob(@RequestParam("file") MultipartFile file) {
+        if (file.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "success", false,
+                    "message", "File trống"));
+        }
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(importJobService.submit(file));
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(
+                    "success", false,
+                    "message", "Không thể lưu file: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * GET /admin/questions/import-jobs - 20 job import gần nhất
+     */
+    @GetMapping("/questions/import-jobs")
+    public ResponseEntity<List<ImportJobDTO>> getImportJobs() {
+        return ResponseEntity.ok(importJobService.getRecentJobs());
+    }
+
+    /**
+     * GET /admin/questions/import-jobs/{id} - Tiến độ job import
+     */
+    @GetMapping("/questions/import-jobs/{id}")
+    public ResponseEntity<ImportJobDTO> getImportJob(@PathVariable UUID id) {
+        return importJobService.getJob(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * POST /admin/questions/import-jobs/{id}/cancel - Hủy job import
+     */
+    @PostMapping("/questions/import-jobs/{id}/cancel")
+    public ResponseEntity<ImportJobDTO> cancelImportJob(@PathVariable UUID id) {
+        return importJobService.cancel(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * POST /admin/questions/import-jobs/{id}/resume - Chạy tiếp job đã hủy / lỗi
+     */
+    @PostMapping("/questions/import-jobs/{id}/resume")
+    public ResponseEntity<?> resumeImportJob(@PathVariable UUID id) {
+        try {
+            return importJobService.resume(id)
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+                    "success", false,
+                    "message", e.getMessage()));
+        }
+    }
+
+    /**
+     * POST /admin/quiz-stats/rebuild - Tính lại tổng hợp quiz của mọi user từ quiz_history
+     */
+    @PostMapping("/quiz-stats/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildQuizStats() {
+        int rebuilt = quizStatsService.rebuildAll();
+        if (rebuilt < 0) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+                    "success", false,
+                    "message", "Đang rebuild, vui lòng thử lại sau"));
+        }
+        return ResponseEntity.ok(Map.of(
+                "success", true,
+                "users", rebuilt));
+    }
+
+    /**
+     * POST /admin/related/rebuild - Tính lại flashcard / subtopic liên quan của mọi câu hỏi
+     */
+    @PostMapping("/related/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildRelatedContent() {
+        int rebuilt = relatedContentService.rebuildAll();
+        if (rebuilt < 0) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+                    "success", false,
+                    "message", "Đang rebuild, vui lòng thử lại sau"));
+        }
+        return ResponseEntity.ok(Map.of(
+                "success", true,
+                "questions", rebuilt));
+    }
+
+    /**
+     * GET /admin/review-scheduler - Thuật toán spaced repetition đang dùng và trạng thái reschedule
+     */
+    @GetMapping("/review-scheduler")
+    public ResponseEntity<ReviewSchedulerConfigDTO> getReviewScheduler() {
+        return ResponseEntity.ok(reviewSchedulerService.getConfig());
+    }
+
+    /**
+     * PUT /admin/review-scheduler - Đổi thuật toán / tham số, lịch review được tính lại ở nền
+     */
+    @PutMapping("/review-scheduler")
+    public ResponseEntity<?> updateReviewScheduler(@RequestBody ReviewSchedulerConfigDTO request) {
+        ReviewSchedulerConfigDTO config;
+        try {
+            config = reviewSchedulerService.update(request.getAlgorithm(), request.getParameters());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "success", false,
+                    "message", e.getMessage()));
+        }
+        if (config == null) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+                    "success", false,
+                    "message", "Đang reschedule, vui lòng thử lại sau"));
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(config);
+    }
+
+    /**
+     * POST /admin/review-scheduler/reschedule - Tính lại next_review của mọi review theo cấu hình hiện tại
+     */
+    @PostMapping("/review-scheduler/reschedule")
+    public ResponseEntity<Map<String, Object>> rescheduleReviews() {
+        if (!reviewSchedulerService.reschedule()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+                    "success", false,
+                    "message", "Đang reschedule, vui lòng thử lại sau"));
         }
-        result.add(current.toString().trim());
-        return result;
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(Map.of("success", true));
     }
 }
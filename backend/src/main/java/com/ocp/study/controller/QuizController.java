@@ -1,19 +1,32 @@
 package com.ocp.study.controller;
 
+import com.ocp.study.dto.CursorPageDTO;
 import com.ocp.study.dto.QuestionDTO;
-import com.ocp.study.dto.QuizSubmissionDTO;
-import com.ocp.study.entity.QuizHistory;
+import com.ocp.study.dto.QuizHistoryDTO;
+import com.ocp.study.dto.QuizResultDTO;
+import com.ocp.study.dto.QuizScorePointDTO;
+import com.ocp.study.dto.QuizSessionDTO;
+import com.ocp.study.dto.QuizSessionStartDTO;
+import com.ocp.study.dto.QuizStatsDTO;
+import com.ocp.study.dto.QuizSubmitDTO;
+import com.ocp.study.dto.RelatedContentDTO;
+import com.ocp.study.service.MockExamService;
 import com.ocp.study.service.QuizService;
+import com.ocp.study.service.QuizSessionService;
+import com.ocp.study.service.QuizStatsService;
+import com.ocp.study.service.RelatedContentService;
+import com.ocp.study.service.UserService;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.time.format.DateTimeFormatter;
-import java.util.HashMap;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 /**
  * REST Controller cho Quiz API - Lấy câu hỏi và submit quiz.
@@ -29,18 +42,37 @@ public class QuizController {
     @Autowired
     private QuizService quizService;
 
+    @Autowired
+    private MockExamService mockExamService;
+
+    @Autowired
+    private QuizStatsService quizStatsService;
+
+    @Autowired
+    private QuizSessionService quizSessionService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private RelatedContentService relatedContentService;
+
     /**
      * GET /api/quiz/questions - Lấy câu hỏi ngẫu nhiên cho quiz
      * 
      * @param topicId Optional - filter theo topic
      * @param limit   Số câu hỏi (default 10)
+     * @param mode    Optional - "adaptive" để ưu tiên câu hỏi user hay làm sai
      */
     @GetMapping("/questions")
     public ResponseEntity<List<QuestionDTO>> getQuestions(
             @RequestParam(required = false) UUID topicId,
-            @RequestParam(defaultValue = "10") int limit) {
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(required = false) String mode) {
 
-        List<QuestionDTO> questions = quizService.getRandomQuestions(topicId, limit);
+        List<QuestionDTO> questions = "adaptive".equalsIgnoreCase(mode)
+                ? quizService.getAdaptiveQuestions(topicId, limit)
+                : quizService.getRandomQuestions(topicId, limit);
         return ResponseEntity.ok(questions);
     }
 
@@ -54,49 +86,150 @@ public class QuizController {
     }
 
     /**
-     * POST /api/quiz/submit - Submit kết quả quiz
+     * GET /api/quiz/questions/topic/{topicId}/stream - Như trên nhưng ghi JSON ra
+     * response trong lúc đọc DB, dùng cho topic có rất nhiều câu hỏi
      */
-    @PostMapping("/submit")
-    public ResponseEntity<Map<String, Object>> submitQuiz(@RequestBody QuizSubmissionDTO submission) {
-        // Lưu vào database
-        QuizHistory saved = quizService.saveQuizResult(submission);
+    @GetMapping("/questions/topic/{topicId}/stream")
+    public ResponseEntity<StreamingResponseBody> streamQuestionsByTopic(@PathVariable UUID topicId) {
+        StreamingResponseBody body = out -> quizService.streamQuestionsByTopic(topicId, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
 
-        Map<String, Object> result = new HashMap<>();
-        result.put("success", true);
-        result.put("message", "Quiz submitted successfully");
-        result.put("historyId", saved.getId());
+    /**
+     * GET /api/quiz/questions/topic/{topicId}/page - Lấy câu hỏi theo topic từng trang
+     * 
+     * @param cursor nextCursor của trang trước, bỏ trống cho trang đầu
+     * @param size   Số câu hỏi mỗi trang (default 50, tối đa 200)
+     */
+    @GetMapping("/questions/topic/{topicId}/page")
+    public ResponseEntity<CursorPageDTO<QuestionDTO>> getQuestionsByTopicPage(
+            @PathVariable UUID topicId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(quizService.getQuestionsByTopicPage(topicId, cursor, size));
+    }
 
-        return ResponseEntity.ok(result);
+    /**
+     * GET /api/quiz/questions/{id}/related - Flashcard và subtopic liên quan, gợi ý sau khi trả lời sai
+     */
+    @GetMapping("/questions/{id}/related")
+    public ResponseEntity<RelatedContentDTO> getRelated(@PathVariable UUID id) {
+        return relatedContentService.getRelated(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * GET /api/quiz/mock-exam - Lấy đề thi thử theo certification.
+     * Đề được sinh sẵn và trả về dạng JSON đã serialize (xem MockExamDTO).
+     */
+    @GetMapping(value = "/mock-exam", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getMockExam(@RequestParam UUID certificationId) {
+        return mockExamService.getExam(certificationId)
+                .map(json -> ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(json))
+                .orElse(ResponseEntity.notFound().build());
     }
 
     /**
-     * GET /api/quiz/history - Lấy lịch sử quiz
+     * POST /api/quiz/grade - Gửi đáp án của phiên quiz, chấm điểm và lưu lịch sử
+     * (ghi câu trả lời + kết thúc phiên trong một request)
+     */
+    @PostMapping("/grade")
+    public ResponseEntity<QuizResultDTO> gradeQuiz(@Valid @RequestBody QuizSubmitDTO submit) {
+        return quizSessionService.submit(submit)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * POST /api/quiz/sessions - Bắt đầu phiên quiz giữ trên server, trả về câu hỏi
+     */
+    @PostMapping("/sessions")
+    public ResponseEntity<QuizSessionDTO> startSession(@RequestBody QuizSessionStartDTO request) {
+        return ResponseEntity.ok(quizSessionService.start(request));
+    }
+
+    /**
+     * GET /api/quiz/sessions/{id} - Trạng thái phiên quiz
+     */
+    @GetMapping("/sessions/{id}")
+    public ResponseEntity<QuizSessionDTO> getSession(@PathVariable UUID id) {
+        return quizSessionService.getSession(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * POST /api/quiz/sessions/{id}/answers - Ghi câu trả lời (một hoặc nhiều câu),
+     * chỉ lưu trong bộ nhớ
+     */
+    @PostMapping("/sessions/{id}/answers")
+    public ResponseEntity<QuizSessionDTO> answer(@PathVariable UUID id,
+            @Valid @RequestBody List<QuizSubmitDTO.AnswerDTO> answers) {
+        return quizSessionService.answer(id, answers)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * POST /api/quiz/sessions/{id}/finish - Kết thúc phiên, chấm điểm và lưu lịch sử
+     */
+    @PostMapping("/sessions/{id}/finish")
+    public ResponseEntity<QuizResultDTO> finishSession(@PathVariable UUID id) {
+        return quizSessionService.finish(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * GET /api/quiz/history - Lấy 10 lịch sử quiz gần nhất
      */
     @GetMapping("/history")
-    public ResponseEntity<List<Map<String, Object>>> getHistory() {
-        List<QuizHistory> history = quizService.getQuizHistory();
-
-        // Transform to frontend format
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-        List<Map<String, Object>> response = history.stream()
-                .map(h -> {
-                    Map<String, Object> item = new HashMap<>();
-                    item.put("type", formatQuizType(h.getQuizType(), h.getTopicName()));
-                    item.put("date", h.getCompletedAt().format(formatter));
-                    item.put("score", h.getScorePercentage());
-                    return item;
-                })
-                .collect(Collectors.toList());
-
-        return ResponseEntity.ok(response);
+    public ResponseEntity<List<QuizHistoryDTO>> getHistory() {
+        return ResponseEntity.ok(quizService.getQuizHistory());
     }
 
-    private String formatQuizType(String type, String topicName) {
-        return switch (type) {
-            case "MOCK_EXAM" -> "Mock Exam";
-            case "QUICK_QUIZ" -> "Quick Quiz";
-            case "TOPIC_QUIZ" -> "Topic: " + (topicName != null ? topicName : "Unknown");
-            default -> type;
-        };
+    /**
+     * GET /api/quiz/history/page - Lấy toàn bộ lịch sử quiz theo từng trang
+     * 
+     * @param cursor nextCursor của trang trước, bỏ trống cho trang đầu
+     * @param size   Số dòng mỗi trang (default 20, tối đa 100)
+     */
+    @GetMapping("/history/page")
+    public ResponseEntity<CursorPageDTO<QuizHistoryDTO>> getHistoryPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            return ResponseEntity.ok(quizService.getQuizHistoryPage(cursor, size));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * GET /api/quiz/history/series - Điểm quiz tổng hợp theo thời gian (cho biểu đồ)
+     * 
+     * @param granularity day, week hoặc month (default day)
+     * @param from        Optional - ngày bắt đầu (yyyy-MM-dd)
+     * @param to          Optional - ngày kết thúc (yyyy-MM-dd), default hôm nay
+     */
+    @GetMapping("/history/series")
+    public ResponseEntity<List<QuizScorePointDTO>> getHistorySeries(
+            @RequestParam(defaultValue = "day") String granularity,
+            @RequestParam(required = false) LocalDate from,
+            @RequestParam(required = false) LocalDate to) {
+        try {
+            return ResponseEntity.ok(quizService.getScoreSeries(granularity, from, to));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * GET /api/quiz/stats - Tổng hợp kết quả quiz của user (tổng quan + theo topic)
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<QuizStatsDTO> getStats() {
+        return ResponseEntity.ok(quizStatsService.getStats(userService.getCurrentUserId()));
     }
 }
@@ -0,0 +1,41 @@
+package com.ocp.study.controller;
+
+import com.ocp.study.dto.CursorPageDTO;
+import com.ocp.study.dto.SearchResultDTO;
+import com.ocp.study.service.SearchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Set;
+
+/**
+ * REST Controller cho tìm kiếm toàn văn.
+ * 
+ * @author OCP Study Team
+ * @since 1.0.0
+ */
+@RestController
+@RequestMapping("/search")
+@RequiredArgsConstructor
+@Tag(name = "Search", description = "API tìm kiếm câu hỏi, flashcard, topic")
+public class SearchController {
+
+    private final SearchService searchService;
+
+    @GetMapping
+    @Operation(summary = "Tìm kiếm toàn văn", description = "Kết quả xếp theo độ liên quan, phân trang bằng cursor")
+    public ResponseEntity<CursorPageDTO<SearchResultDTO>> search(
+            @RequestParam String q,
+            @RequestParam(required = false) Set<String> types,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            return ResponseEntity.ok(searchService.search(q, types, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
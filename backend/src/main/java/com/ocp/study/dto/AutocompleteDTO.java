@@ -0,0 +1,23 @@
+package com.ocp.study.dto;
+
+import lombok.*;
+
+import java.util.UUID;
+
+/**
+ * DTO một gợi ý autocomplete (certification, topic hoặc subtopic).
+ * 
+ * @author OCP Study Team
+ * @since 1.0.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AutocompleteDTO {
+    private String type; // certification, topic, subtopic
+    private UUID id;
+    private String label;
+    private UUID certificationId;
+    private UUID topicId; // null với certification
+}
@@ -0,0 +1,22 @@
+package com.ocp.study.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * DTO một trang dữ liệu phân trang theo keyset (cursor).
+ * Client gửi lại {@code nextCursor} để lấy trang tiếp theo.
+ * 
+ * @author OCP Study Team
+ * @since 1.0.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursorPageDTO<T> {
+    private List<T> items;
+    private String nextCursor; // null nếu đã hết dữ liệu
+    private Boolean hasMore;
+}
@@ -0,0 +1,22 @@
+package com.ocp.study.dto;
+
+import lombok.*;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO một cụm câu hỏi gần trùng nhau trong ngân hàng câu hỏi.
+ * 
+ * @author OCP Study Team
+ * @since 1.0.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DuplicateClusterDTO {
+    private List<UUID> questionIds;
+    private Integer size;
+    private Double maxSimilarity; // Độ giống cao nhất giữa hai câu hỏi trong cụm
+}
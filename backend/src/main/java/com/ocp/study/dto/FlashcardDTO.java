@@ -40,4 +40,24 @@ public class FlashcardDTO {
     // Thông tin bổ sung
     private String topicName;
     private String subtopicName;
+
+    /**
+     * Constructor cho JPQL projection (flashcard + review của user, null nếu chưa review)
+     */
+    public FlashcardDTO(UUID id, UUID topicId, String topicName, UUID subtopicId, String subtopicName,
+            String front, String back, String codeExample, LocalDateTime createdAt, Integer reviewCount,
+            Integer correctCount, LocalDateTime nextReview) {
+        this.id = id;
+        this.topicId = topicId;
+        this.topicName = topicName;
+        this.subtopicId = subtopicId;
+        this.subtopicName = subtopicName;
+        this.front = front;
+        this.back = back;
+        this.codeExample = codeExample;
+        this.createdAt = createdAt;
+        this.reviewCount = reviewCount != null ? reviewCount : 0;
+        this.correctCount = correctCount != null ? correctCount : 0;
+        this.nextReview = nextReview;
+    }
 }
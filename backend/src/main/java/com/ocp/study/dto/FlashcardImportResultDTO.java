@@ -0,0 +1,23 @@
+package com.ocp.study.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * DTO kết quả import flashcard hàng loạt, kèm lỗi theo từng dòng.
+ *
+ * @author OCP Study Team
+ * @since 1.0.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FlashcardImportResultDTO {
+    private Boolean success;
+    private Integer imported;
+    private Integer failed;
+    private String message;
+    private List<QuestionImportResultDTO.RowErrorDTO> errors;
+}
@@ -0,0 +1,46 @@
+package com.ocp.study.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO gửi nhiều lượt review flashcard một lần (đồng bộ cả phiên học, kể cả khi học offline).
+ * 
+ * @author OCP Study Team
+ * @since 1.0.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FlashcardReviewBatchDTO {
+
+    @Valid
+    @NotEmpty(message = "Danh sách review không được trống")
+    @Size(max = 1000, message = "Tối đa 1000 review mỗi lần")
+    private List<ReviewDTO> reviews;
+
+    /**
+     * Một lượt review
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class ReviewDTO {
+        @NotNull(message = "Flashcard ID là bắt buộc")
+        private UUID flashcardId;
+
+        @NotNull(message = "Kết quả review là bắt buộc")
+        private Boolean correct;
+
+        private LocalDateTime reviewedAt; // Optional - thời điểm review trên client, mặc định là lúc gửi
+    }
+}
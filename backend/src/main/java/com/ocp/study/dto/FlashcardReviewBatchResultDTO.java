@@ -0,0 +1,23 @@
+package com.ocp.study.dto;
+
+import lombok.*;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO kết quả gửi review hàng loạt: trạng thái mới của các flashcard đã cập nhật.
+ * 
+ * @author OCP Study Team
+ * @since 1.0.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FlashcardReviewBatchResultDTO {
+    private int applied; // Số lượt review đã áp dụng
+    private int skipped; // Lượt đã đồng bộ trước đó (không mới hơn lần review cuối) hoặc flashcard không tồn tại
+    private List<UUID> unknownFlashcardIds;
+    private List<FlashcardDTO> flashcards;
+}
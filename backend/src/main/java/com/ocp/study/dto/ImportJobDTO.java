@@ -0,0 +1,36 @@
+package com.ocp.study.dto;
+
+import com.ocp.study.entity.ImportJob;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO trạng thái một job import câu hỏi.
+ * 
+ * @author OCP Study Team
+ * @since 1.0.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportJobDTO {
+    private UUID id;
+    private String fileName;
+    private ImportJob.Status status;
+    private Integer rowsParsed;
+    private Integer rowsWritten;
+    private Integer rowsFailed;
+    private Integer rowsSimilar;
+    private Integer lastCommittedLine;
+    private Double rowsPerSecond; // Tốc độ ghi
+    private String message;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private List<QuestionImportResultDTO.RowErrorDTO> errors; // Tối đa 100 lỗi đầu tiên
+    private List<QuestionImportResultDTO.SimilarRowDTO> similar; // Tối đa 100 dòng gần trùng đầu tiên
+}
@@ -0,0 +1,26 @@
+package com.ocp.study.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO cho một đề thi thử (mock exam) đã được sinh sẵn.
+ * 
+ * @author OCP Study Team
+ * @since 1.0.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MockExamDTO {
+    private UUID bundleId;
+    private UUID certificationId;
+    private Integer totalQuestions;
+    private Integer durationMinutes;
+    private LocalDateTime generatedAt;
+    private List<QuestionDTO> questions;
+}
@@ -1,5 +1,6 @@
 package com.ocp.study.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.ocp.study.entity.Question;
 import lombok.*;
 
@@ -16,6 +17,7 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class QuestionDTO {
     private UUID id;
     private UUID topicId;
@@ -24,7 +26,7 @@ public class QuestionDTO {
     private String codeSnippet;
     private Question.QuestionType questionType;
     private List<OptionDTO> options;
-    private String explanation;
+    private String explanation; // Không trả về khi làm quiz, xem QuizResultDTO
     private Integer difficulty;
 
     /**
@@ -34,10 +36,11 @@ public class QuestionDTO {
     @NoArgsConstructor
     @AllArgsConstructor
     @Builder
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     public static class OptionDTO {
         private UUID id;
         private String optionKey;
         private String content;
-        private Boolean isCorrect; // Chỉ trả về khi show answer
+        private Boolean isCorrect; // Không trả về khi làm quiz, server chấm điểm qua /quiz/grade
     }
 }
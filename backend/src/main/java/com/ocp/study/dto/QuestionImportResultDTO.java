@@ -0,0 +1,52 @@
+package com.ocp.study.dto;
+
+import lombok.*;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO kết quả import câu hỏi, kèm lỗi theo từng dòng.
+ * 
+ * @author OCP Study Team
+ * @since 1.0.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class QuestionImportResultDTO {
+    private Boolean success;
+    private Integer imported; // Câu hỏi mới
+    private Integer updated; // Câu hỏi đã có, được cập nhật
+    private Integer unchanged; // Câu hỏi đã có, không thay đổi
+    private Integer failed;
+    private String message;
+    private List<RowErrorDTO> errors;
+    private List<SimilarRowDTO> similar; // Câu hỏi mới gần trùng với câu hỏi đã có
+
+    /**
+     * Lỗi của một dòng CSV
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class RowErrorDTO {
+        private Integer line; // Số dòng trong file (header là dòng 1)
+        private String message;
+    }
+
+    /**
+     * Câu hỏi mới của một dòng CSV và các câu hỏi đã có gần trùng với nó
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class SimilarRowDTO {
+        private Integer line;
+        private UUID questionId;
+        private List<SimilarQuestionDTO> similarTo;
+    }
+}
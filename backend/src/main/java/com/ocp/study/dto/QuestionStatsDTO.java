@@ -0,0 +1,54 @@
+package com.ocp.study.dto;
+
+import lombok.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * DTO thống kê một câu hỏi (dùng cho admin xem câu khó / hay sai).
+ * 
+ * @author OCP Study Team
+ * @since 1.0.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class QuestionStatsDTO {
+    private UUID questionId;
+    private String content;
+    private Integer difficulty;
+    private Long attempts;
+    private Long correct;
+    private Long skipped;
+    private Long missed; // attempts - correct
+    private Double correctRate; // % đúng
+    private Double averageTimeSeconds;
+    private Map<String, Long> optionPicks; // Số lần chọn từng đáp án
+
+    /**
+     * Constructor cho JPQL projection
+     */
+    public QuestionStatsDTO(UUID questionId, String content, Integer difficulty, Long attempts, Long correct,
+            Long skipped, Long totalTimeSeconds, Long pickedA, Long pickedB, Long pickedC, Long pickedD,
+            Long pickedE, Long pickedF) {
+        this.questionId = questionId;
+        this.content = content;
+        this.difficulty = difficulty;
+        this.attempts = attempts;
+        this.correct = correct;
+        this.skipped = skipped;
+        this.missed = attempts - correct;
+        this.correctRate = attempts > 0 ? Math.round(correct * 1000.0 / attempts) / 10.0 : 0.0;
+        this.averageTimeSeconds = attempts > 0 ? Math.round(totalTimeSeconds * 10.0 / attempts) / 10.0 : 0.0;
+        this.optionPicks = new LinkedHashMap<>();
+        optionPicks.put("A", pickedA);
+        optionPicks.put("B", pickedB);
+        optionPicks.put("C", pickedC);
+        optionPicks.put("D", pickedD);
+        optionPicks.put("E", pickedE);
+        optionPicks.put("F", pickedF);
+    }
+}
@@ -0,0 +1,30 @@
+package com.ocp.study.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * DTO một lần làm quiz trong lịch sử.
+ * 
+ * @author OCP Study Team
+ * @since 1.0.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class QuizHistoryDTO {
+    private UUID id;
+    private String type; // Tên hiển thị: "Mock Exam", "Topic: ..."
+    private String quizType; // QUICK_QUIZ, TOPIC_QUIZ, MOCK_EXAM
+    private UUID topicId;
+    private String topicName;
+    private String date; // dd/MM/yyyy
+    private LocalDateTime completedAt;
+    private Integer score; // %
+    private Integer correctAnswers;
+    private Integer totalQuestions;
+    private Integer timeSpent; // seconds
+}
@@ -0,0 +1,39 @@
+package com.ocp.study.dto;
+
+import lombok.*;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO cho Quiz result - kết quả chấm điểm phía server.
+ * 
+ * @author OCP Study Team
+ * @since 1.0.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class QuizResultDTO {
+    private UUID historyId; // ID bản ghi quiz_history vừa lưu
+    private Integer score; // Số câu đúng
+    private Integer totalQuestions; // Tổng số câu
+    private Double percentage; // % đúng
+    private List<QuestionResultDTO> results;
+
+    /**
+     * Kết quả từng câu
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class QuestionResultDTO {
+        private UUID questionId;
+        private List<String> selectedOptions;
+        private List<String> correctOptions;
+        private Boolean isCorrect;
+        private String explanation;
+    }
+}
@@ -0,0 +1,23 @@
+package com.ocp.study.dto;
+
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * DTO điểm quiz tổng hợp theo một khoảng thời gian (ngày / tuần / tháng).
+ * 
+ * @author OCP Study Team
+ * @since 1.0.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class QuizScorePointDTO {
+    private LocalDate period; // Ngày bắt đầu của khoảng
+    private Long quizzes;
+    private Double averageScore;
+    private Integer bestScore;
+    private Integer worstScore;
+}
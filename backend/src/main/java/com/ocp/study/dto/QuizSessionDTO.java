@@ -0,0 +1,29 @@
+package com.ocp.study.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO trạng thái một phiên quiz.
+ * 
+ * @author OCP Study Team
+ * @since 1.0.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class QuizSessionDTO {
+    private UUID sessionId;
+    private String quizType;
+    private Integer totalQuestions;
+    private Integer answeredCount;
+    private LocalDateTime startedAt;
+    private LocalDateTime expiresAt;
+    private List<QuestionDTO> questions; // Chỉ trả về khi bắt đầu phiên
+}
@@ -0,0 +1,25 @@
+package com.ocp.study.dto;
+
+import lombok.*;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO bắt đầu một phiên quiz giữ trên server.
+ * 
+ * @author OCP Study Team
+ * @since 1.0.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class QuizSessionStartDTO {
+    private String quizType; // QUICK_QUIZ, TOPIC_QUIZ, MOCK_EXAM
+    private UUID topicId; // Optional - for topic quiz
+    private String topicName; // Optional - for display
+    private Integer limit; // Số câu hỏi (default 10)
+    private String mode; // Optional - "adaptive"
+    private List<UUID> questionIds; // Optional - dùng đúng các câu hỏi này (VD: câu hỏi của mock exam)
+}
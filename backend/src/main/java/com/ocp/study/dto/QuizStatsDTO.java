@@ -0,0 +1,42 @@
+package com.ocp.study.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO tổng hợp kết quả quiz của user.
+ * 
+ * @author OCP Study Team
+ * @since 1.0.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class QuizStatsDTO {
+    private Integer quizzesTaken;
+    private Double averageScore;
+    private Integer bestScore;
+    private List<Integer> recentScores; // Mới nhất trước
+    private LocalDateTime lastQuizAt;
+    private List<TopicStatsDTO> topics;
+
+    /**
+     * Tổng hợp theo topic
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class TopicStatsDTO {
+        private UUID topicId;
+        private Integer quizzesTaken;
+        private Double averageScore;
+        private Double rollingAverage;
+        private Integer bestScore;
+        private LocalDateTime lastQuizAt;
+    }
+}
@@ -1,13 +1,15 @@
 package com.ocp.study.dto;
 
-import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
 
 import java.util.List;
+import java.util.UUID;
 
 /**
- * DTO cho Quiz submission.
+ * DTO cho Quiz submission - gửi đáp án của một phiên quiz để server chấm điểm.
+ * Câu hỏi, loại quiz và thời gian làm bài lấy từ phiên trên server.
  * 
  * @author OCP Study Team
  * @since 1.0.0
@@ -18,8 +20,15 @@ import java.util.List;
 @Builder
 public class QuizSubmitDTO {
 
-    @NotEmpty(message = "Danh sách câu trả lời không được trống")
-    private List<AnswerDTO> answers;
+    /**
+     * Phiên quiz đã bắt đầu qua POST /api/quiz/sessions
+     */
+    @NotNull(message = "Session ID là bắt buộc")
+    private UUID sessionId;
+
+    @Valid
+    @NotNull(message = "Danh sách câu trả lời là bắt buộc")
+    private List<AnswerDTO> answers; // Câu hỏi không thuộc phiên bị bỏ qua
 
     /**
      * Một câu trả lời
@@ -30,39 +39,10 @@ public class QuizSubmitDTO {
     @Builder
     public static class AnswerDTO {
         @NotNull(message = "Question ID là bắt buộc")
-        private Long questionId;
+        private UUID questionId;
 
-        @NotEmpty(message = "Phải chọn ít nhất một đáp án")
-        private List<String> selectedOptions; // ["A"], ["A", "C"] cho multiple choice
-    }
-}
-
-/**
- * DTO cho Quiz result.
- */
-@Data
-@NoArgsConstructor
-@AllArgsConstructor
-@Builder
-class QuizResultDTO {
-    private Integer score; // Số câu đúng
-    private Integer totalQuestions; // Tổng số câu
-    private Double percentage; // % đúng
-    private List<QuestionResultDTO> results;
+        private List<String> selectedOptions; // ["A"], ["A", "C"] cho multiple choice, rỗng nếu bỏ qua
 
-    /**
-     * Kết quả từng câu
-     */
-    @Data
-    @NoArgsConstructor
-    @AllArgsConstructor
-    @Builder
-    public static class QuestionResultDTO {
-        private Long questionId;
-        private String questionContent;
-        private List<String> selectedOptions;
-        private List<String> correctOptions;
-        private Boolean isCorrect;
-        private String explanation;
+        private Integer timeSpent; // seconds - Optional, thời gian làm câu này
     }
 }
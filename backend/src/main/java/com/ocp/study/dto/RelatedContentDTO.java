@@ -0,0 +1,50 @@
+package com.ocp.study.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO flashcard và subtopic liên quan đến một câu hỏi, gợi ý sau khi trả lời sai.
+ * computedAt null nghĩa là chưa có kết quả tính sẵn, danh sách lấy theo topic của câu hỏi.
+ * 
+ * @author OCP Study Team
+ * @since 1.0.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RelatedContentDTO {
+    private UUID questionId;
+    private List<RelatedFlashcardDTO> flashcards;
+    private List<RelatedSubtopicDTO> subtopics;
+    private LocalDateTime computedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class RelatedFlashcardDTO {
+        private UUID id;
+        private UUID topicId;
+        private UUID subtopicId;
+        private String front;
+        private String back;
+        private String codeExample;
+        private Float score;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class RelatedSubtopicDTO {
+        private UUID id;
+        private UUID topicId;
+        private String name;
+        private Float score;
+    }
+}
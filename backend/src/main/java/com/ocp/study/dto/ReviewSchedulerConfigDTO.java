@@ -0,0 +1,37 @@
+package com.ocp.study.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * DTO thuật toán spaced repetition đang dùng, tham số và trạng thái reschedule hàng loạt.
+ * Khi admin đổi cấu hình chỉ cần gửi algorithm và parameters (tham số thiếu lấy mặc định).
+ * 
+ * @author OCP Study Team
+ * @since 1.0.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReviewSchedulerConfigDTO {
+    private String algorithm; // SM2, FSRS
+    private Map<String, Object> parameters;
+    private LocalDateTime updatedAt;
+    private Boolean rescheduling;
+    private RescheduleResultDTO lastReschedule;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class RescheduleResultDTO {
+        private String algorithm;
+        private Long rows;
+        private Long updated; // Dòng review trong lúc chạy được bỏ qua
+        private Long durationMs;
+        private LocalDateTime finishedAt;
+    }
+}
@@ -0,0 +1,24 @@
+package com.ocp.study.dto;
+
+import lombok.*;
+
+import java.util.UUID;
+
+/**
+ * DTO một kết quả tìm kiếm (câu hỏi, flashcard, topic hoặc subtopic).
+ * 
+ * @author OCP Study Team
+ * @since 1.0.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SearchResultDTO {
+    private String type; // question, flashcard, topic, subtopic
+    private UUID id;
+    private UUID topicId;
+    private String title; // Tối đa 200 ký tự đầu
+    private String highlight; // Đoạn khớp, HTML đã escape, từ khớp nằm trong <mark>
+    private Float rank;
+}
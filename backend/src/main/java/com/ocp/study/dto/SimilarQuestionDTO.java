@@ -0,0 +1,20 @@
+package com.ocp.study.dto;
+
+import lombok.*;
+
+import java.util.UUID;
+
+/**
+ * DTO câu hỏi gần trùng với một câu hỏi khác, kèm độ giống ước lượng (0-1).
+ * 
+ * @author OCP Study Team
+ * @since 1.0.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SimilarQuestionDTO {
+    private UUID questionId;
+    private Double similarity;
+}
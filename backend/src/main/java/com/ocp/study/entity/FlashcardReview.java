@@ -63,6 +63,38 @@ public class FlashcardReview {
     @Builder.Default
     private Integer difficultyLevel = 3;
 
+    /**
+     * Số lần trả lời đúng liên tiếp (0 sau một lần sai)
+     */
+    @Column(name = "repetitions", nullable = false)
+    @Builder.Default
+    private Integer repetitions = 0;
+
+    /**
+     * Số lần quên (trả lời sai)
+     */
+    @Column(name = "lapses", nullable = false)
+    @Builder.Default
+    private Integer lapses = 0;
+
+    /**
+     * Ease factor của SM-2, null nếu thẻ đang được FSRS lập lịch
+     */
+    @Column(name = "ease_factor")
+    private Double easeFactor;
+
+    /**
+     * Stability của FSRS (ngày), null nếu thẻ đang được SM-2 lập lịch
+     */
+    @Column(name = "stability")
+    private Double stability;
+
+    /**
+     * Difficulty của FSRS (1-10)
+     */
+    @Column(name = "fsrs_difficulty")
+    private Double fsrsDifficulty;
+
     /**
      * Thời gian review tiếp theo (Spaced Repetition)
      */
@@ -81,30 +113,4 @@ public class FlashcardReview {
     @Column(name = "created_at", nullable = false, updatable = false)
     @Builder.Default
     private LocalDateTime createdAt = LocalDateTime.now();
-
-    /**
-     * Mark flashcard as reviewed và update spaced repetition schedule
-     */
-    public void markReviewed(boolean correct) {
-        reviewCount++;
-        lastReviewed = LocalDateTime.now();
-
-        if (correct) {
-            correctCount++;
-            // Giảm độ khó nếu trả lời đúng
-            if (difficultyLevel > 0) {
-                difficultyLevel--;
-            }
-            // Spaced Repetition: interval tăng theo độ khó giảm
-            int intervalDays = (int) Math.pow(2, 5 - difficultyLevel);
-            nextReview = LocalDateTime.now().plusDays(intervalDays);
-        } else {
-            // Tăng độ khó nếu sai
-            if (difficultyLevel < 5) {
-                difficultyLevel++;
-            }
-            // Review lại sớm hơn nếu sai
-            nextReview = LocalDateTime.now().plusHours(4);
-        }
-    }
 }
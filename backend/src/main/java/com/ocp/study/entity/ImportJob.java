@@ -0,0 +1,87 @@
+package com.ocp.study.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Entity một lượt import câu hỏi chạy nền.
+ * 
+ * @author OCP Study Team
+ * @since 1.0.0
+ */
+@Entity
+@Table(name = "import_jobs")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "file_name")
+    private String fileName;
+
+    /**
+     * File upload đã lưu tạm trên server
+     */
+    @Column(name = "file_path", nullable = false, length = 500)
+    private String filePath;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status;
+
+    @Column(name = "rows_parsed", nullable = false)
+    @Builder.Default
+    private Integer rowsParsed = 0;
+
+    @Column(name = "rows_written", nullable = false)
+    @Builder.Default
+    private Integer rowsWritten = 0;
+
+    @Column(name = "rows_failed", nullable = false)
+    @Builder.Default
+    private Integer rowsFailed = 0;
+
+    /**
+     * Số dòng tạo câu hỏi mới gần trùng với câu hỏi đã có
+     */
+    @Column(name = "rows_similar", nullable = false)
+    @Builder.Default
+    private Integer rowsSimilar = 0;
+
+    /**
+     * Dòng cuối của batch đã commit - chạy tiếp sẽ bắt đầu sau dòng này
+     */
+    @Column(name = "last_committed_line", nullable = false)
+    @Builder.Default
+    private Integer lastCommittedLine = 1;
+
+    @Column(columnDefinition = "TEXT")
+    private String message;
+
+    @Column(name = "created_at", nullable = false)
+    @Builder.Default
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED,
+        CANCELLED
+    }
+}
@@ -58,6 +58,7 @@ public class Question {
      * Danh sách các đáp án
      */
     @OneToMany(mappedBy = "question", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("optionKey ASC")
     @Builder.Default
     private List<QuestionOption> options = new ArrayList<>();
 
@@ -74,6 +75,13 @@ public class Question {
     @Builder.Default
     private Integer difficulty = 3;
 
+    /**
+     * Hash nội dung (content, code snippet, options) để phát hiện câu hỏi trùng,
+     * xem QuestionContentHash
+     */
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
     /**
      * Loại câu hỏi
      */
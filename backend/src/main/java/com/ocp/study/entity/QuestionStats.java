@@ -0,0 +1,76 @@
+package com.ocp.study.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Entity thống kê kết quả làm bài theo từng câu hỏi.
+ * Được ghi theo lô bởi QuestionStatsService, không cập nhật trực tiếp qua JPA.
+ * 
+ * @author OCP Study Team
+ * @since 1.0.0
+ */
+@Entity
+@Table(name = "question_stats")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class QuestionStats {
+
+    @Id
+    @Column(name = "question_id")
+    private UUID questionId;
+
+    /**
+     * Số lần câu hỏi được làm
+     */
+    @Column(nullable = false)
+    private Long attempts;
+
+    /**
+     * Số lần trả lời đúng
+     */
+    @Column(nullable = false)
+    private Long correct;
+
+    /**
+     * Số lần bỏ qua (không chọn đáp án)
+     */
+    @Column(nullable = false)
+    private Long skipped;
+
+    /**
+     * Tổng thời gian làm câu hỏi (seconds)
+     */
+    @Column(name = "total_time_seconds", nullable = false)
+    private Long totalTimeSeconds;
+
+    /**
+     * Số lần từng đáp án A-F được chọn
+     */
+    @Column(name = "picked_a", nullable = false)
+    private Long pickedA;
+
+    @Column(name = "picked_b", nullable = false)
+    private Long pickedB;
+
+    @Column(name = "picked_c", nullable = false)
+    private Long pickedC;
+
+    @Column(name = "picked_d", nullable = false)
+    private Long pickedD;
+
+    @Column(name = "picked_e", nullable = false)
+    private Long pickedE;
+
+    @Column(name = "picked_f", nullable = false)
+    private Long pickedF;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
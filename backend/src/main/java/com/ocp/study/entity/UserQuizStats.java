@@ -0,0 +1,65 @@
+package com.ocp.study.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Entity tổng hợp kết quả quiz của một user.
+ * Được cập nhật bằng upsert mỗi lần nộp bài (xem UserQuizStatsRepository).
+ * 
+ * @author OCP Study Team
+ * @since 1.0.0
+ */
+@Entity
+@Table(name = "user_quiz_stats")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserQuizStats {
+
+    @Id
+    @Column(name = "user_id")
+    private UUID userId;
+
+    /**
+     * Số quiz đã làm
+     */
+    @Column(name = "quizzes_taken", nullable = false)
+    private Integer quizzesTaken;
+
+    /**
+     * Tổng điểm phần trăm của các quiz
+     */
+    @Column(name = "score_sum", nullable = false)
+    private Long scoreSum;
+
+    /**
+     * Điểm cao nhất
+     */
+    @Column(name = "best_score", nullable = false)
+    private Integer bestScore;
+
+    /**
+     * Điểm các quiz gần nhất, mới nhất trước: "80,65,90"
+     */
+    @Column(name = "recent_scores", length = 100)
+    private String recentScores;
+
+    @Column(name = "last_quiz_at")
+    private LocalDateTime lastQuizAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    /**
+     * Điểm trung bình (%)
+     */
+    public double getAverageScore() {
+        return quizzesTaken > 0 ? Math.round(scoreSum * 10.0 / quizzesTaken) / 10.0 : 0.0;
+    }
+}
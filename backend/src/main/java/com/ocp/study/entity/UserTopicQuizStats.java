@@ -0,0 +1,62 @@
+package com.ocp.study.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Entity tổng hợp kết quả quiz của một user theo từng topic.
+ * 
+ * @author OCP Study Team
+ * @since 1.0.0
+ */
+@Entity
+@Table(name = "user_topic_quiz_stats")
+@IdClass(UserTopicQuizStats.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserTopicQuizStats {
+
+    @Id
+    @Column(name = "user_id")
+    private UUID userId;
+
+    @Id
+    @Column(name = "topic_id")
+    private UUID topicId;
+
+    @Column(name = "quizzes_taken", nullable = false)
+    private Integer quizzesTaken;
+
+    @Column(name = "score_sum", nullable = false)
+    private Long scoreSum;
+
+    @Column(name = "best_score", nullable = false)
+    private Integer bestScore;
+
+    /**
+     * Trung bình trượt (EWMA) - phản ánh phong độ gần đây hơn trung bình cộng
+     */
+    @Column(name = "rolling_average", nullable = false)
+    private Double rollingAverage;
+
+    @Column(name = "last_quiz_at")
+    private LocalDateTime lastQuizAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private UUID userId;
+        private UUID topicId;
+    }
+}
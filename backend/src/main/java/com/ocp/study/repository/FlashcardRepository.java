@@ -1,5 +1,6 @@
 package com.ocp.study.repository;
 
+import com.ocp.study.dto.FlashcardDTO;
 import com.ocp.study.entity.Flashcard;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -26,6 +27,19 @@ public interface FlashcardRepository extends JpaRepository<Flashcard, UUID> {
     org.springframework.data.domain.Page<Flashcard> findByTopicIdOrderByCreatedAtDesc(UUID topicId,
             org.springframework.data.domain.Pageable pageable);
 
+    /**
+     * Một trang flashcard của topic kèm trạng thái review của user, trong một câu query:
+     * review được LEFT JOIN theo (user_id, flashcard_id) nên chỉ chạm các thẻ của trang
+     */
+    @Query(value = "SELECT new com.ocp.study.dto.FlashcardDTO(f.id, t.id, t.name, s.id, s.name, f.front, f.back, "
+            + "f.codeExample, f.createdAt, fr.reviewCount, fr.correctCount, fr.nextReview) "
+            + "FROM Flashcard f JOIN f.topic t LEFT JOIN f.subtopic s "
+            + "LEFT JOIN FlashcardReview fr ON fr.flashcard = f AND fr.user.id = :userId "
+            + "WHERE t.id = :topicId ORDER BY f.createdAt DESC, f.id",
+            countQuery = "SELECT COUNT(f) FROM Flashcard f WHERE f.topic.id = :topicId")
+    org.springframework.data.domain.Page<FlashcardDTO> findPageWithReviewState(UUID topicId, UUID userId,
+            org.springframework.data.domain.Pageable pageable);
+
     /**
      * Lấy flashcards theo subtopic
      */
@@ -0,0 +1,50 @@
+package com.ocp.study.repository;
+
+import com.ocp.study.entity.ImportJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository cho ImportJob entity.
+ * 
+ * @author OCP Study Team
+ * @since 1.0.0
+ */
+@Repository
+public interface ImportJobRepository extends JpaRepository<ImportJob, UUID> {
+
+    List<ImportJob> findTop20ByOrderByCreatedAtDesc();
+
+    /**
+     * Job đang chạy khi server dừng đột ngột -> chuyển sang FAILED để có thể chạy tiếp
+     */
+    @Modifying
+    @Query("UPDATE ImportJob j SET j.status = com.ocp.study.entity.ImportJob.Status.FAILED, "
+            + "j.message = 'Server dừng khi đang import' "
+            + "WHERE j.status IN (com.ocp.study.entity.ImportJob.Status.RUNNING, com.ocp.study.entity.ImportJob.Status.QUEUED)")
+    int failInterruptedJobs();
+
+    /**
+     * Lỗi theo dòng của job: (line_no, message)
+     */
+    @Query(value = "SELECT line_no, message FROM import_job_errors WHERE job_id = :jobId ORDER BY line_no LIMIT :limit",
+            nativeQuery = true)
+    List<Object[]> findErrors(UUID jobId, int limit);
+
+    /**
+     * Câu hỏi gần trùng của {@code limit} dòng đầu tiên:
+     * (line_no, question_id, similar_question_id, similarity), giống nhất trước
+     */
+    @Query(value = """
+            SELECT line_no, question_id, similar_question_id, similarity FROM import_job_similar
+            WHERE job_id = :jobId AND line_no IN (
+                SELECT DISTINCT line_no FROM import_job_similar WHERE job_id = :jobId ORDER BY line_no LIMIT :limit)
+            ORDER BY line_no, similarity DESC
+            """, nativeQuery = true)
+    List<Object[]> findSimilar(UUID jobId, int limit);
+}
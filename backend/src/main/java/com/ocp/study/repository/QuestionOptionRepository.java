@@ -0,0 +1,43 @@
+package com.ocp.study.repository;
+
+import com.ocp.study.entity.QuestionOption;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository cho QuestionOption entity.
+ * 
+ * @author OCP Study Team
+ * @since 1.0.0
+ */
+@Repository
+public interface QuestionOptionRepository extends JpaRepository<QuestionOption, UUID> {
+
+    /**
+     * Lấy (question_id, is_correct) của options theo danh sách câu hỏi, sắp xếp theo
+     * option_key để khớp thứ tự A, B, C... trả về cho client
+     */
+    @Query("SELECT o.question.id, o.isCorrect FROM QuestionOption o WHERE o.question.id IN :questionIds "
+            + "ORDER BY o.question.id, o.optionKey")
+    List<Object[]> findAnswerFlagsByQuestionIdIn(Collection<UUID> questionIds);
+
+    /**
+     * Lấy (question_id, option_id, content, is_correct) của options theo danh sách
+     * câu hỏi - dựng quiz mà không load từng collection options
+     */
+    @Query("SELECT o.question.id, o.id, o.content, o.isCorrect FROM QuestionOption o "
+            + "WHERE o.question.id IN :questionIds ORDER BY o.question.id, o.optionKey")
+    List<Object[]> findQuizRowsByQuestionIdIn(Collection<UUID> questionIds);
+
+    /**
+     * Như {@link #findQuizRowsByQuestionIdIn(Collection)} cho toàn bộ câu hỏi của topic
+     */
+    @Query("SELECT o.question.id, o.id, o.content, o.isCorrect FROM QuestionOption o "
+            + "WHERE o.question.topic.id = :topicId ORDER BY o.question.id, o.optionKey")
+    List<Object[]> findQuizRowsByTopicId(UUID topicId);
+}
@@ -1,12 +1,19 @@
 package com.ocp.study.repository;
 
 import com.ocp.study.entity.Question;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Repository cho Question entity.
@@ -25,25 +32,62 @@ public interface QuestionRepository extends JpaRepository<Question, UUID> {
     long countByTopic_Certification_Id(UUID certificationId);
 
     /**
-     * Lấy questions với options (eager fetch)
+     * Lấy questions của topic kèm topic (options load riêng bằng một query)
      */
-    @Query("SELECT DISTINCT q FROM Question q LEFT JOIN FETCH q.options WHERE q.topic.id = :topicId")
-    List<Question> findByTopicIdWithOptions(UUID topicId);
+    @Query("SELECT q FROM Question q JOIN FETCH q.topic WHERE q.topic.id = :topicId ORDER BY q.id")
+    List<Question> findAllWithTopicByTopicId(UUID topicId);
 
     /**
-     * Lấy ngẫu nhiên N câu hỏi để làm quiz
+     * Trang đầu tiên câu hỏi của topic theo thứ tự id (keyset pagination)
      */
-    @Query(value = "SELECT * FROM questions ORDER BY RANDOM() LIMIT :limit", nativeQuery = true)
-    List<Question> findRandomQuestions(int limit);
+    @Query("SELECT q FROM Question q JOIN FETCH q.topic WHERE q.topic.id = :topicId ORDER BY q.id")
+    List<Question> findPageByTopicId(UUID topicId, Limit limit);
 
     /**
-     * Lấy ngẫu nhiên N câu hỏi theo topic
+     * Trang tiếp theo sau câu hỏi {@code after} (keyset pagination)
      */
-    @Query(value = "SELECT * FROM questions WHERE topic_id = :topicId ORDER BY RANDOM() LIMIT :limit", nativeQuery = true)
-    List<Question> findRandomQuestionsByTopic(UUID topicId, int limit);
+    @Query("SELECT q FROM Question q JOIN FETCH q.topic WHERE q.topic.id = :topicId AND q.id > :after ORDER BY q.id")
+    List<Question> findPageByTopicIdAfter(UUID topicId, UUID after, Limit limit);
+
+    /**
+     * Stream các dòng phẳng (question_id, content, code_snippet, question_type, difficulty,
+     * topic_id, topic_name, option_id, option_content) của topic, đọc bằng
+     * cursor theo từng lô. Phải gọi trong transaction và đóng stream sau khi dùng.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+    @Query("SELECT q.id, q.content, q.codeSnippet, q.questionType, q.difficulty, t.id, t.name, "
+            + "o.id, o.content "
+            + "FROM Question q JOIN q.topic t LEFT JOIN q.options o WHERE t.id = :topicId ORDER BY q.id, o.optionKey")
+    Stream<Object[]> streamQuizRowsByTopicId(UUID topicId);
+
+    /**
+     * Lấy (id, topic_id, difficulty) của tất cả câu hỏi để dựng pool chọn ngẫu nhiên
+     */
+    @Query("SELECT q.id, q.topic.id, q.difficulty FROM Question q")
+    List<Object[]> findAllPoolEntries();
+
+    /**
+     * Lấy các câu hỏi theo danh sách ID kèm topic trong một query
+     */
+    @Query("SELECT q FROM Question q JOIN FETCH q.topic WHERE q.id IN :ids")
+    List<Question> findAllWithTopicByIdIn(Collection<UUID> ids);
+
+    /**
+     * Lấy (id, explanation, topic_id, difficulty) theo danh sách ID - dùng khi chấm điểm
+     */
+    @Query("SELECT q.id, q.explanation, q.topic.id, q.difficulty FROM Question q WHERE q.id IN :ids")
+    List<Object[]> findGradingInfoByIdIn(Collection<UUID> ids);
 
     /**
      * Đếm số câu hỏi theo topic
      */
     long countByTopicId(UUID topicId);
+
+    /**
+     * Câu hỏi có cùng hash nội dung (nếu có)
+     */
+    @Query("SELECT q.id FROM Question q WHERE q.contentHash = :contentHash")
+    Optional<UUID> findIdByContentHash(String contentHash);
 }
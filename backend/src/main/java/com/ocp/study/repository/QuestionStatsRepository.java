@@ -0,0 +1,39 @@
+package com.ocp.study.repository;
+
+import com.ocp.study.dto.QuestionStatsDTO;
+import com.ocp.study.entity.QuestionStats;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository cho QuestionStats entity.
+ * 
+ * @author OCP Study Team
+ * @since 1.0.0
+ */
+@Repository
+public interface QuestionStatsRepository extends JpaRepository<QuestionStats, UUID> {
+
+    /**
+     * Câu hỏi khó nhất của topic (tỉ lệ đúng thấp nhất)
+     */
+    @Query("SELECT new com.ocp.study.dto.QuestionStatsDTO(q.id, q.content, q.difficulty, s.attempts, s.correct, "
+            + "s.skipped, s.totalTimeSeconds, s.pickedA, s.pickedB, s.pickedC, s.pickedD, s.pickedE, s.pickedF) "
+            + "FROM QuestionStats s, Question q WHERE q.id = s.questionId AND q.topic.id = :topicId "
+            + "AND s.attempts >= :minAttempts ORDER BY (s.correct * 1.0 / s.attempts) ASC, s.attempts DESC")
+    List<QuestionStatsDTO> findHardestByTopic(UUID topicId, long minAttempts, Pageable pageable);
+
+    /**
+     * Câu hỏi bị làm sai nhiều lần nhất của topic
+     */
+    @Query("SELECT new com.ocp.study.dto.QuestionStatsDTO(q.id, q.content, q.difficulty, s.attempts, s.correct, "
+            + "s.skipped, s.totalTimeSeconds, s.pickedA, s.pickedB, s.pickedC, s.pickedD, s.pickedE, s.pickedF) "
+            + "FROM QuestionStats s, Question q WHERE q.id = s.questionId AND q.topic.id = :topicId "
+            + "AND s.attempts >= :minAttempts ORDER BY (s.attempts - s.correct) DESC")
+    List<QuestionStatsDTO> findMostMissedByTopic(UUID topicId, long minAttempts, Pageable pageable);
+}
@@ -3,8 +3,10 @@ package com.ocp.study.repository;
 import com.ocp.study.entity.QuizHistory;
 import com.ocp.study.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -26,4 +28,37 @@ public interface QuizHistoryRepository extends JpaRepository<QuizHistory, UUID>
      * Lấy N lịch sử gần nhất của user
      */
     List<QuizHistory> findTop10ByUserOrderByCompletedAtDesc(User user);
+
+    /**
+     * Trang đầu lịch sử quiz theo keyset (completed_at, id) giảm dần
+     */
+    @Query(value = """
+            SELECT * FROM quiz_history WHERE user_id = :userId
+            ORDER BY completed_at DESC, id DESC LIMIT :limit
+            """, nativeQuery = true)
+    List<QuizHistory> findFirstPage(UUID userId, int limit);
+
+    /**
+     * Trang tiếp theo sau (completedAt, id) của dòng cuối trang trước
+     */
+    @Query(value = """
+            SELECT * FROM quiz_history WHERE user_id = :userId
+              AND (completed_at, id) < (:completedAt, :id)
+            ORDER BY completed_at DESC, id DESC LIMIT :limit
+            """, nativeQuery = true)
+    List<QuizHistory> findPageAfter(UUID userId, LocalDateTime completedAt, UUID id, int limit);
+
+    /**
+     * Tổng hợp điểm theo khoảng thời gian: (period, count, avg, max, min)
+     *
+     * @param granularity day, week hoặc month (tham số của date_trunc)
+     */
+    @Query(value = """
+            SELECT CAST(date_trunc(CAST(:granularity AS TEXT), completed_at) AS DATE) AS period,
+                   COUNT(*), AVG(score_percentage), MAX(score_percentage), MIN(score_percentage)
+            FROM quiz_history
+            WHERE user_id = :userId AND completed_at >= :from AND completed_at < :to
+            GROUP BY 1 ORDER BY 1
+            """, nativeQuery = true)
+    List<Object[]> findScoreSeries(UUID userId, String granularity, LocalDateTime from, LocalDateTime to);
 }
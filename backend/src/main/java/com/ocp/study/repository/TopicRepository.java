@@ -45,6 +45,11 @@ public interface TopicRepository extends JpaRepository<Topic, UUID> {
     @Query("SELECT DISTINCT t FROM Topic t LEFT JOIN FETCH t.subtopics WHERE t.certification.id = :certificationId ORDER BY t.orderIndex")
     List<Topic> findAllWithSubtopicsByCertificationId(UUID certificationId);
 
+    /**
+     * Lấy topics theo certification, sắp xếp theo thứ tự
+     */
+    List<Topic> findByCertificationIdOrderByOrderIndexAsc(UUID certificationId);
+
     long countByCertificationId(UUID certificationId);
 
     org.springframework.data.domain.Page<Topic> findAllByCertificationId(UUID certificationId,
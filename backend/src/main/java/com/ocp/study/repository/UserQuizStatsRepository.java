@@ -0,0 +1,40 @@
+package com.ocp.study.repository;
+
+import com.ocp.study.entity.UserQuizStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Repository cho UserQuizStats entity.
+ * 
+ * @author OCP Study Team
+ * @since 1.0.0
+ */
+@Repository
+public interface UserQuizStatsRepository extends JpaRepository<UserQuizStats, UUID> {
+
+    /**
+     * Cộng một kết quả quiz vào tổng hợp của user (giữ 10 điểm gần nhất)
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO user_quiz_stats (user_id, quizzes_taken, score_sum, best_score, recent_scores, last_quiz_at, updated_at)
+            VALUES (:userId, 1, :score, :score, CAST(:score AS VARCHAR), :completedAt, CURRENT_TIMESTAMP)
+            ON CONFLICT (user_id) DO UPDATE
+            SET quizzes_taken = user_quiz_stats.quizzes_taken + 1,
+                score_sum = user_quiz_stats.score_sum + EXCLUDED.score_sum,
+                best_score = GREATEST(user_quiz_stats.best_score, EXCLUDED.best_score),
+                recent_scores = array_to_string((ARRAY[EXCLUDED.recent_scores]
+                        || string_to_array(user_quiz_stats.recent_scores, ','))[1:10], ','),
+                last_quiz_at = EXCLUDED.last_quiz_at,
+                updated_at = EXCLUDED.updated_at
+            """, nativeQuery = true)
+    void addResult(@Param("userId") UUID userId, @Param("score") int score,
+            @Param("completedAt") LocalDateTime completedAt);
+}
@@ -0,0 +1,46 @@
+package com.ocp.study.repository;
+
+import com.ocp.study.entity.UserTopicQuizStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository cho UserTopicQuizStats entity.
+ * 
+ * @author OCP Study Team
+ * @since 1.0.0
+ */
+@Repository
+public interface UserTopicQuizStatsRepository
+        extends JpaRepository<UserTopicQuizStats, UserTopicQuizStats.Key> {
+
+    List<UserTopicQuizStats> findByUserIdOrderByLastQuizAtDesc(UUID userId);
+
+    /**
+     * Cộng một kết quả quiz vào tổng hợp theo topic.
+     * rolling_average = alpha * điểm mới + (1 - alpha) * giá trị cũ
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO user_topic_quiz_stats (user_id, topic_id, quizzes_taken, score_sum, best_score,
+                rolling_average, last_quiz_at, updated_at)
+            VALUES (:userId, :topicId, 1, :score, :score, :score, :completedAt, CURRENT_TIMESTAMP)
+            ON CONFLICT (user_id, topic_id) DO UPDATE
+            SET quizzes_taken = user_topic_quiz_stats.quizzes_taken + 1,
+                score_sum = user_topic_quiz_stats.score_sum + EXCLUDED.score_sum,
+                best_score = GREATEST(user_topic_quiz_stats.best_score, EXCLUDED.best_score),
+                rolling_average = :alpha * EXCLUDED.rolling_average
+                        + (1 - :alpha) * user_topic_quiz_stats.rolling_average,
+                last_quiz_at = EXCLUDED.last_quiz_at,
+                updated_at = EXCLUDED.updated_at
+            """, nativeQuery = true)
+    void addResult(@Param("userId") UUID userId, @Param("topicId") UUID topicId, @Param("score") int score,
+            @Param("alpha") double alpha, @Param("completedAt") LocalDateTime completedAt);
+}
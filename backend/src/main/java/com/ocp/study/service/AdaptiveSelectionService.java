@@ -0,0 +1,396 @@
+package com.ocp.study.service;
+
+import com.ocp.study.util.FenwickSampler;
+import com.ocp.study.util.LruCache;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Chọn câu hỏi adaptive theo điểm yếu của từng user.
+ * Mỗi user giữ số lần làm / làm sai theo (topic, độ khó) trong bộ nhớ. Câu hỏi
+ * được chọn bằng cây Fenwick trên các ô (topic, độ khó) với trọng số là tỉ lệ
+ * sai, sau đó lấy ngẫu nhiên một câu trong ô đó từ {@link QuestionPoolService}.
+ * Kết quả chấm điểm chỉ cập nhật trọng số của các ô vừa làm (O(log n) mỗi ô).
+ * Dữ liệu chỉ đọc DB một lần khi user được load vào cache và được ghi xuống
+ * bảng user_weakness_weights theo chu kỳ (write-behind). Cache giới hạn số user (LRU);
+ * user bị bỏ khỏi cache được ghi xuống DB trước khi có thể load lại.
+ *
+ * @author OCP Study Team
+ * @since 1.0.0
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AdaptiveSelectionService {
+
+    private static final int LEVELS = QuestionPoolService.MAX_DIFFICULTY - QuestionPoolService.MIN_DIFFICULTY + 1;
+
+    /**
+     * Trọng số tối thiểu để ô đã làm tốt vẫn thỉnh thoảng được chọn lại
+     */
+    private static final double MIN_WEIGHT = 0.05;
+
+    private static final UUID ALL_TOPICS = new UUID(0, 0);
+
+    private static final int[] NO_ATTEMPTS = new int[2 * LEVELS];
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO user_weakness_weights (user_id, topic_id, difficulty, attempts, wrong, updated_at)
+            SELECT ?, ?, ?, ?, ?, CURRENT_TIMESTAMP
+            WHERE EXISTS (SELECT 1 FROM topics t WHERE t.id = ?)
+            ON CONFLICT (user_id, topic_id, difficulty) DO UPDATE
+            SET attempts = EXCLUDED.attempts, wrong = EXCLUDED.wrong, updated_at = EXCLUDED.updated_at
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final QuestionPoolService questionPoolService;
+
+    @Value("${quiz.adaptive.max-cached-users:10000}")
+    private int maxCachedUsers;
+
+    @Value("${quiz.adaptive.idle-eviction-minutes:60}")
+    private long idleEvictionMinutes;
+
+    private LruCache<UUID, UserWeakness> cache;
+
+    /**
+     * User vừa bị bỏ khỏi cache, chưa ghi xong xuống DB
+     */
+    private final Map<UUID, UserWeakness> retiring = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        cache = new LruCache<>(maxCachedUsers, retiring::put);
+    }
+
+    /**
+     * Kết quả một câu hỏi đã chấm
+     */
+    public record Outcome(UUID topicId, Integer difficulty, boolean correct) {
+    }
+
+    /**
+     * Chọn tối đa {@code limit} câu hỏi, ưu tiên (topic, độ khó) user hay làm sai
+     *
+     * @param topicId null để chọn trên tất cả topic
+     */
+    public List<UUID> selectQuestionIds(UUID userId, UUID topicId, int limit) {
+        UserWeakness weakness = getOrLoad(userId);
+        List<CellKey> draws = weakness.draw(topicId, questionPoolService, limit * 8, ThreadLocalRandom.current());
+
+        Set<UUID> picked = new LinkedHashSet<>();
+        for (CellKey cell : draws) {
+            if (picked.size() >= limit) {
+                break;
+            }
+            List<UUID> one = questionPoolService.sample(cell.topicId(), cell.difficulty(), 1);
+            if (!one.isEmpty()) {
+                picked.add(one.get(0));
+            }
+        }
+
+        // Bổ sung ngẫu nhiên nếu các ô yếu không đủ câu hỏi khác nhau
+        if (picked.size() < limit) {
+            for (UUID id : questionPoolService.sample(topicId, limit * 2)) {
+                if (picked.size() >= limit) {
+                    break;
+                }
+                picked.add(id);
+            }
+        }
+        return new ArrayList<>(picked);
+    }
+
+    /**
+     * Cập nhật trọng số sau khi chấm điểm một quiz (không ghi DB ngay)
+     */
+    public void recordResults(UUID userId, List<Outcome> outcomes) {
+        if (outcomes.isEmpty()) {
+            return;
+        }
+        while (!getOrLoad(userId).record(outcomes)) {
+            // Instance vừa bị bỏ khỏi cache và đã ghi xuống DB: load lại rồi ghi vào instance mới
+        }
+    }
+
+    /**
+     * Ghi các ô đã thay đổi xuống DB và bỏ user không hoạt động khỏi cache
+     */
+    @Scheduled(fixedDelayString = "${quiz.adaptive.flush-interval-ms:60000}")
+    public void flush() {
+        long idleBefore = System.currentTimeMillis() - idleEvictionMinutes * 60_000;
+        cache.evictIf((userId, weakness) -> weakness.lastAccess < idleBefore);
+        retireEvicted();
+        for (Map.Entry<UUID, UserWeakness> entry : cache.entries()) {
+            flushUser(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        retireEvicted();
+        cache.entries().forEach(entry -> flushUser(entry.getKey(), entry.getValue()));
+    }
+
+    /**
+     * Ghi các ô đã thay đổi của user. Giữ monitor của instance trong lúc ghi để hai lần ghi
+     * cùng user không đè giá trị mới bằng giá trị cũ.
+     */
+    private void flushUser(UUID userId, UserWeakness weakness) {
+        synchronized (weakness) {
+            Map<CellKey, int[]> dirty = weakness.drainDirty();
+            if (dirty.isEmpty()) {
+                return;
+            }
+            List<Object[]> args = new ArrayList<>(dirty.size());
+            dirty.forEach((cell, counts) -> args.add(new Object[] {
+                    userId, cell.topicId(), cell.difficulty(), counts[0], counts[1], cell.topicId() }));
+            try {
+                jdbcTemplate.batchUpdate(UPSERT_SQL, args);
+            } catch (Exception e) {
+                log.error("Failed to flush weakness weights for user {}: {}", userId, e.getMessage());
+                weakness.markDirty(dirty.keySet());
+            }
+        }
+    }
+
+    private UserWeakness getOrLoad(UUID userId) {
+        UserWeakness weakness = cache.get(userId);
+        if (weakness == null) {
+            UserWeakness retired = retiring.get(userId);
+            if (retired != null) {
+                retire(userId, retired); // Dữ liệu của instance cũ phải có trong DB trước khi load lại
+            }
+            UserWeakness loaded = load(userId);
+            weakness = cache.putIfAbsent(userId, loaded);
+            if (weakness == null) {
+                weakness = loaded;
+            }
+            retireEvicted();
+        }
+        weakness.lastAccess = System.currentTimeMillis();
+        return weakness;
+    }
+
+    private void retireEvicted() {
+        retiring.forEach(this::retire);
+    }
+
+    /**
+     * Đánh dấu instance đã bị bỏ khỏi cache và ghi phần chưa lưu xuống DB. Ghi sau lúc
+     * này vào instance sẽ thất bại để người ghi load lại user.
+     */
+    private void retire(UUID userId, UserWeakness weakness) {
+        synchronized (weakness) {
+            if (!weakness.dead) {
+                weakness.dead = true;
+                flushUser(userId, weakness);
+            }
+        }
+        retiring.remove(userId, weakness);
+    }
+
+    /**
+     * Load trọng số của user. Lần đầu (chưa có dữ liệu) thì khởi tạo từ quiz_history.
+     */
+    private UserWeakness load(UUID userId) {
+        UserWeakness weakness = new UserWeakness();
+        jdbcTemplate.query(
+                "SELECT topic_id, difficulty, attempts, wrong FROM user_weakness_weights WHERE user_id = ?",
+                rs -> {
+                    weakness.set(rs.getObject("topic_id", UUID.class), rs.getInt("difficulty"),
+                            rs.getInt("attempts"), rs.getInt("wrong"), false);
+                },
+                userId);
+
+        if (weakness.cells.isEmpty()) {
+            // quiz_history chỉ có tổng theo topic -> chia đều cho các độ khó
+            jdbcTemplate.query("""
+                    SELECT topic_id, SUM(total_questions) AS attempts, SUM(total_questions - correct_answers) AS wrong
+                    FROM quiz_history WHERE user_id = ? AND topic_id IS NOT NULL GROUP BY topic_id
+                    """,
+                    rs -> {
+                        UUID topicId = rs.getObject("topic_id", UUID.class);
+                        int attempts = rs.getInt("attempts") / LEVELS;
+                        int wrong = rs.getInt("wrong") / LEVELS;
+                        if (attempts > 0) {
+                            for (int d = QuestionPoolService.MIN_DIFFICULTY; d <= QuestionPoolService.MAX_DIFFICULTY; d++) {
+                                weakness.set(topicId, d, attempts, wrong, true);
+                            }
+                        }
+                    },
+                    userId);
+        }
+        return weakness;
+    }
+
+    private record CellKey(UUID topicId, int difficulty) {
+    }
+
+    /**
+     * Cây trọng số đã dựng cho một bộ lọc topic
+     *
+     * @param positions ô (topic, độ khó) -> index trong sampler
+     */
+    private record Sampler(long poolVersion, CellKey[] cells, Map<CellKey, Integer> positions,
+            FenwickSampler tree) {
+    }
+
+    /**
+     * Trọng số điểm yếu của một user. Mỗi topic là một mảng int[2 * LEVELS]:
+     * [0, LEVELS) là số lần làm, [LEVELS, 2 * LEVELS) là số lần sai.
+     */
+    private static final class UserWeakness {
+
+        private final Map<UUID, int[]> cells = new HashMap<>();
+        private final Set<CellKey> dirty = new HashSet<>();
+        private final Map<UUID, Sampler> samplers = new HashMap<>();
+        volatile long lastAccess = System.currentTimeMillis();
+        /**
+         * Đã bị bỏ khỏi cache; chỉ đọc / ghi khi giữ monitor
+         */
+        boolean dead;
+
+        synchronized void set(UUID topicId, int difficulty, int attempts, int wrong, boolean markDirty) {
+            int index = index(difficulty);
+            int[] counts = cells.computeIfAbsent(topicId, k -> new int[2 * LEVELS]);
+            counts[index] = attempts;
+            counts[LEVELS + index] = wrong;
+            if (markDirty) {
+                dirty.add(new CellKey(topicId, index + QuestionPoolService.MIN_DIFFICULTY));
+            }
+        }
+
+        /**
+         * @return false nếu instance đã bị bỏ khỏi cache (không ghi gì)
+         */
+        synchronized boolean record(List<Outcome> outcomes) {
+            if (dead) {
+                return false;
+            }
+            for (Outcome outcome : outcomes) {
+                if (outcome.topicId() == null) {
+                    continue;
+                }
+                int index = index(outcome.difficulty());
+                int[] counts = cells.computeIfAbsent(outcome.topicId(), k -> new int[2 * LEVELS]);
+                counts[index]++;
+                if (!outcome.correct()) {
+                    counts[LEVELS + index]++;
+                }
+                CellKey cell = new CellKey(outcome.topicId(), index + QuestionPoolService.MIN_DIFFICULTY);
+                dirty.add(cell);
+                double weight = weight(counts, index);
+                for (Sampler sampler : samplers.values()) {
+                    Integer position = sampler.positions().get(cell);
+                    if (position != null) {
+                        sampler.tree().set(position, weight);
+                    }
+                }
+            }
+            return true;
+        }
+
+        synchronized Map<CellKey, int[]> drainDirty() {
+            Map<CellKey, int[]> result = new HashMap<>();
+            for (CellKey key : dirty) {
+                int[] counts = cells.get(key.topicId());
+                int index = key.difficulty() - QuestionPoolService.MIN_DIFFICULTY;
+                result.put(key, new int[] { counts[index], counts[LEVELS + index] });
+            }
+            dirty.clear();
+            return result;
+        }
+
+        synchronized void markDirty(Set<CellKey> keys) {
+            dirty.addAll(keys);
+        }
+
+        /**
+         * Chọn {@code draws} ô (topic, độ khó) theo trọng số trong bộ lọc topic. Cây trọng số
+         * chỉ dựng lại khi pool câu hỏi đổi (ô nào còn câu hỏi).
+         */
+        synchronized List<CellKey> draw(UUID topicId, QuestionPoolService pool, int draws, Random random) {
+            UUID key = topicId != null ? topicId : ALL_TOPICS;
+            long poolVersion = pool.version();
+            Sampler sampler = samplers.get(key);
+            if (sampler == null || sampler.poolVersion() != poolVersion) {
+                sampler = build(topicId, pool, poolVersion);
+                if (sampler == null) {
+                    samplers.remove(key);
+                    return List.of();
+                }
+                samplers.put(key, sampler);
+            }
+
+            List<CellKey> result = new ArrayList<>(draws);
+            for (int i = 0; i < draws; i++) {
+                result.add(sampler.cells()[sampler.tree().sample(random)]);
+            }
+            return result;
+        }
+
+        private Sampler build(UUID topicId, QuestionPoolService pool, long poolVersion) {
+            Map<UUID, int[]> available = topicId != null
+                    ? Map.of(topicId, pool.countByDifficulty(topicId))
+                    : pool.countsByTopic();
+
+            List<CellKey> cells = new ArrayList<>();
+            List<Double> weights = new ArrayList<>();
+            available.forEach((tid, counts) -> {
+                int[] stats = this.cells.getOrDefault(tid, NO_ATTEMPTS);
+                for (int i = 0; i < LEVELS; i++) {
+                    if (counts[i] == 0) {
+                        continue;
+                    }
+                    cells.add(new CellKey(tid, i + QuestionPoolService.MIN_DIFFICULTY));
+                    weights.add(weight(stats, i));
+                }
+            });
+
+            if (weights.isEmpty()) {
+                return null;
+            }
+
+            double[] w = new double[weights.size()];
+            Map<CellKey, Integer> positions = new HashMap<>();
+            for (int i = 0; i < w.length; i++) {
+                w[i] = weights.get(i);
+                positions.put(cells.get(i), i);
+            }
+            return new Sampler(poolVersion, cells.toArray(new CellKey[0]), positions, new FenwickSampler(w));
+        }
+
+        /**
+         * Tỉ lệ sai làm mượt (Laplace): ô chưa làm bao giờ có trọng số 0.5
+         */
+        private static double weight(int[] counts, int index) {
+            double errorRate = (counts[LEVELS + index] + 1.0) / (counts[index] + 2.0);
+            return Math.max(errorRate, MIN_WEIGHT);
+        }
+
+        private static int index(Integer difficulty) {
+            int d = difficulty != null ? difficulty : 3;
+            return Math.max(QuestionPoolService.MIN_DIFFICULTY, Math.min(QuestionPoolService.MAX_DIFFICULTY, d))
+                    - QuestionPoolService.MIN_DIFFICULTY;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.ocp.study.service;
+
+import com.ocp.study.entity.Question;
+import com.ocp.study.entity.QuestionOption;
+import com.ocp.study.repository.QuestionOptionRepository;
+import com.ocp.study.util.LruCache;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Cache đáp án đúng của câu hỏi để chấm điểm quiz phía server.
+ * Mỗi câu hỏi chỉ tốn một giá trị short: 8 bit thấp là bitmask đáp án đúng
+ * (bit 0 = A, bit 1 = B, ...), 4 bit tiếp theo là số lượng options.
+ * Chỉ câu hỏi vừa được phát ra để làm quiz mới được ghi vào cache, và cache giữ tối đa
+ * {@code quiz.answer-key-cache.max-size} câu (LRU); câu không có trong cache được load lại khi chấm.
+ *
+ * @author OCP Study Team
+ * @since 1.0.0
+ */
+@Service
+@RequiredArgsConstructor
+public class AnswerKeyCache {
+
+    private static final int MAX_OPTIONS = 8;
+
+    private final QuestionOptionRepository questionOptionRepository;
+
+    @Value("${quiz.answer-key-cache.max-size:200000}")
+    private int maxSize;
+
+    private LruCache<UUID, Short> keys;
+
+    @PostConstruct
+    void init() {
+        keys = new LruCache<>(maxSize);
+    }
+
+    /**
+     * Ghi đáp án của câu hỏi vào cache (options phải đã được load)
+     */
+    public void put(Question question) {
+        if (question.getOptions() == null) {
+            return;
+        }
+        put(question.getId(), question.getOptions().stream().map(QuestionOption::getIsCorrect).toList());
+    }
+
+    /**
+     * Ghi đáp án của câu hỏi vào cache
+     *
+     * @param correctFlags cờ is_correct của từng option theo thứ tự A, B, C...
+     */
+    public void put(UUID questionId, List<Boolean> correctFlags) {
+        if (correctFlags.isEmpty()) {
+            return;
+        }
+        int mask = 0;
+        int count = 0;
+        for (Boolean isCorrect : correctFlags) {
+            if (count >= MAX_OPTIONS) {
+                break;
+            }
+            if (Boolean.TRUE.equals(isCorrect)) {
+                mask |= 1 << count;
+            }
+            count++;
+        }
+        keys.put(questionId, pack(mask, count));
+    }
+
+    /**
+     * Lấy đáp án của nhiều câu hỏi. Câu hỏi chưa có trong cache được load bằng một
+     * query duy nhất. Câu hỏi không tồn tại sẽ không có trong kết quả.
+     */
+    public Map<UUID, Short> getAll(Collection<UUID> questionIds) {
+        Map<UUID, Short> result = new HashMap<>();
+        List<UUID> missing = new ArrayList<>();
+        for (UUID id : questionIds) {
+            Short key = keys.get(id);
+            if (key != null) {
+                result.put(id, key);
+            } else {
+                missing.add(id);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            Map<UUID, int[]> loaded = new HashMap<>(); // {mask, count}
+            for (Object[] row : questionOptionRepository.findAnswerFlagsByQuestionIdIn(missing)) {
+                int[] acc = loaded.computeIfAbsent((UUID) row[0], k -> new int[2]);
+                if (acc[1] >= MAX_OPTIONS) {
+                    continue;
+                }
+                if (Boolean.TRUE.equals(row[1])) {
+                    acc[0] |= 1 << acc[1];
+                }
+                acc[1]++;
+            }
+            loaded.forEach((id, acc) -> {
+                short key = pack(acc[0], acc[1]);
+                keys.put(id, key);
+                result.put(id, key);
+            });
+        }
+        return result;
+    }
+
+    /**
+     * Xóa câu hỏi khỏi cache (sau khi admin sửa/xóa)
+     */
+    public void evict(UUID questionId) {
+        keys.remove(questionId);
+    }
+
+    private static short pack(int mask, int count) {
+        return (short) ((mask & 0xFF) | ((count & 0xF) << 8));
+    }
+
+    public static int correctMask(short key) {
+        return key & 0xFF;
+    }
+
+    public static int optionCount(short key) {
+        return (key >> 8) & 0xF;
+    }
+
+    /**
+     * Chuyển danh sách ký hiệu đáp án (["A", "C"]) thành bitmask
+     */
+    public static int toMask(Collection<String> optionKeys) {
+        int mask = 0;
+        if (optionKeys == null) {
+            return mask;
+        }
+        for (String key : optionKeys) {
+            if (key == null || key.isBlank()) {
+                continue;
+            }
+            int index = Character.toUpperCase(key.trim().charAt(0)) - 'A';
+            if (index >= 0 && index < MAX_OPTIONS) {
+                mask |= 1 << index;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Chuyển bitmask thành danh sách ký hiệu đáp án
+     */
+    public static List<String> toKeys(int mask) {
+        List<String> result = new ArrayList<>();
+        for (int i = 0; i < MAX_OPTIONS; i++) {
+            if ((mask & (1 << i)) != 0) {
+                result.add(String.valueOf((char) ('A' + i)));
+            }
+        }
+        return result;
+    }
+}
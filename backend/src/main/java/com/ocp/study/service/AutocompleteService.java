@@ -0,0 +1,353 @@
+package com.ocp.study.service;
+
+import com.ocp.study.dto.AutocompleteDTO;
+import com.ocp.study.util.TransactionCallbacks;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Gợi ý autocomplete cho certification (code + tên), topic và subtopic.
+ * Mỗi tên được đánh index tại đầu mỗi từ ("Java Streams API" khớp cả "str", "api"),
+ * key chuẩn hóa chữ thường, bỏ dấu tiếng Việt. Các key nằm trong một mảng đã sắp
+ * xếp: tìm bằng binary search rồi quét các key cùng prefix.
+ * Snapshot mảng là bất biến nên đọc không cần lock; khi admin sửa dữ liệu (sau khi
+ * transaction commit) mảng mới được chép từ mảng cũ, chỉ bỏ / chèn key của các entry
+ * liên quan thay vì sắp xếp lại toàn bộ.
+ *
+ * @author OCP Study Team
+ * @since 1.0.0
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AutocompleteService {
+
+    public static final int MAX_LIMIT = 50;
+
+    /**
+     * Số key tối đa được quét cho một truy vấn (prefix rất ngắn)
+     */
+    private static final int MAX_SCAN = 2000;
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Map<UUID, Entry> entries = new HashMap<>();
+    private volatile Snapshot snapshot;
+
+    /**
+     * Top-k gợi ý cho prefix
+     *
+     * @param types           null hoặc rỗng để gợi ý mọi loại
+     * @param certificationId Optional - chỉ gợi ý trong certification này
+     */
+    public List<AutocompleteDTO> suggest(String query, Set<String> types, UUID certificationId, int limit) {
+        String prefix = normalize(query);
+        if (prefix.isEmpty()) {
+            return List.of();
+        }
+        Snapshot current = ensureLoaded();
+        int k = Math.max(1, Math.min(limit, MAX_LIMIT));
+
+        int from = lowerBound(current.keys, prefix);
+        List<Entry> matches = new ArrayList<>();
+        Set<UUID> seen = new HashSet<>();
+        for (int i = from, scanned = 0; i < current.keys.length && scanned < MAX_SCAN; i++, scanned++) {
+            if (!current.keys[i].startsWith(prefix)) {
+                break;
+            }
+            Entry entry = current.entries[i];
+            if ((types == null || types.isEmpty() || types.contains(entry.type))
+                    && (certificationId == null || certificationId.equals(entry.certificationId))
+                    && seen.add(entry.id)) {
+                matches.add(entry);
+            }
+        }
+
+        // Khớp từ đầu tên trước, rồi certification > topic > subtopic, rồi tên ngắn hơn
+        matches.sort((a, b) -> {
+            int c = Boolean.compare(!a.normalized.startsWith(prefix), !b.normalized.startsWith(prefix));
+            if (c == 0) {
+                c = Integer.compare(a.typeOrder(), b.typeOrder());
+            }
+            if (c == 0) {
+                c = Integer.compare(a.label.length(), b.label.length());
+            }
+            return c != 0 ? c : a.label.compareTo(b.label);
+        });
+        return matches.stream().limit(k).map(Entry::toDTO).toList();
+    }
+
+    /**
+     * Cập nhật certification, topic và subtopic của nó sau khi transaction hiện tại commit
+     */
+    public void refreshCertificationAfterCommit(UUID certificationId) {
+        afterCommit(() -> replace(e -> certificationId.equals(e.certificationId) || certificationId.equals(e.id),
+                " WHERE c.id = ?", certificationId, true));
+    }
+
+    public void removeCertificationAfterCommit(UUID certificationId) {
+        afterCommit(() -> remove(e -> certificationId.equals(e.certificationId) || certificationId.equals(e.id)));
+    }
+
+    /**
+     * Cập nhật topic và subtopic của nó sau khi transaction hiện tại commit
+     */
+    public void refreshTopicAfterCommit(UUID topicId) {
+        afterCommit(() -> replace(e -> topicId.equals(e.topicId), " WHERE t.id = ?", topicId, false));
+    }
+
+    public void removeTopicAfterCommit(UUID topicId) {
+        afterCommit(() -> remove(e -> topicId.equals(e.topicId)));
+    }
+
+    private void afterCommit(Runnable action) {
+        TransactionCallbacks.afterCommit(() -> {
+            if (snapshot != null) {
+                action.run(); // Chưa load thì lần load đầu sẽ đọc từ DB
+            }
+        });
+    }
+
+    private Snapshot ensureLoaded() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (snapshot == null) {
+                long start = System.currentTimeMillis();
+                load("", null, true, new ArrayList<>());
+                log.info("Built autocomplete index: {} entries in {} ms", entries.size(),
+                        System.currentTimeMillis() - start);
+            }
+            return snapshot;
+        }
+    }
+
+    /**
+     * Đọc certification / topic / subtopic (có thể lọc) vào entries rồi cập nhật snapshot
+     *
+     * @param removed các entry đã bị bỏ khỏi entries; entry bị thay cùng id được thêm vào đây
+     */
+    private synchronized void load(String where, UUID id, boolean withCertifications, List<Entry> removed) {
+        Object[] args = id != null ? new Object[] { id } : new Object[0];
+        List<Entry> added = new ArrayList<>();
+        Consumer<Entry> put = entry -> {
+            Entry previous = entries.put(entry.id, entry);
+            if (previous != null) {
+                removed.add(previous);
+            }
+            added.add(entry);
+        };
+        if (withCertifications) {
+            jdbcTemplate.query("SELECT c.id, c.code, c.name FROM certifications c" + where, rs -> {
+                UUID certId = rs.getObject(1, UUID.class);
+                String code = rs.getString(2);
+                String name = rs.getString(3);
+                String label = code != null && !code.isBlank() ? code + " - " + name : name;
+                put.accept(new Entry("certification", certId, label, certId, null));
+            }, args);
+        }
+        jdbcTemplate.query("SELECT t.id, t.name, t.certification_id FROM topics t"
+                + " JOIN certifications c ON c.id = t.certification_id" + where, rs -> {
+                    UUID topicId = rs.getObject(1, UUID.class);
+                    put.accept(new Entry("topic", topicId, rs.getString(2), rs.getObject(3, UUID.class), topicId));
+                }, args);
+        jdbcTemplate.query("SELECT s.id, s.name, t.certification_id, s.topic_id FROM subtopics s"
+                + " JOIN topics t ON t.id = s.topic_id JOIN certifications c ON c.id = t.certification_id" + where,
+                rs -> {
+                    put.accept(new Entry("subtopic", rs.getObject(1, UUID.class), rs.getString(2),
+                            rs.getObject(3, UUID.class), rs.getObject(4, UUID.class)));
+                }, args);
+        update(removed, added);
+    }
+
+    /**
+     * Xóa các entry cũ rồi đọc lại từ DB, chỉ cập nhật snapshot một lần
+     */
+    private synchronized void replace(Predicate<Entry> stale, String where, UUID id, boolean withCertifications) {
+        List<Entry> removed = new ArrayList<>();
+        entries.values().removeIf(entry -> stale.test(entry) && removed.add(entry));
+        load(where, id, withCertifications, removed);
+    }
+
+    private synchronized void remove(Predicate<Entry> predicate) {
+        List<Entry> removed = new ArrayList<>();
+        entries.values().removeIf(entry -> predicate.test(entry) && removed.add(entry));
+        if (!removed.isEmpty()) {
+            update(removed, List.of());
+        }
+    }
+
+    /**
+     * Dựng snapshot mới từ snapshot cũ: vị trí key của entry bị bỏ và vị trí chèn key của
+     * entry mới được tìm bằng binary search, các đoạn còn lại chép nguyên bằng
+     * System.arraycopy. Chỉ sắp xếp key mới, nên sửa một topic tốn O(n) thay vì sắp xếp
+     * lại toàn bộ. Gọi khi đang giữ monitor.
+     */
+    private void update(List<Entry> removed, List<Entry> added) {
+        Snapshot old = snapshot != null ? snapshot : new Snapshot(new String[0], new Entry[0]);
+        int n = old.keys.length;
+
+        List<Integer> dropped = new ArrayList<>();
+        for (Entry entry : removed) {
+            for (String key : wordSuffixes(entry.normalized)) {
+                for (int i = lowerBound(old.keys, key); i < n && old.keys[i].equals(key); i++) {
+                    if (old.entries[i] == entry) {
+                        dropped.add(i);
+                        break;
+                    }
+                }
+            }
+        }
+        int[] drop = dropped.stream().mapToInt(Integer::intValue).sorted().toArray();
+
+        List<Map.Entry<String, Entry>> inserts = new ArrayList<>();
+        for (Entry entry : added) {
+            for (String key : wordSuffixes(entry.normalized)) {
+                inserts.add(Map.entry(key, entry));
+            }
+        }
+        inserts.sort(Map.Entry.comparingByKey());
+        int[] insertAt = new int[inserts.size()];
+        for (int j = 0; j < insertAt.length; j++) {
+            insertAt[j] = upperBound(old.keys, inserts.get(j).getKey());
+        }
+
+        String[] keys = new String[n - drop.length + inserts.size()];
+        Entry[] sorted = new Entry[keys.length];
+        int src = 0;
+        int dst = 0;
+        int d = 0;
+        int a = 0;
+        while (true) {
+            int next = Math.min(d < drop.length ? drop[d] : n, a < insertAt.length ? insertAt[a] : n);
+            System.arraycopy(old.keys, src, keys, dst, next - src);
+            System.arraycopy(old.entries, src, sorted, dst, next - src);
+            dst += next - src;
+            src = next;
+            if (a < insertAt.length && insertAt[a] == src) {
+                keys[dst] = inserts.get(a).getKey();
+                sorted[dst++] = inserts.get(a++).getValue();
+            } else if (d < drop.length && drop[d] == src) {
+                src++;
+                d++;
+            } else {
+                break;
+            }
+        }
+        snapshot = new Snapshot(keys, sorted);
+    }
+
+    /**
+     * Phần còn lại của chuỗi tính từ đầu mỗi từ
+     */
+    private static List<String> wordSuffixes(String normalized) {
+        List<String> result = new ArrayList<>();
+        for (int i = 0; i < normalized.length(); i++) {
+            if (Character.isLetterOrDigit(normalized.charAt(i))
+                    && (i == 0 || !Character.isLetterOrDigit(normalized.charAt(i - 1)))) {
+                result.add(normalized.substring(i));
+            }
+        }
+        return result;
+    }
+
+    private static int lowerBound(String[] keys, String prefix) {
+        int index = Arrays.binarySearch(keys, prefix);
+        if (index < 0) {
+            return -index - 1;
+        }
+        while (index > 0 && keys[index - 1].equals(prefix)) {
+            index--;
+        }
+        return index;
+    }
+
+    /**
+     * Vị trí đầu tiên có key lớn hơn {@code key}
+     */
+    private static int upperBound(String[] keys, String key) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(key) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Chữ thường, bỏ dấu (kể cả đ), gộp khoảng trắng
+     */
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String stripped = COMBINING_MARKS.matcher(Normalizer.normalize(value, Normalizer.Form.NFD)).replaceAll("");
+        return stripped.replace('đ', 'd').replace('Đ', 'D')
+                .toLowerCase()
+                .trim()
+                .replaceAll("\\s+", " ");
+    }
+
+    private record Snapshot(String[] keys, Entry[] entries) {
+    }
+
+    private static final class Entry {
+        final String type;
+        final UUID id;
+        final String label;
+        final String normalized;
+        final UUID certificationId;
+        final UUID topicId;
+
+        Entry(String type, UUID id, String label, UUID certificationId, UUID topicId) {
+            this.type = type;
+            this.id = id;
+            this.label = label != null ? label : "";
+            this.normalized = normalize(this.label);
+            this.certificationId = certificationId;
+            this.topicId = topicId;
+        }
+
+        int typeOrder() {
+            return switch (type) {
+                case "certification" -> 0;
+                case "topic" -> 1;
+                default -> 2;
+            };
+        }
+
+        AutocompleteDTO toDTO() {
+            return AutocompleteDTO.builder()
+                    .type(type)
+                    .id(id)
+                    .label(label)
+                    .certificationId(certificationId)
+                    .topicId(topicId)
+                    .build();
+        }
+    }
+}
@@ -15,6 +15,7 @@ import java.util.UUID;
 public class CertificationService {
 
     private final CertificationRepository certificationRepository;
+    private final AutocompleteService autocompleteService;
 
     @Transactional(readOnly = true)
     public org.springframework.data.domain.Page<Certification> getAllCertifications(
@@ -51,6 +52,7 @@ public class CertificationService {
             // JPA cascade will save topics because of CascadeType.ALL
         }
 
+        autocompleteService.refreshCertificationAfterCommit(savedCert.getId());
         return savedCert;
     }
 
@@ -150,6 +152,7 @@ public class CertificationService {
             certification.getTopics().addAll(updatedTopics);
         }
 
+        autocompleteService.refreshCertificationAfterCommit(id);
         return certificationRepository.save(certification);
     }
 
@@ -159,5 +162,6 @@ public class CertificationService {
             throw new RuntimeException("Certification not found with id: " + id);
         }
         certificationRepository.deleteById(id);
+        autocompleteService.removeCertificationAfterCommit(id);
     }
 }
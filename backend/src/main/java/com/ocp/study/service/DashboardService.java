@@ -5,14 +5,15 @@ import com.ocp.study.dto.SubtopicDTO;
 import com.ocp.study.entity.StudySession;
 import com.ocp.study.entity.Subtopic;
 import com.ocp.study.entity.TopicProgress;
+import com.ocp.study.entity.UserQuizStats;
 import com.ocp.study.repository.*;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -33,6 +34,9 @@ public class DashboardService {
         private final FlashcardRepository flashcardRepository;
         private final QuestionRepository questionRepository;
         private final StudySessionRepository sessionRepository;
+        private final QuizStatsService quizStatsService;
+        private final UserService userService;
+        private final DueCountService dueCountService;
 
         /**
          * Lấy dữ liệu dashboard cho user
@@ -71,8 +75,9 @@ public class DashboardService {
                 long studyDays = sessionRepository.countByUserId(userId);
                 Long currentStreak = sessionRepository.getCurrentStreak(userId);
 
-                long flashcardsDue = flashcardRepository.findCardsToReview(LocalDateTime.now()).size(); // TODO: filter
-                                                                                                        // due by cert?
+                long flashcardsDue = userService.findCurrentUserId()
+                                .map(id -> dueCountService.countDue(id, certificationId))
+                                .orElse(0L);
 
                 // Calendar (30 ngày gần nhất)
                 LocalDate endDate = LocalDate.now();
@@ -97,6 +102,10 @@ public class DashboardService {
                                 .map(this::mapProgressToSubtopicDTO)
                                 .collect(Collectors.toList());
 
+                // Quiz stats: đọc một dòng tổng hợp của user đã đăng nhập
+                Optional<UserQuizStats> quizStats = userService.findCurrentUserId()
+                                .flatMap(quizStatsService::getUserStats);
+
                 return DashboardDTO.builder()
                                 .overallProgress(overallProgress != null ? overallProgress : 0.0)
                                 .completedTopics(calculateCompletedTopics(userId)) // TODO: filter by cert
@@ -109,8 +118,8 @@ public class DashboardService {
                                 .totalFlashcards(totalFlashcards)
                                 .flashcardsDue(flashcardsDue)
                                 .totalQuestions(totalQuestions)
-                                .quizzesTaken(0)
-                                .averageQuizScore(0.0)
+                                .quizzesTaken(quizStats.map(UserQuizStats::getQuizzesTaken).orElse(0))
+                                .averageQuizScore(quizStats.map(UserQuizStats::getAverageScore).orElse(0.0))
                                 .studyCalendar(studyCalendar)
                                 .todaySubtopics(todaySubtopics)
                                 .build();
@@ -0,0 +1,109 @@
+package com.ocp.study.service;
+
+import com.ocp.study.util.TransactionCallbacks;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Số flashcard đến hạn review của user (toàn bộ hoặc theo certification), đếm bằng
+ * COUNT trên index (user_id, next_review) của flashcard_reviews, không load entity.
+ * Kết quả được cache trong thời gian ngắn; cache của user bị xóa sau khi một lần
+ * review của user commit, và xóa hết khi lịch review được tính lại hàng loạt.
+ *
+ * @author OCP Study Team
+ * @since 1.0.0
+ */
+@Service
+@RequiredArgsConstructor
+public class DueCountService {
+
+    private static final UUID ALL_CERTIFICATIONS = new UUID(0, 0);
+
+    private static final String COUNT_SQL = """
+            SELECT COUNT(*) FROM flashcard_reviews
+            WHERE user_id = ? AND next_review <= ?
+            """;
+
+    private static final String COUNT_BY_CERTIFICATION_SQL = """
+            SELECT COUNT(*) FROM flashcard_reviews fr
+            JOIN flashcards f ON f.id = fr.flashcard_id
+            JOIN topics t ON t.id = f.topic_id
+            WHERE fr.user_id = ? AND fr.next_review <= ? AND t.certification_id = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${quiz.due-count.ttl-seconds:30}")
+    private long ttlSeconds;
+
+    /**
+     * user -> (certification hoặc ALL_CERTIFICATIONS -> số thẻ đến hạn)
+     */
+    private final Map<UUID, Map<UUID, CachedCount>> cache = new ConcurrentHashMap<>();
+
+    /**
+     * @param certificationId null để đếm trên mọi certification
+     */
+    public long countDue(UUID userId, UUID certificationId) {
+        UUID key = certificationId != null ? certificationId : ALL_CERTIFICATIONS;
+        long now = System.currentTimeMillis();
+        Map<UUID, CachedCount> counts = cache.computeIfAbsent(userId, id -> new ConcurrentHashMap<>());
+        CachedCount cached = counts.get(key);
+        if (cached != null && cached.expiresAt > now) {
+            return cached.count;
+        }
+
+        Timestamp dueBefore = Timestamp.valueOf(LocalDateTime.now());
+        Long count = certificationId != null
+                ? jdbcTemplate.queryForObject(COUNT_BY_CERTIFICATION_SQL, Long.class, userId, dueBefore,
+                        certificationId)
+                : jdbcTemplate.queryForObject(COUNT_SQL, Long.class, userId, dueBefore);
+        long value = count != null ? count : 0;
+        counts.put(key, new CachedCount(value, now + ttlSeconds * 1000));
+        return value;
+    }
+
+    /**
+     * Xóa cache của user sau khi transaction hiện tại commit
+     */
+    public void invalidateAfterCommit(UUID userId) {
+        TransactionCallbacks.afterCommit(() -> cache.remove(userId));
+    }
+
+    /**
+     * Xóa toàn bộ cache (tính lại lịch hàng loạt)
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    /**
+     * Xóa toàn bộ cache sau khi transaction hiện tại commit (xóa flashcard: không biết
+     * user nào đang đếm thẻ đó)
+     */
+    public void clearAfterCommit() {
+        TransactionCallbacks.afterCommit(cache::clear);
+    }
+
+    /**
+     * Bỏ các kết quả đã hết hạn để cache không giữ user không còn hoạt động
+     */
+    @Scheduled(fixedDelayString = "${quiz.due-count.sweep-interval-ms:60000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        cache.values().forEach(counts -> counts.values().removeIf(cached -> cached.expiresAt <= now));
+        cache.values().removeIf(Map::isEmpty);
+    }
+
+    private record CachedCount(long count, long expiresAt) {
+    }
+}
@@ -0,0 +1,202 @@
+package com.ocp.study.service;
+
+import com.ocp.study.dto.FlashcardDTO;
+import com.ocp.study.util.IndexedMinHeap;
+import com.ocp.study.util.TransactionCallbacks;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hàng đợi flashcard đến hạn review của từng user, giữ trong bộ nhớ.
+ * Mỗi user có một min-heap theo next_review, dựng bằng một query khi user lần đầu lấy thẻ:
+ * các review đến hạn trong vòng {@code horizon-hours} tới, tối đa {@code max-cards} thẻ.
+ * Mỗi lần user review, thẻ được đổi vị trí trong heap (O(log n)) sau khi transaction
+ * commit, nên cả một phiên học không cần đọc lại DB. Heap chỉ đúng với các thẻ có
+ * next_review không quá {@code coveredUntil}; khi không còn đủ thẻ đến hạn mà phần sau
+ * chưa được load thì dựng lại. User không hoạt động bị bỏ khỏi cache.
+ *
+ * @author OCP Study Team
+ * @since 1.0.0
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DueQueueService {
+
+    public static final int MAX_LIMIT = 50;
+
+    private static final String LOAD_SQL = """
+            SELECT f.id, f.topic_id, t.name, f.subtopic_id, s.name, f.front, f.back, f.code_example, f.created_at,
+                   fr.review_count, fr.correct_count, fr.next_review
+            FROM flashcard_reviews fr
+            JOIN flashcards f ON f.id = fr.flashcard_id
+            JOIN topics t ON t.id = f.topic_id
+            LEFT JOIN subtopics s ON s.id = f.subtopic_id
+            WHERE fr.user_id = ? AND fr.next_review <= ?
+            ORDER BY fr.next_review
+            LIMIT ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${quiz.due-queue.horizon-hours:24}")
+    private long horizonHours;
+
+    @Value("${quiz.due-queue.max-cards:1000}")
+    private int maxCards;
+
+    @Value("${quiz.due-queue.max-cached-users:10000}")
+    private int maxCachedUsers;
+
+    @Value("${quiz.due-queue.idle-eviction-minutes:30}")
+    private long idleEvictionMinutes;
+
+    private final Map<UUID, UserQueue> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Tối đa {@code limit} thẻ đến hạn sớm nhất của user
+     */
+    public List<FlashcardDTO> next(UUID userId, int limit) {
+        int n = Math.max(1, Math.min(limit, MAX_LIMIT));
+        UserQueue queue = getOrLoad(userId);
+        synchronized (queue) {
+            long now = System.currentTimeMillis();
+            List<FlashcardDTO> due = queue.heap.smallest(n, now);
+            if (due.size() < n && now > queue.coveredUntil) {
+                load(userId, queue);
+                due = queue.heap.smallest(n, now);
+            }
+            return due;
+        }
+    }
+
+    /**
+     * Cập nhật vị trí thẻ trong hàng đợi của user sau khi transaction hiện tại commit
+     *
+     * @param card flashcard kèm review mới của user (nextReview đã tính lại)
+     */
+    public void reviewedAfterCommit(UUID userId, FlashcardDTO card) {
+        TransactionCallbacks.afterCommit(() -> {
+            UserQueue queue = cache.get(userId);
+            if (queue == null) {
+                return;
+            }
+            synchronized (queue) {
+                long nextReview = toMillis(card.getNextReview());
+                if (card.getNextReview() != null && nextReview <= queue.coveredUntil) {
+                    queue.heap.put(card.getId(), nextReview, card);
+                } else {
+                    queue.heap.remove(card.getId()); // Ngoài phần đã load, lần dựng lại sẽ đọc
+                }
+            }
+        });
+    }
+
+    /**
+     * Flashcard bị sửa / xóa: bỏ hàng đợi của các user đang giữ thẻ này
+     */
+    public void invalidateFlashcardAfterCommit(UUID flashcardId) {
+        TransactionCallbacks.afterCommit(() -> cache.entrySet().removeIf(entry -> {
+            synchronized (entry.getValue()) {
+                return entry.getValue().heap.contains(flashcardId);
+            }
+        }));
+    }
+
+    /**
+     * Bỏ toàn bộ hàng đợi, dùng khi next_review được tính lại hàng loạt
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    /**
+     * Bỏ user không hoạt động khỏi cache
+     */
+    @Scheduled(fixedDelayString = "${quiz.due-queue.sweep-interval-ms:60000}")
+    public void evictIdle() {
+        long idleBefore = System.currentTimeMillis() - idleEvictionMinutes * 60_000;
+        cache.values().removeIf(queue -> queue.lastAccess < idleBefore);
+    }
+
+    private UserQueue getOrLoad(UUID userId) {
+        UserQueue queue = cache.get(userId);
+        if (queue == null) {
+            if (cache.size() >= maxCachedUsers) {
+                evictLeastRecentlyUsed();
+            }
+            UserQueue created = new UserQueue();
+            queue = cache.putIfAbsent(userId, created);
+            if (queue == null) {
+                queue = created;
+                synchronized (queue) {
+                    load(userId, queue);
+                }
+            }
+        }
+        queue.lastAccess = System.currentTimeMillis();
+        return queue;
+    }
+
+    private void evictLeastRecentlyUsed() {
+        cache.entrySet().stream()
+                .min((a, b) -> Long.compare(a.getValue().lastAccess, b.getValue().lastAccess))
+                .ifPresent(entry -> cache.remove(entry.getKey(), entry.getValue()));
+    }
+
+    /**
+     * Dựng lại heap của user bằng một query. Gọi khi đang giữ monitor của queue.
+     */
+    private void load(UUID userId, UserQueue queue) {
+        long until = System.currentTimeMillis() + horizonHours * 3_600_000;
+        IndexedMinHeap<UUID, FlashcardDTO> heap = new IndexedMinHeap<>();
+        long[] last = { Long.MIN_VALUE };
+        jdbcTemplate.query(LOAD_SQL, rs -> {
+            Timestamp createdAt = rs.getTimestamp(9);
+            Timestamp nextReview = rs.getTimestamp(12);
+            FlashcardDTO card = FlashcardDTO.builder()
+                    .id(rs.getObject(1, UUID.class))
+                    .topicId(rs.getObject(2, UUID.class))
+                    .topicName(rs.getString(3))
+                    .subtopicId(rs.getObject(4, UUID.class))
+                    .subtopicName(rs.getString(5))
+                    .front(rs.getString(6))
+                    .back(rs.getString(7))
+                    .codeExample(rs.getString(8))
+                    .createdAt(createdAt != null ? createdAt.toLocalDateTime() : null)
+                    .reviewCount(rs.getInt(10))
+                    .correctCount(rs.getInt(11))
+                    .nextReview(nextReview.toLocalDateTime())
+                    .build();
+            last[0] = toMillis(card.getNextReview());
+            heap.put(card.getId(), last[0], card);
+        }, userId, new Timestamp(until), maxCards);
+
+        queue.heap = heap;
+        // Bị cắt bởi LIMIT: chỉ chắc chắn đủ thẻ có next_review trước dòng cuối
+        // (thẻ trùng next_review với dòng cuối có thể đã bị cắt)
+        queue.coveredUntil = heap.size() >= maxCards ? last[0] - 1 : until;
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time == null ? Long.MAX_VALUE : time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static final class UserQueue {
+        IndexedMinHeap<UUID, FlashcardDTO> heap = new IndexedMinHeap<>();
+        long coveredUntil;
+        volatile long lastAccess = System.currentTimeMillis();
+    }
+}
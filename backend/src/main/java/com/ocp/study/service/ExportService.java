@@ -0,0 +1,292 @@
+package com.ocp.study.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ocp.study.util.CsvWriter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+
+/**
+ * Export toàn bộ câu hỏi / flashcard ra CSV hoặc NDJSON.
+ * Dữ liệu được đọc bằng cursor (fetch size) trong một transaction read-only và ghi
+ * thẳng ra response theo từng dòng, bộ nhớ dùng không phụ thuộc số bản ghi.
+ * CSV câu hỏi dùng đúng format của questions_template.csv nên có thể import lại.
+ *
+ * @author OCP Study Team
+ * @since 1.0.0
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExportService {
+
+    public static final String[] QUESTION_COLUMNS = { "topic_id", "content", "code_snippet", "question_type",
+            "difficulty", "explanation", "option_a", "option_b", "option_c", "option_d", "correct_answer" };
+
+    public static final String[] FLASHCARD_COLUMNS = { "topic_id", "subtopic_id", "front", "back", "code_example" };
+
+    private static final int FETCH_SIZE = 1000;
+    private static final int FLUSH_EVERY = 1000;
+
+    /**
+     * Mỗi câu hỏi một dòng, options gom thành mảng theo option_key. LATERAL theo
+     * index (question_id, option_key) nên không phải sort / group cả bảng.
+     */
+    private static final String QUESTIONS_SQL = """
+            SELECT q.id, q.topic_id, q.content, q.code_snippet, q.question_type, q.difficulty, q.explanation,
+                   o.keys, o.contents, o.correct
+            FROM questions q
+            LEFT JOIN LATERAL (
+                SELECT array_agg(op.option_key ORDER BY op.option_key) AS keys,
+                       array_agg(op.content ORDER BY op.option_key) AS contents,
+                       array_agg(op.is_correct ORDER BY op.option_key) AS correct
+                FROM question_options op
+                WHERE op.question_id = q.id
+            ) o ON TRUE
+            WHERE (CAST(? AS uuid) IS NULL OR q.topic_id = CAST(? AS uuid))
+            ORDER BY q.id
+            """;
+
+    private static final String FLASHCARDS_SQL = """
+            SELECT f.id, f.topic_id, f.subtopic_id, f.front, f.back, f.code_example
+            FROM flashcards f
+            WHERE (CAST(? AS uuid) IS NULL OR f.topic_id = CAST(? AS uuid))
+            ORDER BY f.id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public enum Format {
+        CSV, NDJSON;
+
+        public static Format of(String value) {
+            if (value == null || value.isBlank()) {
+                return CSV;
+            }
+            return Format.valueOf(value.trim().toUpperCase());
+        }
+    }
+
+    /**
+     * Export câu hỏi (kèm options), có thể lọc theo topic
+     *
+     * @return số câu hỏi đã ghi
+     */
+    @Transactional(readOnly = true)
+    public long exportQuestions(UUID topicId, Format format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        RowSink sink = format == Format.CSV ? new QuestionCsvSink(writer) : new QuestionJsonSink(writer);
+        return export(QUESTIONS_SQL, topicId, sink, writer);
+    }
+
+    /**
+     * Export flashcards, có thể lọc theo topic
+     *
+     * @return số flashcard đã ghi
+     */
+    @Transactional(readOnly = true)
+    public long exportFlashcards(UUID topicId, Format format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        RowSink sink = format == Format.CSV ? new FlashcardCsvSink(writer) : new FlashcardJsonSink(writer);
+        return export(FLASHCARDS_SQL, topicId, sink, writer);
+    }
+
+    private long export(String sql, UUID topicId, RowSink sink, Writer writer) throws IOException {
+        long start = System.currentTimeMillis();
+        long[] count = { 0 };
+        sink.begin();
+        try {
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(sql);
+                ps.setFetchSize(FETCH_SIZE);
+                ps.setObject(1, topicId);
+                ps.setObject(2, topicId);
+                return ps;
+            }, (RowCallbackHandler) rs -> {
+                try {
+                    sink.write(rs);
+                    if (++count[0] % FLUSH_EVERY == 0) {
+                        writer.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        sink.end();
+        writer.flush();
+        log.info("Exported {} rows in {} ms", count[0], System.currentTimeMillis() - start);
+        return count[0];
+    }
+
+    private interface RowSink {
+        default void begin() throws IOException {
+        }
+
+        void write(ResultSet rs) throws SQLException, IOException;
+
+        default void end() throws IOException {
+        }
+    }
+
+    private static final class QuestionCsvSink implements RowSink {
+        private final CsvWriter csv;
+
+        QuestionCsvSink(Writer writer) {
+            this.csv = new CsvWriter(writer);
+        }
+
+        @Override
+        public void begin() throws IOException {
+            csv.writeRecord(QUESTION_COLUMNS);
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            String[] keys = toArray(rs.getArray(8), String[].class);
+            String[] contents = toArray(rs.getArray(9), String[].class);
+            Boolean[] correct = toArray(rs.getArray(10), Boolean[].class);
+
+            csv.writeField(rs.getString(2))
+                    .writeField(rs.getString(3))
+                    .writeField(rs.getString(4))
+                    .writeField(rs.getString(5))
+                    .writeField(rs.getInt(6))
+                    .writeField(rs.getString(7));
+            StringBuilder correctAnswer = new StringBuilder();
+            for (char key = 'A'; key <= 'D'; key++) {
+                String content = null;
+                for (int i = 0; i < keys.length; i++) {
+                    if (keys[i].charAt(0) == key) {
+                        content = contents[i];
+                        if (Boolean.TRUE.equals(correct[i])) {
+                            correctAnswer.append(key);
+                        }
+                    }
+                }
+                csv.writeField(content);
+            }
+            csv.writeField(correctAnswer.toString());
+            csv.endRecord();
+        }
+    }
+
+    private final class QuestionJsonSink extends JsonSink {
+
+        QuestionJsonSink(Writer writer) throws IOException {
+            super(writer);
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            String[] keys = toArray(rs.getArray(8), String[].class);
+            String[] contents = toArray(rs.getArray(9), String[].class);
+            Boolean[] correct = toArray(rs.getArray(10), Boolean[].class);
+
+            generator.writeStartObject();
+            generator.writeStringField("id", rs.getString(1));
+            generator.writeStringField("topicId", rs.getString(2));
+            generator.writeStringField("content", rs.getString(3));
+            generator.writeStringField("codeSnippet", rs.getString(4));
+            generator.writeStringField("questionType", rs.getString(5));
+            generator.writeNumberField("difficulty", rs.getInt(6));
+            generator.writeStringField("explanation", rs.getString(7));
+            generator.writeArrayFieldStart("options");
+            for (int i = 0; i < keys.length; i++) {
+                generator.writeStartObject();
+                generator.writeStringField("optionKey", keys[i]);
+                generator.writeStringField("content", contents[i]);
+                generator.writeBooleanField("isCorrect", Boolean.TRUE.equals(correct[i]));
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            endLine();
+        }
+    }
+
+    private static final class FlashcardCsvSink implements RowSink {
+        private final CsvWriter csv;
+
+        FlashcardCsvSink(Writer writer) {
+            this.csv = new CsvWriter(writer);
+        }
+
+        @Override
+        public void begin() throws IOException {
+            csv.writeRecord(FLASHCARD_COLUMNS);
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            csv.writeRecord(rs.getString(2), rs.getString(3), rs.getString(4), rs.getString(5), rs.getString(6));
+        }
+    }
+
+    private final class FlashcardJsonSink extends JsonSink {
+
+        FlashcardJsonSink(Writer writer) throws IOException {
+            super(writer);
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            generator.writeStartObject();
+            generator.writeStringField("id", rs.getString(1));
+            generator.writeStringField("topicId", rs.getString(2));
+            generator.writeStringField("subtopicId", rs.getString(3));
+            generator.writeStringField("front", rs.getString(4));
+            generator.writeStringField("back", rs.getString(5));
+            generator.writeStringField("codeExample", rs.getString(6));
+            endLine();
+        }
+    }
+
+    /**
+     * Mỗi bản ghi là một object JSON trên một dòng
+     */
+    private abstract class JsonSink implements RowSink {
+        protected final JsonGenerator generator;
+
+        JsonSink(Writer writer) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(writer)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+
+        protected void endLine() throws IOException {
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void end() throws IOException {
+            generator.flush();
+        }
+    }
+
+    private static <T> T[] toArray(Array array, Class<T[]> type) throws SQLException {
+        if (array == null) {
+            return type.cast(java.lang.reflect.Array.newInstance(type.getComponentType(), 0));
+        }
+        return type.cast(array.getArray());
+    }
+}
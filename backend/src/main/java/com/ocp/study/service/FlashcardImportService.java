@@ -0,0 +1,347 @@
+package com.ocp.study.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ocp.study.dto.FlashcardImportResultDTO;
+import com.ocp.study.dto.QuestionImportResultDTO;
+import com.ocp.study.util.CsvReader;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Array;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Import flashcard hàng loạt từ CSV (cùng cột với file export) hoặc NDJSON.
+ * File được đọc theo lô: mỗi lô tra topic / subtopic chưa gặp bằng một câu query
+ * (kết quả giữ trong cache của lần import), kiểm tra từng dòng, rồi ghi các dòng hợp
+ * lệ bằng một JDBC batch. Toàn bộ import chạy trong một transaction.
+ *
+ * @author OCP Study Team
+ * @since 1.0.0
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FlashcardImportService {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO flashcards (topic_id, subtopic_id, front, back, code_example, created_at)
+            VALUES (?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${quiz.import.flashcard-batch-size:1000}")
+    private int batchSize;
+
+    /**
+     * Import file CSV (dòng đầu là header) hoặc NDJSON (mỗi dòng một object)
+     *
+     * @throws IllegalArgumentException nếu header CSV thiếu cột bắt buộc
+     */
+    @Transactional
+    public FlashcardImportResultDTO importFile(InputStream input, ExportService.Format format) throws IOException {
+        long start = System.currentTimeMillis();
+        Lookup lookup = new Lookup();
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now());
+        List<QuestionImportResultDTO.RowErrorDTO> errors = new ArrayList<>();
+        List<Row> batch = new ArrayList<>(batchSize);
+        int imported = 0;
+
+        try (RowReader reader = format == ExportService.Format.CSV
+                ? new CsvRowReader(input)
+                : new JsonRowReader(input)) {
+            Row row;
+            while ((row = reader.next()) != null) {
+                batch.add(row);
+                if (batch.size() == batchSize) {
+                    imported += writeBatch(batch, lookup, createdAt, errors);
+                    batch.clear();
+                }
+            }
+            imported += writeBatch(batch, lookup, createdAt, errors);
+        }
+
+        log.info("Imported {} flashcards ({} failed) in {} ms", imported, errors.size(),
+                System.currentTimeMillis() - start);
+        return FlashcardImportResultDTO.builder()
+                .success(true)
+                .imported(imported)
+                .failed(errors.size())
+                .errors(errors)
+                .message("Import thành công " + imported + " flashcard")
+                .build();
+    }
+
+    /**
+     * Kiểm tra một lô và ghi các dòng hợp lệ
+     *
+     * @return số flashcard đã ghi
+     */
+    private int writeBatch(List<Row> batch, Lookup lookup, Timestamp createdAt,
+            List<QuestionImportResultDTO.RowErrorDTO> errors) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        lookup.load(batch);
+
+        List<Object[]> args = new ArrayList<>(batch.size());
+        for (Row row : batch) {
+            String error = validate(row, lookup);
+            if (error != null) {
+                errors.add(QuestionImportResultDTO.RowErrorDTO.builder()
+                        .line(row.line())
+                        .message(error)
+                        .build());
+                continue;
+            }
+            args.add(new Object[] { row.topicId(), row.subtopicId(), row.front(), row.back(),
+                    row.codeExample(), createdAt });
+        }
+        if (!args.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, args);
+        }
+        return args.size();
+    }
+
+    private static String validate(Row row, Lookup lookup) {
+        if (row.error() != null) {
+            return row.error();
+        }
+        if (row.topicId() == null) {
+            return "Topic ID không hợp lệ";
+        }
+        if (!lookup.topics.contains(row.topicId())) {
+            return "Topic ID không tồn tại";
+        }
+        if (row.subtopicId() != null) {
+            UUID subtopicTopic = lookup.subtopics.get(row.subtopicId());
+            if (subtopicTopic == null) {
+                return "Subtopic ID không tồn tại";
+            }
+            if (!subtopicTopic.equals(row.topicId())) {
+                return "Subtopic không thuộc topic";
+            }
+        }
+        if (row.front() == null || row.front().isBlank()) {
+            return "Mặt trước trống";
+        }
+        if (row.back() == null || row.back().isBlank()) {
+            return "Mặt sau trống";
+        }
+        return null;
+    }
+
+    /**
+     * Cache topic / subtopic của một lần import: chỉ query những ID chưa gặp
+     */
+    private final class Lookup {
+        final Set<UUID> topics = new HashSet<>();
+        final Map<UUID, UUID> subtopics = new HashMap<>(); // subtopic -> topic
+        final Set<UUID> checkedTopics = new HashSet<>();
+        final Set<UUID> checkedSubtopics = new HashSet<>();
+
+        void load(List<Row> batch) {
+            Set<UUID> topicIds = new HashSet<>();
+            Set<UUID> subtopicIds = new HashSet<>();
+            for (Row row : batch) {
+                if (row.topicId() != null && checkedTopics.add(row.topicId())) {
+                    topicIds.add(row.topicId());
+                }
+                if (row.subtopicId() != null && checkedSubtopics.add(row.subtopicId())) {
+                    subtopicIds.add(row.subtopicId());
+                }
+            }
+            if (!topicIds.isEmpty()) {
+                topics.addAll(jdbcTemplate.query(con -> {
+                    var ps = con.prepareStatement("SELECT id FROM topics WHERE id = ANY(?)");
+                    Array array = con.createArrayOf("uuid", topicIds.toArray());
+                    ps.setArray(1, array);
+                    return ps;
+                }, (rs, i) -> rs.getObject(1, UUID.class)));
+            }
+            if (!subtopicIds.isEmpty()) {
+                jdbcTemplate.query(con -> {
+                    var ps = con.prepareStatement("SELECT id, topic_id FROM subtopics WHERE id = ANY(?)");
+                    Array array = con.createArrayOf("uuid", subtopicIds.toArray());
+                    ps.setArray(1, array);
+                    return ps;
+                }, rs -> {
+                    subtopics.put(rs.getObject(1, UUID.class), rs.getObject(2, UUID.class));
+                });
+            }
+        }
+    }
+
+    /**
+     * Một flashcard đọc từ file. ID sai định dạng được ghi thành lỗi của dòng.
+     */
+    private record Row(int line, UUID topicId, UUID subtopicId, String front, String back, String codeExample,
+            String error) {
+
+        static Row of(int line, String topicId, String subtopicId, String front, String back,
+                String codeExample) {
+            UUID topic;
+            UUID subtopic = null;
+            try {
+                topic = topicId == null || topicId.isBlank() ? null : UUID.fromString(topicId.trim());
+                if (subtopicId != null && !subtopicId.isBlank()) {
+                    subtopic = UUID.fromString(subtopicId.trim());
+                }
+            } catch (IllegalArgumentException e) {
+                return invalid(line, "ID không hợp lệ: " + e.getMessage());
+            }
+            return new Row(line, topic, subtopic, front, back,
+                    codeExample == null || codeExample.isBlank() ? null : codeExample, null);
+        }
+
+        static Row invalid(int line, String error) {
+            return new Row(line, null, null, null, null, null, error);
+        }
+    }
+
+    private interface RowReader extends AutoCloseable {
+        /**
+         * @return dòng tiếp theo, null nếu hết file
+         */
+        Row next() throws IOException;
+
+        @Override
+        void close() throws IOException;
+    }
+
+    /**
+     * CSV với header: cột được xác định theo tên (topic_id, subtopic_id, front, back,
+     * code_example), thứ tự tùy ý
+     */
+    private static final class CsvRowReader implements RowReader {
+        private static final int[] REQUIRED_COLUMNS = { 0, 2, 3 }; // topic_id, front, back
+        private final CsvReader csv;
+        private final int[] columns = new int[ExportService.FLASHCARD_COLUMNS.length];
+
+        CsvRowReader(InputStream input) throws IOException {
+            this.csv = new CsvReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+            List<String> header = csv.readRecord();
+            for (int i = 0; i < columns.length; i++) {
+                columns[i] = header == null ? -1 : indexOf(header, ExportService.FLASHCARD_COLUMNS[i]);
+            }
+            for (int required : REQUIRED_COLUMNS) {
+                if (columns[required] < 0) {
+                    throw new IllegalArgumentException("Thiếu cột " + ExportService.FLASHCARD_COLUMNS[required]);
+                }
+            }
+        }
+
+        @Override
+        public Row next() throws IOException {
+            while (true) {
+                List<String> record;
+                try {
+                    record = csv.readRecord();
+                } catch (CsvReader.CsvParseException e) {
+                    return Row.invalid(csv.getRecordLine(), e.getMessage());
+                }
+                if (record == null) {
+                    return null;
+                }
+                if (record.size() == 1 && record.get(0).isBlank()) {
+                    continue;
+                }
+                return Row.of(csv.getRecordLine(), field(record, 0), field(record, 1),
+                        trim(field(record, 2)), trim(field(record, 3)), stripTrailing(field(record, 4)));
+            }
+        }
+
+        private String field(List<String> record, int column) {
+            int index = columns[column];
+            return index >= 0 && index < record.size() ? record.get(index) : null;
+        }
+
+        private static int indexOf(List<String> header, String name) {
+            for (int i = 0; i < header.size(); i++) {
+                if (header.get(i).trim().equalsIgnoreCase(name)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public void close() throws IOException {
+            csv.close();
+        }
+    }
+
+    /**
+     * NDJSON: mỗi dòng một object {topicId, subtopicId, front, back, codeExample}
+     */
+    private final class JsonRowReader implements RowReader {
+        private final BufferedReader reader;
+        private int lineNumber;
+
+        JsonRowReader(InputStream input) {
+            this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 64 * 1024);
+        }
+
+        @Override
+        public Row next() throws IOException {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    JsonNode node = objectMapper.readTree(line);
+                    if (!node.isObject()) {
+                        return Row.invalid(lineNumber, "Dòng không phải JSON object");
+                    }
+                    return Row.of(lineNumber, text(node, "topicId"), text(node, "subtopicId"),
+                            trim(text(node, "front")), trim(text(node, "back")),
+                            stripTrailing(text(node, "codeExample")));
+                } catch (JsonProcessingException e) {
+                    return Row.invalid(lineNumber, "JSON không hợp lệ: " + e.getOriginalMessage());
+                }
+            }
+            return null;
+        }
+
+        private static String text(JsonNode node, String field) {
+            JsonNode value = node.get(field);
+            return value == null || value.isNull() ? null : value.asText();
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    private static String trim(String value) {
+        return value == null ? null : value.trim();
+    }
+
+    private static String stripTrailing(String value) {
+        return value == null ? null : value.stripTrailing();
+    }
+}
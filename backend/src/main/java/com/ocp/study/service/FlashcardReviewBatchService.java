@@ -0,0 +1,265 @@
+package com.ocp.study.service;
+
+import com.ocp.study.dto.FlashcardDTO;
+import com.ocp.study.dto.FlashcardReviewBatchDTO;
+import com.ocp.study.dto.FlashcardReviewBatchResultDTO;
+import com.ocp.study.entity.FlashcardReview;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Array;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Áp dụng nhiều lượt review flashcard của user trong một request: một query đọc flashcard
+ * kèm review hiện tại (khóa dòng review đến hết transaction), lập lịch trong bộ nhớ theo
+ * thứ tự thời gian, rồi ghi tất cả bằng một câu upsert. Lượt review không mới hơn lần
+ * review cuối đã lưu trong DB được bỏ qua, nên gửi lại cùng một phiên (mất mạng, retry)
+ * không bị tính hai lần; các lượt review cùng thẻ trong một batch đều được tính kể cả
+ * khi trùng thời điểm.
+ *
+ * @author OCP Study Team
+ * @since 1.0.0
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FlashcardReviewBatchService {
+
+    /**
+     * Review hiện có được khóa trong CTE: PostgreSQL không cho FOR UPDATE trên phía
+     * nullable của LEFT JOIN
+     */
+    private static final String LOAD_SQL = """
+            WITH fr AS (
+                SELECT id, flashcard_id, review_count, correct_count, difficulty_level, repetitions, lapses,
+                       ease_factor, stability, fsrs_difficulty, last_reviewed, next_review
+                FROM flashcard_reviews
+                WHERE user_id = ? AND flashcard_id = ANY(?)
+                FOR UPDATE
+            )
+            SELECT f.id, f.topic_id, t.name, f.subtopic_id, s.name, f.front, f.back, f.code_example, f.created_at,
+                   fr.id, fr.review_count, fr.correct_count, fr.difficulty_level, fr.repetitions, fr.lapses,
+                   fr.ease_factor, fr.stability, fr.fsrs_difficulty, fr.last_reviewed, fr.next_review
+            FROM flashcards f
+            JOIN topics t ON t.id = f.topic_id
+            LEFT JOIN subtopics s ON s.id = f.subtopic_id
+            LEFT JOIN fr ON fr.flashcard_id = f.id
+            WHERE f.id = ANY(?)
+            """;
+
+    /**
+     * Một câu cho cả batch (mỗi cột là một mảng). Dòng đã có review mới hơn (ví dụ từ
+     * thiết bị khác) thì giữ nguyên; RETURNING chỉ trả các thẻ thực sự được ghi.
+     */
+    private static final String UPSERT_SQL = """
+            INSERT INTO flashcard_reviews (user_id, flashcard_id, review_count, correct_count, repetitions, lapses,
+                ease_factor, stability, fsrs_difficulty, last_reviewed, next_review)
+            SELECT ?, r.* FROM unnest(?::uuid[], ?::int4[], ?::int4[], ?::int4[], ?::int4[], ?::float8[],
+                                      ?::float8[], ?::float8[], ?::timestamp[], ?::timestamp[])
+                AS r(flashcard_id, review_count, correct_count, repetitions, lapses, ease_factor, stability,
+                     fsrs_difficulty, last_reviewed, next_review)
+            ON CONFLICT (user_id, flashcard_id) DO UPDATE SET
+                review_count = EXCLUDED.review_count,
+                correct_count = EXCLUDED.correct_count,
+                repetitions = EXCLUDED.repetitions,
+                lapses = EXCLUDED.lapses,
+                ease_factor = EXCLUDED.ease_factor,
+                stability = EXCLUDED.stability,
+                fsrs_difficulty = EXCLUDED.fsrs_difficulty,
+                last_reviewed = EXCLUDED.last_reviewed,
+                next_review = EXCLUDED.next_review
+            WHERE flashcard_reviews.last_reviewed IS NULL
+                OR flashcard_reviews.last_reviewed < EXCLUDED.last_reviewed
+            RETURNING flashcard_id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReviewSchedulerService reviewSchedulerService;
+    private final DueQueueService dueQueueService;
+    private final DueCountService dueCountService;
+
+    @Transactional
+    public FlashcardReviewBatchResultDTO submit(UUID userId, List<FlashcardReviewBatchDTO.ReviewDTO> reviews) {
+        LocalDateTime now = LocalDateTime.now();
+        Set<UUID> ids = new LinkedHashSet<>();
+        reviews.forEach(review -> ids.add(review.getFlashcardId()));
+        Map<UUID, Card> cards = load(userId, ids);
+
+        // Thời điểm trên client không được ở tương lai; cùng thời điểm giữ thứ tự gửi lên
+        List<FlashcardReviewBatchDTO.ReviewDTO> ordered = new ArrayList<>(reviews);
+        ordered.sort(Comparator.comparing(review -> reviewedAt(review, now)));
+
+        Set<UUID> unknown = new LinkedHashSet<>();
+        Map<UUID, Integer> changed = new LinkedHashMap<>(); // Thẻ -> số lượt review được áp dụng
+        for (FlashcardReviewBatchDTO.ReviewDTO item : ordered) {
+            Card card = cards.get(item.getFlashcardId());
+            LocalDateTime reviewedAt = reviewedAt(item, now);
+            if (card == null) {
+                unknown.add(item.getFlashcardId());
+                continue;
+            }
+            // So với giá trị trong DB, không phải lượt vừa áp dụng trong batch
+            if (card.storedLastReviewed() != null && !reviewedAt.isAfter(card.storedLastReviewed())) {
+                continue;
+            }
+            reviewSchedulerService.review(card.review(), item.getCorrect(), reviewedAt);
+            changed.merge(item.getFlashcardId(), 1, Integer::sum);
+        }
+
+        Set<UUID> written = changed.isEmpty() ? Set.of() : upsert(userId, changed.keySet(), cards);
+
+        int applied = 0;
+        List<FlashcardDTO> result = new ArrayList<>(written.size());
+        for (Map.Entry<UUID, Integer> entry : changed.entrySet()) {
+            if (!written.contains(entry.getKey())) {
+                continue; // Thiết bị khác đã ghi review mới hơn
+            }
+            applied += entry.getValue();
+            FlashcardDTO dto = cards.get(entry.getKey()).toDTO();
+            dueQueueService.reviewedAfterCommit(userId, dto);
+            result.add(dto);
+        }
+        int skipped = reviews.size() - applied;
+        if (applied > 0) {
+            dueCountService.invalidateAfterCommit(userId);
+        }
+        log.debug("Applied {} flashcard reviews for user {} ({} skipped)", applied, userId, skipped);
+        return FlashcardReviewBatchResultDTO.builder()
+                .applied(applied)
+                .skipped(skipped)
+                .unknownFlashcardIds(new ArrayList<>(unknown))
+                .flashcards(result)
+                .build();
+    }
+
+    private static LocalDateTime reviewedAt(FlashcardReviewBatchDTO.ReviewDTO review, LocalDateTime now) {
+        LocalDateTime at = review.getReviewedAt();
+        return at == null || at.isAfter(now) ? now : at;
+    }
+
+    /**
+     * Ghi review của các thẻ đã đổi
+     *
+     * @return các thẻ thực sự được ghi
+     */
+    private Set<UUID> upsert(UUID userId, Set<UUID> ids, Map<UUID, Card> cards) {
+        int n = ids.size();
+        UUID[] flashcardIds = ids.toArray(new UUID[0]);
+        Integer[] reviewCounts = new Integer[n];
+        Integer[] correctCounts = new Integer[n];
+        Integer[] repetitions = new Integer[n];
+        Integer[] lapses = new Integer[n];
+        Double[] easeFactors = new Double[n];
+        Double[] stabilities = new Double[n];
+        Double[] fsrsDifficulties = new Double[n];
+        Timestamp[] lastReviewed = new Timestamp[n];
+        Timestamp[] nextReview = new Timestamp[n];
+        for (int i = 0; i < n; i++) {
+            FlashcardReview review = cards.get(flashcardIds[i]).review();
+            reviewCounts[i] = review.getReviewCount();
+            correctCounts[i] = review.getCorrectCount();
+            repetitions[i] = review.getRepetitions();
+            lapses[i] = review.getLapses();
+            easeFactors[i] = review.getEaseFactor();
+            stabilities[i] = review.getStability();
+            fsrsDifficulties[i] = review.getFsrsDifficulty();
+            lastReviewed[i] = Timestamp.valueOf(review.getLastReviewed());
+            nextReview[i] = Timestamp.valueOf(review.getNextReview());
+        }
+
+        Set<UUID> written = new HashSet<>();
+        jdbcTemplate.query(con -> {
+            var ps = con.prepareStatement(UPSERT_SQL);
+            ps.setObject(1, userId);
+            ps.setArray(2, con.createArrayOf("uuid", flashcardIds));
+            ps.setArray(3, con.createArrayOf("int4", reviewCounts));
+            ps.setArray(4, con.createArrayOf("int4", correctCounts));
+            ps.setArray(5, con.createArrayOf("int4", repetitions));
+            ps.setArray(6, con.createArrayOf("int4", lapses));
+            ps.setArray(7, con.createArrayOf("float8", easeFactors));
+            ps.setArray(8, con.createArrayOf("float8", stabilities));
+            ps.setArray(9, con.createArrayOf("float8", fsrsDifficulties));
+            ps.setArray(10, con.createArrayOf("timestamp", lastReviewed));
+            ps.setArray(11, con.createArrayOf("timestamp", nextReview));
+            return ps;
+        }, rs -> {
+            written.add(rs.getObject(1, UUID.class));
+        });
+        return written;
+    }
+
+    /**
+     * Flashcard và review hiện tại của user (review mới nếu chưa có) trong một query
+     */
+    private Map<UUID, Card> load(UUID userId, Set<UUID> ids) {
+        Map<UUID, Card> cards = new LinkedHashMap<>();
+        jdbcTemplate.query(con -> {
+            var ps = con.prepareStatement(LOAD_SQL);
+            Array array = con.createArrayOf("uuid", ids.toArray());
+            ps.setObject(1, userId);
+            ps.setArray(2, array);
+            ps.setArray(3, array);
+            return ps;
+        }, rs -> {
+            Timestamp createdAt = rs.getTimestamp(9);
+            Timestamp lastReviewed = rs.getTimestamp(19);
+            Timestamp nextReview = rs.getTimestamp(20);
+            FlashcardReview review = rs.getObject(10) == null
+                    ? FlashcardReview.builder().build()
+                    : FlashcardReview.builder()
+                            .reviewCount(rs.getInt(11))
+                            .correctCount(rs.getInt(12))
+                            .difficultyLevel(rs.getObject(13, Integer.class))
+                            .repetitions(rs.getInt(14))
+                            .lapses(rs.getInt(15))
+                            .easeFactor(rs.getObject(16, Double.class))
+                            .stability(rs.getObject(17, Double.class))
+                            .fsrsDifficulty(rs.getObject(18, Double.class))
+                            .lastReviewed(lastReviewed != null ? lastReviewed.toLocalDateTime() : null)
+                            .nextReview(nextReview != null ? nextReview.toLocalDateTime() : null)
+                            .build();
+            UUID id = rs.getObject(1, UUID.class);
+            cards.put(id, new Card(FlashcardDTO.builder()
+                    .id(id)
+                    .topicId(rs.getObject(2, UUID.class))
+                    .topicName(rs.getString(3))
+                    .subtopicId(rs.getObject(4, UUID.class))
+                    .subtopicName(rs.getString(5))
+                    .front(rs.getString(6))
+                    .back(rs.getString(7))
+                    .codeExample(rs.getString(8))
+                    .createdAt(createdAt != null ? createdAt.toLocalDateTime() : null)
+                    .build(), review, review.getLastReviewed()));
+        });
+        return cards;
+    }
+
+    /**
+     * Nội dung flashcard và review của user đang được cập nhật trong bộ nhớ
+     *
+     * @param storedLastReviewed lần review cuối trong DB lúc đọc, null nếu chưa review
+     */
+    private record Card(FlashcardDTO flashcard, FlashcardReview review, LocalDateTime storedLastReviewed) {
+
+        FlashcardDTO toDTO() {
+            flashcard.setReviewCount(review.getReviewCount());
+            flashcard.setCorrectCount(review.getCorrectCount());
+            flashcard.setNextReview(review.getNextReview());
+            return flashcard;
+        }
+    }
+}
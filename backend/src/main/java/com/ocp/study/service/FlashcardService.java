@@ -16,7 +16,6 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -37,6 +36,9 @@ public class FlashcardService {
         private final TopicRepository topicRepository;
         private final SubtopicRepository subtopicRepository;
         private final UserService userService;
+        private final ReviewSchedulerService reviewSchedulerService;
+        private final DueQueueService dueQueueService;
+        private final DueCountService dueCountService;
 
         /**
          * Lấy tất cả flashcards (chưa filter theo user)
@@ -51,35 +53,13 @@ public class FlashcardService {
         }
 
         /**
-         * Lấy flashcards theo topic với user review data
+         * Lấy flashcards theo topic với user review data: một query cho trang (đã join
+         * review của user) và một query đếm, không phụ thuộc lịch sử review của user
          */
         public org.springframework.data.domain.Page<FlashcardDTO> getFlashcardsByTopic(UUID topicId,
                         org.springframework.data.domain.Pageable pageable) {
-                User user = userService.getCurrentUser();
-                // Repository needs to support pagination
-                org.springframework.data.domain.Page<Flashcard> flashcards = flashcardRepository
-                                .findByTopicIdOrderByCreatedAtDesc(topicId, pageable);
-
-                // Get all reviews for this user (for the current page's flashcards would be
-                // efficient, but map lookup is okay even for a page)
-                // Ideally we fetch reviews only for the flashcard IDs in the page
-                List<UUID> flashcardIds = flashcards.getContent().stream().map(Flashcard::getId)
-                                .collect(Collectors.toList());
-
-                // This is a bit inefficient if we fetch ALL reviews for topic.
-                // Better: findByFlashcardIdInAndUser(ids, user)
-                // But for now, let's stick to simple logic or optimize if Review Repo supports
-                // it.
-                // Assuming findByUserAndTopicId returns all for topic.
-
-                Map<UUID, FlashcardReview> reviewMap = flashcardReviewRepository.findByUserAndTopicId(user, topicId)
-                                .stream()
-                                .filter(fr -> flashcardIds.contains(fr.getFlashcard().getId()))
-                                .collect(Collectors.toMap(
-                                                fr -> fr.getFlashcard().getId(),
-                                                fr -> fr));
-
-                return flashcards.map(fc -> mapToDTO(fc, reviewMap.get(fc.getId())));
+                return flashcardRepository.findPageWithReviewState(topicId, userService.getCurrentUserId(),
+                                pageable);
         }
 
         /**
@@ -165,6 +145,7 @@ public class FlashcardService {
                 }
 
                 flashcard = flashcardRepository.save(flashcard);
+                dueQueueService.invalidateFlashcardAfterCommit(id);
                 return mapToDTO(flashcard, null); // Admin update, no user review
         }
 
@@ -177,6 +158,8 @@ public class FlashcardService {
                         throw new RuntimeException("Flashcard không tồn tại: " + id);
                 }
                 flashcardRepository.deleteById(id);
+                dueQueueService.invalidateFlashcardAfterCommit(id);
+                dueCountService.clearAfterCommit();
         }
 
         /**
@@ -195,10 +178,13 @@ public class FlashcardService {
                                                 .flashcard(flashcard)
                                                 .build());
 
-                review.markReviewed(correct);
+                reviewSchedulerService.review(review, correct);
                 review = flashcardReviewRepository.save(review);
 
-                return mapToDTO(flashcard, review);
+                FlashcardDTO result = mapToDTO(flashcard, review);
+                dueQueueService.reviewedAfterCommit(user.getId(), result);
+                dueCountService.invalidateAfterCommit(user.getId());
+                return result;
         }
 
         /**
@@ -0,0 +1,161 @@
+package com.ocp.study.service;
+
+import com.ocp.study.entity.FlashcardReview;
+import lombok.Data;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * FSRS (Free Spaced Repetition Scheduler, công thức v4.5): mỗi thẻ có stability S (số ngày
+ * để khả năng nhớ giảm còn 90%) và difficulty D (1-10). Interval là số ngày để khả năng
+ * nhớ giảm xuống desiredRetention. Trả lời đúng tính như grade Good (3), sai như Again (1).
+ *
+ * @author OCP Study Team
+ * @since 1.0.0
+ */
+public class FsrsReviewScheduler implements ReviewScheduler {
+
+    public static final String NAME = "FSRS";
+
+    private static final double DECAY = -0.5;
+    private static final double FACTOR = 19.0 / 81.0;
+    private static final int AGAIN = 1;
+    private static final int GOOD = 3;
+
+    /**
+     * Trọng số mặc định của FSRS v4.5
+     */
+    private static final double[] DEFAULT_WEIGHTS = { 0.4872, 1.4003, 3.7145, 13.8206, 5.1618, 1.2298, 0.8975,
+            0.031, 1.6474, 0.1367, 1.0461, 2.1072, 0.0793, 0.3246, 1.587, 0.2272, 2.8755 };
+
+    @Data
+    public static class Parameters {
+        private double[] weights = DEFAULT_WEIGHTS.clone();
+        private double desiredRetention = 0.9;
+        private double maxIntervalDays = 365;
+        private double relearnHours = 4;   // Học lại sau khi trả lời sai
+    }
+
+    private final Parameters parameters;
+    private final double[] w;
+
+    /**
+     * @throws IllegalArgumentException nếu tham số không hợp lệ
+     */
+    public FsrsReviewScheduler(Parameters parameters) {
+        if (parameters.weights == null || parameters.weights.length != DEFAULT_WEIGHTS.length) {
+            throw new IllegalArgumentException("FSRS cần " + DEFAULT_WEIGHTS.length + " trọng số");
+        }
+        if (parameters.desiredRetention <= 0.5 || parameters.desiredRetention >= 1) {
+            throw new IllegalArgumentException("desiredRetention phải trong (0.5, 1)");
+        }
+        if (parameters.maxIntervalDays < 1 || parameters.relearnHours <= 0) {
+            throw new IllegalArgumentException("Interval không hợp lệ");
+        }
+        this.parameters = parameters;
+        this.w = parameters.weights.clone();
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public Parameters getParameters() {
+        return parameters;
+    }
+
+    @Override
+    public void review(FlashcardReview review, boolean correct, LocalDateTime now) {
+        int grade = correct ? GOOD : AGAIN;
+        if (review.getLastReviewed() == null && review.getStability() == null) {
+            // Thẻ mới
+            review.setStability(w[grade - 1]);
+            review.setFsrsDifficulty(clampDifficulty(w[4] - (grade - 3) * w[5]));
+        } else {
+            prepare(review);
+            double stability = review.getStability();
+            double difficulty = review.getFsrsDifficulty();
+            double elapsedDays = review.getLastReviewed() == null ? 0
+                    : Math.max(0, Duration.between(review.getLastReviewed(), now).toSeconds() / 86400.0);
+            double retrievability = Math.pow(1 + FACTOR * elapsedDays / stability, DECAY);
+            review.setStability(correct
+                    ? recallStability(difficulty, stability, retrievability)
+                    : forgetStability(difficulty, stability, retrievability));
+            review.setFsrsDifficulty(nextDifficulty(difficulty, grade));
+        }
+
+        if (correct) {
+            review.setRepetitions(review.getRepetitions() + 1);
+        } else {
+            review.setRepetitions(0);
+            review.setLapses(review.getLapses() + 1);
+        }
+        review.setEaseFactor(null);
+        review.setNextReview(ReviewScheduler.plusDays(now, intervalDays(review)));
+    }
+
+    @Override
+    public void reschedule(FlashcardReview review) {
+        prepare(review);
+        review.setNextReview(ReviewScheduler.plusDays(review.getLastReviewed(), intervalDays(review)));
+    }
+
+    /**
+     * Sau một lần sai thẻ được học lại sớm, ngoài ra là số ngày để khả năng nhớ còn
+     * desiredRetention
+     */
+    private double intervalDays(FlashcardReview review) {
+        if (review.getRepetitions() == 0) {
+            return parameters.relearnHours / 24;
+        }
+        double days = review.getStability() / FACTOR
+                * (Math.pow(parameters.desiredRetention, 1 / DECAY) - 1);
+        return Math.min(parameters.maxIntervalDays, Math.max(1, Math.round(days)));
+    }
+
+    private double recallStability(double difficulty, double stability, double retrievability) {
+        return stability * (Math.exp(w[8]) * (11 - difficulty) * Math.pow(stability, -w[9])
+                * (Math.exp(w[10] * (1 - retrievability)) - 1) + 1);
+    }
+
+    private double forgetStability(double difficulty, double stability, double retrievability) {
+        double next = w[11] * Math.pow(difficulty, -w[12]) * (Math.pow(stability + 1, w[13]) - 1)
+                * Math.exp(w[14] * (1 - retrievability));
+        return Math.min(next, stability);
+    }
+
+    /**
+     * Difficulty đổi theo grade rồi kéo về difficulty ban đầu của grade Good
+     */
+    private double nextDifficulty(double difficulty, int grade) {
+        double next = difficulty - w[6] * (grade - 3);
+        return clampDifficulty(w[7] * w[4] + (1 - w[7]) * next);
+    }
+
+    private static double clampDifficulty(double difficulty) {
+        return Math.max(1, Math.min(10, difficulty));
+    }
+
+    /**
+     * Chuyển state SM-2 / dữ liệu cũ sang FSRS: difficulty từ ease (hoặc difficulty_level),
+     * stability lấy bằng interval hiện tại (với retention 90% interval = stability)
+     */
+    private void prepare(FlashcardReview review) {
+        if (review.getStability() == null) {
+            review.setFsrsDifficulty(review.getEaseFactor() != null
+                    ? ReviewScheduler.difficultyFromEase(review.getEaseFactor())
+                    : ReviewScheduler.difficultyFromLevel(review.getDifficultyLevel()));
+            double interval = ReviewScheduler.currentIntervalDays(review);
+            if (review.getRepetitions() == 0 && interval >= 1) {
+                review.setRepetitions(1); // Dữ liệu cũ: interval dài nghĩa là lần cuối trả lời đúng
+            }
+            review.setStability(Math.max(w[0], interval));
+        } else if (review.getFsrsDifficulty() == null) {
+            review.setFsrsDifficulty(w[4]);
+        }
+        review.setEaseFactor(null);
+    }
+}
@@ -0,0 +1,424 @@
+package com.ocp.study.service;
+
+import com.ocp.study.dto.ImportJobDTO;
+import com.ocp.study.dto.QuestionImportResultDTO;
+import com.ocp.study.dto.SimilarQuestionDTO;
+import com.ocp.study.entity.ImportJob;
+import com.ocp.study.repository.ImportJobRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Import câu hỏi chạy nền.
+ * File upload được lưu tạm xuống đĩa và request trả về ngay. Mỗi job có một thread
+ * đọc file đẩy từng dòng vào hàng đợi giới hạn, thread ghi lấy ra theo batch và ghi
+ * mỗi batch bằng {@link QuestionImportService} trong một transaction riêng, cùng với
+ * tiến độ của job. Nhờ vậy job có thể hủy giữa chừng và chạy tiếp từ batch cuối đã
+ * commit.
+ *
+ * @author OCP Study Team
+ * @since 1.0.0
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ImportJobService {
+
+    /**
+     * Đánh dấu hết file trong hàng đợi
+     */
+    private static final QuestionImportRow END = QuestionImportRow.invalid(-1, "END");
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private static final int MAX_REPORTED_SIMILAR = 100;
+
+    private final ImportJobRepository importJobRepository;
+    private final QuestionImportService questionImportService;
+    private final QuestionPoolService questionPoolService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${quiz.import.spool-dir:${java.io.tmpdir}/ocp-imports}")
+    private String spoolDir;
+
+    @Value("${quiz.import.batch-size:2000}")
+    private int batchSize;
+
+    @Value("${quiz.import.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${quiz.import.max-concurrent-jobs:2}")
+    private int maxConcurrentJobs;
+
+    private ExecutorService writerExecutor;
+    private ExecutorService parserExecutor;
+
+    /**
+     * Job đang chờ / đang chạy trên server này
+     */
+    private final Map<UUID, JobHandle> active = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        writerExecutor = Executors.newFixedThreadPool(Math.max(1, maxConcurrentJobs));
+        parserExecutor = Executors.newCachedThreadPool();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        active.values().forEach(handle -> handle.cancelled = true);
+        parserExecutor.shutdownNow();
+        writerExecutor.shutdownNow();
+    }
+
+    /**
+     * Job còn dang dở từ lần chạy trước của server được chuyển sang FAILED để admin
+     * có thể chạy tiếp
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverInterruptedJobs() {
+        Integer count = transactionTemplate.execute(status -> importJobRepository.failInterruptedJobs());
+        if (count != null && count > 0) {
+            log.warn("Marked {} interrupted import jobs as FAILED", count);
+        }
+    }
+
+    /**
+     * Lưu file và tạo job, trả về ngay
+     */
+    public ImportJobDTO submit(MultipartFile file) throws IOException {
+        Path dir = Paths.get(spoolDir);
+        Files.createDirectories(dir);
+        Path path = dir.resolve(UUID.randomUUID() + ".csv");
+        file.transferTo(path);
+
+        ImportJob job = importJobRepository.save(ImportJob.builder()
+                .fileName(file.getOriginalFilename())
+                .filePath(path.toString())
+                .status(ImportJob.Status.QUEUED)
+                .build());
+        enqueue(job.getId());
+        return toDTO(job);
+    }
+
+    public Optional<ImportJobDTO> getJob(UUID jobId) {
+        return importJobRepository.findById(jobId).map(this::toDTO);
+    }
+
+    public List<ImportJobDTO> getRecentJobs() {
+        return importJobRepository.findTop20ByOrderByCreatedAtDesc().stream()
+                .map(this::toDTO)
+                .peek(dto -> {
+                    dto.setErrors(null);
+                    dto.setSimilar(null);
+                })
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Hủy job. Batch đang ghi vẫn được commit, job dừng sau batch đó.
+     *
+     * @return empty nếu job không tồn tại
+     */
+    public Optional<ImportJobDTO> cancel(UUID jobId) {
+        JobHandle handle = active.get(jobId);
+        if (handle != null) {
+            handle.cancelled = true;
+        }
+        return importJobRepository.findById(jobId).map(job -> {
+            if (handle == null && job.getStatus() == ImportJob.Status.QUEUED) {
+                job.setStatus(ImportJob.Status.CANCELLED);
+                job.setFinishedAt(LocalDateTime.now());
+                job = importJobRepository.save(job);
+            }
+            return toDTO(job);
+        });
+    }
+
+    /**
+     * Chạy tiếp job đã hủy hoặc bị lỗi, bắt đầu sau batch cuối đã commit
+     *
+     * @throws IllegalStateException nếu job không ở trạng thái chạy tiếp được
+     */
+    public Optional<ImportJobDTO> resume(UUID jobId) {
+        return importJobRepository.findById(jobId).map(job -> {
+            if (active.containsKey(jobId)
+                    || (job.getStatus() != ImportJob.Status.CANCELLED && job.getStatus() != ImportJob.Status.FAILED)) {
+                throw new IllegalStateException("Job đang ở trạng thái " + job.getStatus() + ", không thể chạy tiếp");
+            }
+            if (!Files.exists(Paths.get(job.getFilePath()))) {
+                throw new IllegalStateException("File import không còn trên server, vui lòng upload lại");
+            }
+            job.setStatus(ImportJob.Status.QUEUED);
+            job.setMessage(null);
+            job.setFinishedAt(null);
+            job = importJobRepository.save(job);
+            enqueue(jobId);
+            return toDTO(job);
+        });
+    }
+
+    private void enqueue(UUID jobId) {
+        JobHandle handle = new JobHandle();
+        active.put(jobId, handle);
+        writerExecutor.submit(() -> run(jobId, handle));
+    }
+
+    /**
+     * Thread ghi: lấy dòng từ hàng đợi theo batch và commit từng batch
+     */
+    private void run(UUID jobId, JobHandle handle) {
+        Future<?> parser = null;
+        try {
+            ImportJob job = importJobRepository.findById(jobId).orElse(null);
+            if (job == null || job.getStatus() != ImportJob.Status.QUEUED) {
+                return;
+            }
+            if (handle.cancelled) {
+                finish(jobId, ImportJob.Status.CANCELLED, null);
+                return;
+            }
+
+            job.setStatus(ImportJob.Status.RUNNING);
+            job.setStartedAt(LocalDateTime.now());
+            importJobRepository.save(job);
+            handle.parsedBase = job.getRowsWritten() + job.getRowsFailed();
+            handle.startedNanos = System.nanoTime();
+
+            int resumeAfter = job.getLastCommittedLine();
+            Path path = Paths.get(job.getFilePath());
+            BlockingQueue<QuestionImportRow> queue = new ArrayBlockingQueue<>(Math.max(batchSize, queueCapacity));
+            parser = parserExecutor.submit(() -> parse(path, resumeAfter, queue, handle));
+
+            List<QuestionImportRow> batch = new ArrayList<>(batchSize);
+            boolean done = false;
+            while (!done && !handle.cancelled) {
+                QuestionImportRow row = queue.poll(1, TimeUnit.SECONDS);
+                if (row == null) {
+                    // Thread đọc đã dừng mà không kịp đẩy END (VD: lỗi khi hàng đợi đầy)
+                    done = parser.isDone() && queue.isEmpty();
+                    continue;
+                }
+                if (row != END) {
+                    batch.add(row);
+                    queue.drainTo(batch, batchSize - batch.size());
+                }
+                if (row == END || batch.get(batch.size() - 1) == END) {
+                    batch.remove(END);
+                    done = true;
+                }
+                if (batch.size() >= batchSize || (done && !batch.isEmpty())) {
+                    writeBatch(jobId, batch, handle);
+                    batch.clear();
+                }
+            }
+
+            if (handle.parseError != null) {
+                throw handle.parseError;
+            }
+            if (handle.cancelled) {
+                finish(jobId, ImportJob.Status.CANCELLED, null);
+            } else {
+                finish(jobId, ImportJob.Status.COMPLETED, null);
+                Files.deleteIfExists(path);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            finish(jobId, ImportJob.Status.FAILED, "Job bị dừng");
+        } catch (Exception e) {
+            log.error("Import job {} failed: {}", jobId, e.getMessage());
+            finish(jobId, ImportJob.Status.FAILED, e.getMessage());
+        } finally {
+            if (parser != null) {
+                parser.cancel(true);
+            }
+            active.remove(jobId);
+            if (handle.written.get() > 0) {
+                questionPoolService.refresh();
+            }
+        }
+    }
+
+    /**
+     * Thread đọc: bỏ qua các dòng đã commit ở lần chạy trước
+     */
+    private void parse(Path path, int resumeAfter, BlockingQueue<QuestionImportRow> queue, JobHandle handle) {
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            Iterator<QuestionImportRow> rows = QuestionImportService.readCsv(reader);
+            while (rows.hasNext() && !handle.cancelled) {
+                QuestionImportRow row = rows.next();
+                if (row.lineNumber() <= resumeAfter) {
+                    continue;
+                }
+                queue.put(row);
+                handle.parsed.incrementAndGet();
+            }
+            queue.put(END);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | RuntimeException e) {
+            handle.parseError = e;
+            queue.offer(END);
+        }
+    }
+
+    /**
+     * Ghi một batch, lỗi / cảnh báo gần trùng theo dòng và tiến độ của job trong cùng một transaction
+     */
+    private void writeBatch(UUID jobId, List<QuestionImportRow> batch, JobHandle handle) {
+        int lastLine = batch.get(batch.size() - 1).lineNumber();
+        QuestionImportResultDTO result = transactionTemplate.execute(status -> {
+            QuestionImportResultDTO r;
+            try {
+                r = questionImportService.importRows(batch.iterator());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO import_job_errors (job_id, line_no, message) VALUES (?, ?, ?) ON CONFLICT DO NOTHING",
+                    r.getErrors().stream()
+                            .map(error -> new Object[] { jobId, error.getLine(), error.getMessage() })
+                            .collect(Collectors.toList()));
+            List<Object[]> similarArgs = new ArrayList<>();
+            for (QuestionImportResultDTO.SimilarRowDTO row : r.getSimilar()) {
+                for (SimilarQuestionDTO match : row.getSimilarTo()) {
+                    similarArgs.add(new Object[] { jobId, row.getLine(), row.getQuestionId(), match.getQuestionId(),
+                            match.getSimilarity() });
+                }
+            }
+            jdbcTemplate.batchUpdate("""
+                    INSERT INTO import_job_similar (job_id, line_no, question_id, similar_question_id, similarity)
+                    VALUES (?, ?, ?, ?, ?) ON CONFLICT DO NOTHING
+                    """, similarArgs);
+            jdbcTemplate.update("""
+                    UPDATE import_jobs
+                    SET rows_written = rows_written + ?, rows_failed = rows_failed + ?, rows_similar = rows_similar + ?,
+                        rows_parsed = rows_written + rows_failed + ? + ?, last_committed_line = ?
+                    WHERE id = ?
+                    """, written(r), r.getFailed(), r.getSimilar().size(), written(r), r.getFailed(), lastLine,
+                    jobId);
+            return r;
+        });
+        if (result != null) {
+            handle.written.addAndGet(written(result));
+        }
+    }
+
+    private static int written(QuestionImportResultDTO result) {
+        return result.getImported() + result.getUpdated() + result.getUnchanged();
+    }
+
+    private void finish(UUID jobId, ImportJob.Status status, String message) {
+        importJobRepository.findById(jobId).ifPresent(job -> {
+            job.setStatus(status);
+            job.setMessage(message);
+            job.setFinishedAt(LocalDateTime.now());
+            importJobRepository.save(job);
+        });
+    }
+
+    private ImportJobDTO toDTO(ImportJob job) {
+        JobHandle handle = active.get(job.getId());
+        double rowsPerSecond = 0.0;
+        int rowsParsed = job.getRowsParsed();
+        if (handle != null && handle.startedNanos > 0) {
+            double seconds = (System.nanoTime() - handle.startedNanos) / 1e9;
+            rowsPerSecond = seconds > 0 ? handle.written.get() / seconds : 0.0;
+            rowsParsed = handle.parsedBase + handle.parsed.get();
+        } else if (job.getStartedAt() != null && job.getFinishedAt() != null) {
+            long millis = Duration.between(job.getStartedAt(), job.getFinishedAt()).toMillis();
+            rowsPerSecond = millis > 0 ? job.getRowsWritten() * 1000.0 / millis : 0.0;
+        }
+
+        List<QuestionImportResultDTO.RowErrorDTO> errors = job.getRowsFailed() > 0
+                ? importJobRepository.findErrors(job.getId(), MAX_REPORTED_ERRORS).stream()
+                        .map(row -> QuestionImportResultDTO.RowErrorDTO.builder()
+                                .line(((Number) row[0]).intValue())
+                                .message((String) row[1])
+                                .build())
+                        .collect(Collectors.toList())
+                : List.of();
+
+        Map<Integer, QuestionImportResultDTO.SimilarRowDTO> similar = new LinkedHashMap<>();
+        if (job.getRowsSimilar() > 0) {
+            for (Object[] row : importJobRepository.findSimilar(job.getId(), MAX_REPORTED_SIMILAR)) {
+                similar.computeIfAbsent(((Number) row[0]).intValue(), line -> QuestionImportResultDTO.SimilarRowDTO
+                        .builder()
+                        .line(line)
+                        .questionId((UUID) row[1])
+                        .similarTo(new ArrayList<>())
+                        .build())
+                        .getSimilarTo().add(SimilarQuestionDTO.builder()
+                                .questionId((UUID) row[2])
+                                .similarity(Math.round(((Number) row[3]).doubleValue() * 1000.0) / 1000.0)
+                                .build());
+            }
+        }
+
+        return ImportJobDTO.builder()
+                .id(job.getId())
+                .fileName(job.getFileName())
+                .status(job.getStatus())
+                .rowsParsed(rowsParsed)
+                .rowsWritten(job.getRowsWritten())
+                .rowsFailed(job.getRowsFailed())
+                .rowsSimilar(job.getRowsSimilar())
+                .lastCommittedLine(job.getLastCommittedLine())
+                .rowsPerSecond(Math.round(rowsPerSecond * 10.0) / 10.0)
+                .message(job.getMessage())
+                .createdAt(job.getCreatedAt())
+                .startedAt(job.getStartedAt())
+                .finishedAt(job.getFinishedAt())
+                .errors(errors)
+                .similar(new ArrayList<>(similar.values()))
+                .build();
+    }
+
+    /**
+     * Trạng thái trong bộ nhớ của một job đang chạy
+     */
+    private static final class JobHandle {
+        volatile boolean cancelled;
+        volatile Exception parseError;
+        volatile long startedNanos;
+        volatile int parsedBase;
+        final AtomicInteger parsed = new AtomicInteger();
+        final AtomicInteger written = new AtomicInteger();
+    }
+}
@@ -0,0 +1,291 @@
+package com.ocp.study.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ocp.study.dto.MockExamDTO;
+import com.ocp.study.dto.QuestionDTO;
+import com.ocp.study.entity.Topic;
+import com.ocp.study.repository.TopicRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Service sinh đề thi thử (mock exam) cho một certification.
+ * Câu hỏi được chia theo topic tỉ lệ với trọng số topic (estimatedDays), trong mỗi
+ * topic chia theo tỉ lệ độ khó cấu hình sẵn. Mỗi certification giữ một vòng các đề
+ * đã sinh sẵn dưới dạng JSON, nên nhiều học viên bắt đầu thi cùng lúc chỉ tốn một
+ * lần lookup thay vì mỗi người một lần chọn câu hỏi.
+ *
+ * @author OCP Study Team
+ * @since 1.0.0
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MockExamService {
+
+    private final TopicRepository topicRepository;
+    private final QuestionPoolService questionPoolService;
+    private final QuizService quizService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${quiz.mock-exam.size:50}")
+    private int examSize;
+
+    @Value("${quiz.mock-exam.duration-minutes:90}")
+    private int durationMinutes;
+
+    /**
+     * Tỉ lệ % câu hỏi theo độ khó 1..5
+     */
+    @Value("${quiz.mock-exam.difficulty-mix:10,20,40,20,10}")
+    private String difficultyMix;
+
+    @Value("${quiz.mock-exam.bundles-per-certification:8}")
+    private int bundlesPerCertification;
+
+    /**
+     * Số lần phát một đề trước khi sinh lại đề mới cho slot đó
+     */
+    @Value("${quiz.mock-exam.bundle-max-uses:200}")
+    private int bundleMaxUses;
+
+    private final Map<UUID, BundleRing> rings = new ConcurrentHashMap<>();
+
+    /**
+     * Lấy một đề thi thử (JSON của {@link MockExamDTO}) theo vòng các đề đã sinh sẵn.
+     * Mỗi slot chỉ có một request sinh đề tại một thời điểm: slot trống được giữ chỗ
+     * bằng một future, các request khác vào cùng slot chờ future đó.
+     *
+     * @return empty nếu certification không có câu hỏi nào
+     */
+    public Optional<byte[]> getExam(UUID certificationId) {
+        BundleRing ring = rings.computeIfAbsent(certificationId, k -> new BundleRing(bundlesPerCertification));
+        int slot = (int) (ring.cursor.getAndIncrement() % ring.slots.length());
+        CompletableFuture<Bundle> current = ring.slots.get(slot);
+
+        if (current == null) {
+            CompletableFuture<Bundle> pending = new CompletableFuture<>();
+            if (ring.slots.compareAndSet(slot, null, pending)) {
+                return Optional.ofNullable(buildInto(ring, slot, pending, certificationId)).map(b -> b.json);
+            }
+            current = ring.slots.get(slot);
+            if (current == null) {
+                return Optional.empty(); // Request giữ chỗ vừa thấy certification không có câu hỏi
+            }
+        }
+
+        Bundle bundle = current.join();
+        if (bundle == null) {
+            return Optional.empty();
+        }
+        boolean stale = bundle.poolVersion != questionPoolService.version()
+                || bundle.uses.incrementAndGet() > bundleMaxUses;
+        // Chỉ một request sinh lại đề, các request khác vẫn dùng đề cũ trong lúc đó
+        if (stale && bundle.rebuilding.compareAndSet(false, true)) {
+            boolean replaced = false;
+            try {
+                Bundle fresh = build(certificationId);
+                ring.slots.compareAndSet(slot, current, fresh != null ? CompletableFuture.completedFuture(fresh) : null);
+                replaced = true;
+                return fresh != null ? Optional.of(fresh.json) : Optional.empty();
+            } finally {
+                if (!replaced) {
+                    bundle.rebuilding.set(false); // Lỗi khi sinh đề: để request sau thử lại
+                }
+            }
+        }
+        return Optional.of(bundle.json);
+    }
+
+    /**
+     * Sinh đề cho slot trống đã giữ chỗ bằng {@code pending}. Không sinh được (không có câu
+     * hỏi hoặc lỗi) thì trả slot về trống để lần sau thử lại.
+     */
+    private Bundle buildInto(BundleRing ring, int slot, CompletableFuture<Bundle> pending, UUID certificationId) {
+        try {
+            Bundle fresh = build(certificationId);
+            if (fresh == null) {
+                ring.slots.compareAndSet(slot, pending, null);
+            }
+            pending.complete(fresh);
+            return fresh;
+        } catch (RuntimeException e) {
+            ring.slots.compareAndSet(slot, pending, null);
+            pending.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Sinh một đề mới
+     */
+    private Bundle build(UUID certificationId) {
+        long poolVersion = questionPoolService.version();
+        List<Topic> topics = topicRepository.findByCertificationIdOrderByOrderIndexAsc(certificationId);
+
+        double[] topicWeights = new double[topics.size()];
+        int[] topicCaps = new int[topics.size()];
+        List<int[]> difficultyCounts = new ArrayList<>();
+        for (int i = 0; i < topics.size(); i++) {
+            Topic topic = topics.get(i);
+            int[] counts = questionPoolService.countByDifficulty(topic.getId());
+            difficultyCounts.add(counts);
+            topicCaps[i] = Arrays.stream(counts).sum();
+            topicWeights[i] = topic.getEstimatedDays() != null && topic.getEstimatedDays() > 0
+                    ? topic.getEstimatedDays()
+                    : 1;
+        }
+
+        int[] topicQuotas = apportion(examSize, topicWeights, topicCaps);
+        double[] mix = parseDifficultyMix();
+
+        List<UUID> questionIds = new ArrayList<>(examSize);
+        for (int i = 0; i < topics.size(); i++) {
+            if (topicQuotas[i] == 0) {
+                continue;
+            }
+            int[] perDifficulty = apportion(topicQuotas[i], mix, difficultyCounts.get(i));
+            for (int d = 0; d < perDifficulty.length; d++) {
+                if (perDifficulty[d] > 0) {
+                    questionIds.addAll(questionPoolService.sample(topics.get(i).getId(),
+                            d + QuestionPoolService.MIN_DIFFICULTY, perDifficulty[d]));
+                }
+            }
+        }
+
+        if (questionIds.isEmpty()) {
+            return null;
+        }
+        Collections.shuffle(questionIds);
+
+        // Đáp án được ghi vào AnswerKeyCache khi convert, chấm điểm qua /quiz/grade
+        List<QuestionDTO> questions = quizService.getQuestionsByIds(questionIds);
+        MockExamDTO exam = MockExamDTO.builder()
+                .bundleId(UUID.randomUUID())
+                .certificationId(certificationId)
+                .totalQuestions(questions.size())
+                .durationMinutes(durationMinutes)
+                .generatedAt(LocalDateTime.now())
+                .questions(questions)
+                .build();
+
+        try {
+            log.debug("Built mock exam bundle {} for certification {} ({} questions)",
+                    exam.getBundleId(), certificationId, questions.size());
+            return new Bundle(objectMapper.writeValueAsBytes(exam), poolVersion);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Không thể serialize mock exam: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Chia {@code total} theo tỉ lệ {@code weights} (largest remainder), không vượt quá
+     * {@code caps}. Phần dư của nhóm đã đầy được chia lại cho các nhóm còn chỗ.
+     */
+    static int[] apportion(int total, double[] weights, int[] caps) {
+        int n = weights.length;
+        int[] result = new int[n];
+        int remaining = total;
+
+        while (remaining > 0) {
+            double sum = 0;
+            for (int i = 0; i < n; i++) {
+                if (result[i] < caps[i]) {
+                    sum += weights[i];
+                }
+            }
+            if (sum <= 0) {
+                break;
+            }
+
+            double[] remainders = new double[n];
+            int assigned = 0;
+            for (int i = 0; i < n; i++) {
+                if (result[i] < caps[i]) {
+                    double exact = remaining * weights[i] / sum;
+                    int add = Math.min((int) exact, caps[i] - result[i]);
+                    result[i] += add;
+                    assigned += add;
+                    remainders[i] = exact - (int) exact;
+                }
+            }
+
+            int left = remaining - assigned;
+            Integer[] order = new Integer[n];
+            for (int i = 0; i < n; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Double.compare(remainders[b], remainders[a]));
+            for (int i : order) {
+                if (left == 0) {
+                    break;
+                }
+                if (result[i] < caps[i] && weights[i] > 0) {
+                    result[i]++;
+                    left--;
+                }
+            }
+
+            if (left == remaining) {
+                break; // Không còn nhóm nào nhận thêm được
+            }
+            remaining = left;
+        }
+        return result;
+    }
+
+    /**
+     * Mỗi độ khó luôn có trọng số tối thiểu để bù khi độ khó khác không đủ câu hỏi
+     */
+    private double[] parseDifficultyMix() {
+        double[] mix = new double[QuestionPoolService.MAX_DIFFICULTY - QuestionPoolService.MIN_DIFFICULTY + 1];
+        String[] parts = difficultyMix.split(",");
+        for (int i = 0; i < mix.length; i++) {
+            double value = i < parts.length ? Double.parseDouble(parts[i].trim()) : 0;
+            mix[i] = Math.max(value, 0.01);
+        }
+        return mix;
+    }
+
+    /**
+     * Vòng các đề đã sinh sẵn của một certification
+     */
+    private static final class BundleRing {
+        final AtomicReferenceArray<CompletableFuture<Bundle>> slots;
+        final AtomicLong cursor = new AtomicLong();
+
+        BundleRing(int size) {
+            slots = new AtomicReferenceArray<>(Math.max(size, 1));
+        }
+    }
+
+    private static final class Bundle {
+        final byte[] json;
+        final long poolVersion;
+        final AtomicInteger uses = new AtomicInteger();
+        final AtomicBoolean rebuilding = new AtomicBoolean();
+
+        Bundle(byte[] json, long poolVersion) {
+            this.json = json;
+            this.poolVersion = poolVersion;
+        }
+    }
+}
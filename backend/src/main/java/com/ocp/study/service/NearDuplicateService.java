@@ -0,0 +1,499 @@
+package com.ocp.study.service;
+
+import com.ocp.study.dto.DuplicateClusterDTO;
+import com.ocp.study.dto.SimilarQuestionDTO;
+import com.ocp.study.util.TransactionCallbacks;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Phát hiện câu hỏi gần trùng (viết lại câu chữ) bằng MinHash + LSH.
+ * Nội dung và code snippet được tách thành các shingle 3 từ, mỗi câu hỏi giữ một
+ * chữ ký MinHash {@value #NUM_HASHES} giá trị. Chữ ký chia thành {@value #BANDS} band,
+ * hai câu hỏi trùng ít nhất một band là ứng viên, sau đó mới so độ giống ước lượng
+ * (tỉ lệ vị trí chữ ký bằng nhau) với ngưỡng cấu hình.
+ * Index giữ trong bộ nhớ, chỉ dùng để cảnh báo - load lại từ DB bằng {@link #rebuild()}.
+ * Thay đổi từ code có transaction chỉ vào index sau khi commit, để rollback không để lại
+ * câu hỏi không tồn tại trong index.
+ *
+ * @author OCP Study Team
+ * @since 1.0.0
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NearDuplicateService {
+
+    static final int NUM_HASHES = 128;
+    static final int BANDS = 32;
+    static final int ROWS = NUM_HASHES / BANDS;
+    private static final int SHINGLE_SIZE = 3;
+
+    /**
+     * Band có quá nhiều câu hỏi (ví dụ cùng một đoạn code mẫu) chỉ so với phần tử
+     * đầu khi gom cụm, tránh O(n^2)
+     */
+    private static final int MAX_PAIRWISE_BUCKET = 200;
+
+    private static final long[] SEEDS = new long[NUM_HASHES];
+
+    static {
+        long seed = 0x5DEECE66DL;
+        for (int i = 0; i < NUM_HASHES; i++) {
+            seed = mix(seed + 0x9E3779B97F4A7C15L);
+            SEEDS[i] = seed;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${quiz.duplicates.threshold:0.5}")
+    private double threshold;
+
+    @Value("${quiz.duplicates.max-results:5}")
+    private int maxResults;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean loaded = false;
+    private Index index = new Index();
+
+    /**
+     * Các câu hỏi trong index giống nội dung này nhất (độ giống >= ngưỡng)
+     *
+     * @param excludeId bỏ qua chính câu hỏi này (khi sửa), có thể null
+     */
+    public List<SimilarQuestionDTO> findSimilar(String content, String codeSnippet, UUID excludeId) {
+        int[] signature = signature(content, codeSnippet);
+        if (signature == null) {
+            return List.of();
+        }
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            return index.query(signature, excludeId, threshold, maxResults);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Thêm / cập nhật câu hỏi trong index sau khi transaction hiện tại commit
+     * (ngay lập tức nếu không có transaction)
+     */
+    public void addAfterCommit(UUID questionId, String content, String codeSnippet) {
+        int[] signature = signature(content, codeSnippet);
+        TransactionCallbacks.afterCommit(() -> apply(Map.of(questionId, Optional.ofNullable(signature))));
+    }
+
+    /**
+     * Bỏ câu hỏi khỏi index sau khi transaction hiện tại commit
+     */
+    public void removeAfterCommit(UUID questionId) {
+        TransactionCallbacks.afterCommit(() -> apply(Map.of(questionId, Optional.empty())));
+    }
+
+    /**
+     * Đối chiếu nhiều câu hỏi mới trong cùng một transaction (import). Gọi trước khi ghi
+     * câu hỏi: lần load index đầu tiên đọc DB qua transaction hiện tại.
+     */
+    public Batch newBatch() {
+        ensureLoaded();
+        return new Batch();
+    }
+
+    /**
+     * Ghi thay đổi vào index: Optional rỗng là xóa câu hỏi
+     */
+    private void apply(Map<UUID, Optional<int[]>> changes) {
+        if (!loaded) {
+            return; // Lần load đầu tiên sẽ đọc các câu hỏi này từ DB
+        }
+        lock.writeLock().lock();
+        try {
+            changes.forEach((questionId, signature) -> {
+                index.remove(questionId);
+                signature.ifPresent(value -> index.add(questionId, value));
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Gom các câu hỏi gần trùng trên toàn bộ ngân hàng thành cụm
+     *
+     * @param minSimilarity null để dùng ngưỡng cấu hình
+     */
+    public List<DuplicateClusterDTO> findClusters(Double minSimilarity) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            return index.clusters(minSimilarity != null ? minSimilarity : threshold);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Dựng lại index từ DB. Index mới được dựng ngoài lock rồi mới thay thế.
+     *
+     * @return số câu hỏi trong index
+     */
+    public int rebuild() {
+        long start = System.currentTimeMillis();
+        Index fresh = new Index();
+        jdbcTemplate.query(con -> {
+            var ps = con.prepareStatement("SELECT id, content, code_snippet FROM questions");
+            ps.setFetchSize(1000);
+            return ps;
+        }, rs -> {
+            int[] signature = signature(rs.getString(2), rs.getString(3));
+            if (signature != null) {
+                fresh.add(rs.getObject(1, UUID.class), signature);
+            }
+        });
+
+        lock.writeLock().lock();
+        try {
+            index = fresh;
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Built near-duplicate index: {} questions in {} ms", fresh.size(),
+                System.currentTimeMillis() - start);
+        return fresh.size();
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (!loaded) {
+                rebuild();
+            }
+        }
+    }
+
+    /**
+     * Chữ ký MinHash của nội dung + code snippet, null nếu không có từ nào
+     */
+    static int[] signature(String content, String codeSnippet) {
+        long[] shingles = shingles(content, codeSnippet);
+        if (shingles.length == 0) {
+            return null;
+        }
+        int[] signature = new int[NUM_HASHES];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (long shingle : shingles) {
+            for (int i = 0; i < NUM_HASHES; i++) {
+                int h = (int) (mix(shingle ^ SEEDS[i]) >>> 33);
+                if (h < signature[i]) {
+                    signature[i] = h;
+                }
+            }
+        }
+        return signature;
+    }
+
+    /**
+     * Hash của các shingle 3 từ liên tiếp (chữ thường, chữ/số). Từ được hash trực tiếp
+     * trên chuỗi, không tạo String trung gian. Văn bản ít hơn 3 từ dùng chính các từ.
+     */
+    static long[] shingles(String content, String codeSnippet) {
+        long[] words = new long[64];
+        int count = 0;
+        for (String text : new String[] { content, codeSnippet }) {
+            if (text == null) {
+                continue;
+            }
+            long h = 0;
+            boolean inWord = false;
+            for (int i = 0, n = text.length(); i <= n; i++) {
+                char c = i < n ? text.charAt(i) : ' ';
+                if (Character.isLetterOrDigit(c)) {
+                    h = h * 31 + Character.toLowerCase(c);
+                    inWord = true;
+                } else if (inWord) {
+                    if (count == words.length) {
+                        words = Arrays.copyOf(words, count * 2);
+                    }
+                    words[count++] = mix(h);
+                    h = 0;
+                    inWord = false;
+                }
+            }
+        }
+        if (count < SHINGLE_SIZE) {
+            return Arrays.copyOf(words, count);
+        }
+        long[] shingles = new long[count - SHINGLE_SIZE + 1];
+        for (int i = 0; i < shingles.length; i++) {
+            shingles[i] = mix(words[i] * 0x9E3779B97F4A7C15L + Long.rotateLeft(words[i + 1], 21) + words[i + 2]);
+        }
+        return shingles;
+    }
+
+    static double similarity(int[] a, int[] b) {
+        int equal = 0;
+        for (int i = 0; i < NUM_HASHES; i++) {
+            if (a[i] == b[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / NUM_HASHES;
+    }
+
+    private static long bandKey(int[] signature, int band) {
+        long h = band;
+        for (int r = band * ROWS; r < (band + 1) * ROWS; r++) {
+            h = h * 0x9E3779B97F4A7C15L + signature[r];
+        }
+        return mix(h);
+    }
+
+    /**
+     * SplitMix64 finalizer
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Các câu hỏi mới của một transaction: được đối chiếu với index và với nhau (nên các câu
+     * gần trùng trong cùng batch vẫn được cảnh báo), chỉ vào index chung khi commit
+     */
+    public final class Batch {
+        private final Index pending = new Index();
+        private final Map<UUID, Optional<int[]>> changes = new LinkedHashMap<>();
+
+        private Batch() {
+        }
+
+        /**
+         * Các câu hỏi gần trùng nhất trong index và trong batch, rồi thêm câu hỏi vào batch
+         */
+        public List<SimilarQuestionDTO> findSimilarAndAdd(UUID questionId, String content, String codeSnippet) {
+            int[] signature = signature(content, codeSnippet);
+            changes.put(questionId, Optional.ofNullable(signature));
+            if (signature == null) {
+                return List.of();
+            }
+            List<SimilarQuestionDTO> committed;
+            lock.readLock().lock();
+            try {
+                committed = index.query(signature, questionId, threshold, maxResults);
+            } finally {
+                lock.readLock().unlock();
+            }
+            List<SimilarQuestionDTO> inBatch = pending.query(signature, questionId, threshold, maxResults);
+            pending.add(questionId, signature);
+            if (inBatch.isEmpty()) {
+                return committed;
+            }
+            return Stream.concat(committed.stream(), inBatch.stream())
+                    .sorted(Comparator.comparing(SimilarQuestionDTO::getSimilarity).reversed())
+                    .limit(maxResults)
+                    .toList();
+        }
+
+        /**
+         * Đưa các câu hỏi của batch vào index sau khi transaction hiện tại commit
+         */
+        public void addAfterCommit() {
+            if (!changes.isEmpty()) {
+                TransactionCallbacks.afterCommit(() -> apply(changes));
+            }
+        }
+    }
+
+    /**
+     * Chữ ký theo vị trí nội bộ + bảng band -> danh sách vị trí. Vị trí của câu hỏi bị
+     * xóa được bỏ khỏi các band và dùng lại cho câu hỏi thêm sau, nên sửa câu hỏi
+     * không làm index phình ra.
+     */
+    private static final class Index {
+        private final List<UUID> ids = new ArrayList<>();
+        private final List<int[]> signatures = new ArrayList<>();
+        private final Map<UUID, Integer> positions = new HashMap<>();
+        private final Map<Long, Posting> buckets = new HashMap<>();
+        private final Posting free = new Posting();
+
+        int size() {
+            return positions.size();
+        }
+
+        /**
+         * Thêm câu hỏi chưa có trong index, dùng lại vị trí trống nếu có
+         */
+        void add(UUID id, int[] signature) {
+            int position;
+            if (free.size > 0) {
+                position = free.items[--free.size];
+                ids.set(position, id);
+                signatures.set(position, signature);
+            } else {
+                position = ids.size();
+                ids.add(id);
+                signatures.add(signature);
+            }
+            positions.put(id, position);
+            for (int band = 0; band < BANDS; band++) {
+                buckets.computeIfAbsent(bandKey(signature, band), k -> new Posting()).add(position);
+            }
+        }
+
+        void remove(UUID id) {
+            Integer position = positions.remove(id);
+            if (position == null) {
+                return;
+            }
+            int[] signature = signatures.get(position);
+            for (int band = 0; band < BANDS; band++) {
+                long key = bandKey(signature, band);
+                Posting posting = buckets.get(key);
+                if (posting != null && posting.remove(position) && posting.size == 0) {
+                    buckets.remove(key);
+                }
+            }
+            ids.set(position, null);
+            signatures.set(position, null);
+            free.add(position);
+        }
+
+        List<SimilarQuestionDTO> query(int[] signature, UUID excludeId, double minSimilarity, int limit) {
+            Map<Integer, Double> scores = new HashMap<>();
+            for (int band = 0; band < BANDS; band++) {
+                Posting posting = buckets.get(bandKey(signature, band));
+                if (posting == null) {
+                    continue;
+                }
+                for (int i = 0; i < posting.size; i++) {
+                    int position = posting.items[i];
+                    int[] other = signatures.get(position);
+                    if (scores.containsKey(position) || ids.get(position).equals(excludeId)) {
+                        continue;
+                    }
+                    scores.put(position, similarity(signature, other));
+                }
+            }
+            return scores.entrySet().stream()
+                    .filter(e -> e.getValue() >= minSimilarity)
+                    .sorted(Map.Entry.<Integer, Double>comparingByValue().reversed())
+                    .limit(limit)
+                    .map(e -> SimilarQuestionDTO.builder()
+                            .questionId(ids.get(e.getKey()))
+                            .similarity(e.getValue())
+                            .build())
+                    .toList();
+        }
+
+        /**
+         * Union-find trên các cặp ứng viên cùng band có độ giống >= ngưỡng
+         */
+        List<DuplicateClusterDTO> clusters(double minSimilarity) {
+            int n = ids.size();
+            int[] parent = new int[n];
+            double[] best = new double[n];
+            for (int i = 0; i < n; i++) {
+                parent[i] = i;
+            }
+            for (Posting posting : buckets.values()) {
+                if (posting.size < 2) {
+                    continue;
+                }
+                int limit = posting.size <= MAX_PAIRWISE_BUCKET ? posting.size : 1;
+                for (int i = 0; i < limit; i++) {
+                    int a = posting.items[i];
+                    int[] sa = signatures.get(a);
+                    if (sa == null) {
+                        continue;
+                    }
+                    for (int j = i + 1; j < posting.size; j++) {
+                        int b = posting.items[j];
+                        int[] sb = signatures.get(b);
+                        if (sb == null || find(parent, a) == find(parent, b)) {
+                            continue;
+                        }
+                        double similarity = similarity(sa, sb);
+                        if (similarity >= minSimilarity) {
+                            int ra = find(parent, a);
+                            int rb = find(parent, b);
+                            parent[rb] = ra;
+                            best[ra] = Math.max(Math.max(best[ra], best[rb]), similarity);
+                        }
+                    }
+                }
+            }
+
+            Map<Integer, List<UUID>> groups = new HashMap<>();
+            for (int i = 0; i < n; i++) {
+                if (signatures.get(i) != null && find(parent, i) != i) {
+                    groups.computeIfAbsent(find(parent, i), k -> new ArrayList<>()).add(ids.get(i));
+                }
+            }
+            List<DuplicateClusterDTO> result = new ArrayList<>(groups.size());
+            groups.forEach((root, members) -> {
+                members.add(0, ids.get(root));
+                result.add(DuplicateClusterDTO.builder()
+                        .questionIds(members)
+                        .size(members.size())
+                        .maxSimilarity(best[root])
+                        .build());
+            });
+            result.sort(Comparator.comparing(DuplicateClusterDTO::getSize).reversed());
+            return result;
+        }
+
+        private static int find(int[] parent, int i) {
+            while (parent[i] != i) {
+                parent[i] = parent[parent[i]];
+                i = parent[i];
+            }
+            return i;
+        }
+    }
+
+    private static final class Posting {
+        int[] items = new int[2];
+        int size;
+
+        void add(int item) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+            }
+            items[size++] = item;
+        }
+
+        /**
+         * Bỏ một phần tử (thay bằng phần tử cuối)
+         */
+        boolean remove(int item) {
+            for (int i = 0; i < size; i++) {
+                if (items[i] == item) {
+                    items[i] = items[--size];
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.ocp.study.service;
+
+import java.util.List;
+
+/**
+ * Một dòng câu hỏi đọc từ file import, theo đúng thứ tự cột của template:
+ * topic_id, content, code_snippet, question_type, difficulty, explanation,
+ * option_a, option_b, option_c, option_d, correct_answer.
+ *
+ * @param lineNumber số dòng trong file (header là dòng 1)
+ * @param values     giá trị các cột, null nếu dòng không đọc được
+ * @param error      lỗi cấu trúc phát hiện khi đọc, null nếu dòng hợp lệ về cấu trúc
+ */
+public record QuestionImportRow(int lineNumber, List<String> values, String error) {
+
+    public static final int COLUMN_COUNT = 11;
+
+    public static QuestionImportRow of(int lineNumber, List<String> values) {
+        if (values.size() < COLUMN_COUNT) {
+            return new QuestionImportRow(lineNumber, null,
+                    "Dòng thiếu dữ liệu: cần " + COLUMN_COUNT + " cột, có " + values.size());
+        }
+        return new QuestionImportRow(lineNumber, values.subList(0, COLUMN_COUNT), null);
+    }
+
+    public static QuestionImportRow invalid(int lineNumber, String error) {
+        return new QuestionImportRow(lineNumber, null, error);
+    }
+}
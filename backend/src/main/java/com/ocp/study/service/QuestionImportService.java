@@ -0,0 +1,424 @@
+package com.ocp.study.service;
+
+import com.ocp.study.dto.QuestionImportResultDTO;
+import com.ocp.study.dto.SimilarQuestionDTO;
+import com.ocp.study.util.CsvReader;
+import com.ocp.study.util.TransactionCallbacks;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.copy.CopyManager;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.postgresql.core.BaseConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Import câu hỏi hàng loạt từ CSV (giữ nguyên format template).
+ * Các dòng được đẩy vào một bảng tạm bằng {@code COPY ... FROM STDIN}, kiểm tra
+ * topic / loại câu hỏi / đáp án bằng vài câu UPDATE trên cả bảng, rồi ghi vào
+ * questions và question_options bằng INSERT ... SELECT - tất cả trong một
+ * transaction. Số câu lệnh SQL không phụ thuộc số dòng của file.
+ * Câu hỏi được nhận diện theo hash nội dung (content_hash): import lại cùng file
+ * không tạo bản trùng, chỉ cập nhật các câu hỏi có thay đổi.
+ *
+ * @author OCP Study Team
+ * @since 1.0.0
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class QuestionImportService {
+
+    private static final String UUID_PATTERN =
+            "^[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}$";
+
+    private static final int CODE_SNIPPET_COLUMN = 2;
+
+    private static final String CREATE_STAGING_SQL = """
+            CREATE TEMP TABLE question_import_staging (
+                line_no INTEGER NOT NULL,
+                topic_id TEXT,
+                content TEXT,
+                code_snippet TEXT,
+                question_type TEXT,
+                difficulty TEXT,
+                explanation TEXT,
+                option_a TEXT,
+                option_b TEXT,
+                option_c TEXT,
+                option_d TEXT,
+                correct_answer TEXT,
+                error TEXT,
+                content_hash VARCHAR(64),
+                question_id UUID,
+                is_new BOOLEAN NOT NULL DEFAULT FALSE
+            ) ON COMMIT DROP
+            """;
+
+    private static final String COPY_SQL = """
+            COPY question_import_staging (line_no, topic_id, content, code_snippet, question_type, difficulty,
+                explanation, option_a, option_b, option_c, option_d, correct_answer, error)
+            FROM STDIN WITH (FORMAT csv)
+            """;
+
+    /**
+     * Các bước kiểm tra theo thứ tự, mỗi bước chỉ đánh dấu dòng chưa có lỗi
+     */
+    private static final String[][] VALIDATIONS = {
+            { "content IS NULL OR content = ''", "Nội dung câu hỏi trống" },
+            { "topic_id IS NULL OR topic_id !~ '" + UUID_PATTERN + "'", "Topic ID không hợp lệ" },
+            { "NOT EXISTS (SELECT 1 FROM topics t WHERE t.id::text = lower(s.topic_id))", "Topic ID không tồn tại" },
+            { "coalesce(question_type, '') NOT IN ('SINGLE_CHOICE', 'MULTIPLE_CHOICE')", "Loại câu hỏi không hợp lệ" },
+            { "difficulty IS NULL OR difficulty !~ '^[1-5]$'", "Độ khó phải từ 1 đến 5" },
+            { "coalesce(correct_answer, '') !~ '^[A-D]+$'", "Đáp án đúng không hợp lệ" },
+            { "question_type = 'SINGLE_CHOICE' AND length(correct_answer) > 1",
+                    "Câu hỏi SINGLE_CHOICE chỉ có một đáp án đúng" },
+            { "(strpos(correct_answer, 'A') > 0 AND coalesce(option_a, '') = '')"
+                    + " OR (strpos(correct_answer, 'B') > 0 AND coalesce(option_b, '') = '')"
+                    + " OR (strpos(correct_answer, 'C') > 0 AND coalesce(option_c, '') = '')"
+                    + " OR (strpos(correct_answer, 'D') > 0 AND coalesce(option_d, '') = '')",
+                    "Đáp án đúng trỏ tới option trống" },
+    };
+
+    /**
+     * Dòng trùng nội dung với một dòng trước đó trong cùng file
+     */
+    private static final String MARK_DUPLICATES_SQL = """
+            UPDATE question_import_staging s
+            SET error = 'Trùng nội dung với dòng ' || d.first_line
+            FROM (SELECT line_no, min(line_no) OVER (PARTITION BY content_hash) AS first_line
+                  FROM question_import_staging
+                  WHERE error IS NULL) d
+            WHERE s.line_no = d.line_no AND d.line_no <> d.first_line
+            """;
+
+    /**
+     * Câu hỏi mới được thêm; câu hỏi đã có (cùng hash) chỉ được cập nhật khi khác
+     * topic / loại / độ khó / giải thích. RETURNING chỉ gồm các dòng thực sự được ghi.
+     */
+    private static final String UPSERT_QUESTIONS_SQL = """
+            INSERT INTO questions (id, topic_id, content, code_snippet, question_type, difficulty, explanation,
+                                   content_hash)
+            SELECT question_id, topic_id::uuid, content, NULLIF(code_snippet, ''), question_type,
+                   difficulty::int, explanation, content_hash
+            FROM question_import_staging
+            WHERE error IS NULL
+            ORDER BY line_no
+            ON CONFLICT (content_hash) DO UPDATE
+            SET topic_id = EXCLUDED.topic_id,
+                question_type = EXCLUDED.question_type,
+                difficulty = EXCLUDED.difficulty,
+                explanation = EXCLUDED.explanation
+            WHERE (questions.topic_id, questions.question_type, questions.difficulty, questions.explanation)
+                IS DISTINCT FROM (EXCLUDED.topic_id, EXCLUDED.question_type, EXCLUDED.difficulty, EXCLUDED.explanation)
+            RETURNING id, xmax = 0 AS inserted
+            """;
+
+    private static final String INSERT_OPTIONS_SQL = """
+            INSERT INTO question_options (question_id, option_key, content, is_correct)
+            SELECT s.question_id, o.option_key, coalesce(o.content, ''), strpos(s.correct_answer, o.option_key) > 0
+            FROM question_import_staging s
+            CROSS JOIN LATERAL (VALUES ('A', s.option_a), ('B', s.option_b),
+                                       ('C', s.option_c), ('D', s.option_d)) AS o(option_key, content)
+            WHERE s.error IS NULL AND s.is_new
+            """;
+
+    /**
+     * Câu hỏi đã có: cùng nội dung option nên chỉ có thể khác đáp án đúng
+     */
+    private static final String UPDATE_OPTIONS_SQL = """
+            UPDATE question_options o
+            SET is_correct = strpos(s.correct_answer, o.option_key) > 0
+            FROM question_import_staging s
+            WHERE s.error IS NULL AND NOT s.is_new
+              AND o.question_id = s.question_id
+              AND o.is_correct <> (strpos(s.correct_answer, o.option_key) > 0)
+            RETURNING o.question_id
+            """;
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final AnswerKeyCache answerKeyCache;
+    private final NearDuplicateService nearDuplicateService;
+
+    /**
+     * Import file CSV theo template (dòng đầu là header)
+     */
+    @Transactional
+    public QuestionImportResultDTO importCsv(InputStream input) throws IOException {
+        return importRows(readCsv(new InputStreamReader(input, StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Đọc lần lượt các câu hỏi của file CSV (bỏ qua header), không giữ cả file
+     * trong bộ nhớ. Số dòng của mỗi câu hỏi là dòng bắt đầu record.
+     */
+    public static Iterator<QuestionImportRow> readCsv(Reader reader) throws IOException {
+        CsvReader csv = new CsvReader(reader);
+        csv.readRecord(); // Skip header
+        return new RecordRowIterator(csv);
+    }
+
+    /**
+     * Import các dòng đã đọc sẵn. Phải gọi trong transaction: bảng tạm bị xóa khi commit.
+     */
+    @Transactional
+    public QuestionImportResultDTO importRows(Iterator<QuestionImportRow> rows) throws IOException {
+        long start = System.currentTimeMillis();
+        NearDuplicateService.Batch nearDuplicates = nearDuplicateService.newBatch();
+        jdbcTemplate.execute(CREATE_STAGING_SQL);
+
+        int total = copyRows(rows);
+        validate();
+
+        jdbcTemplate.update("""
+                UPDATE question_import_staging
+                SET content_hash = question_content_hash(content, code_snippet,
+                                                         ARRAY[option_a, option_b, option_c, option_d])
+                WHERE error IS NULL
+                """);
+        jdbcTemplate.update(MARK_DUPLICATES_SQL);
+        jdbcTemplate.update("""
+                UPDATE question_import_staging s SET question_id = q.id
+                FROM questions q
+                WHERE s.error IS NULL AND q.content_hash = s.content_hash
+                """);
+        jdbcTemplate.update("""
+                UPDATE question_import_staging SET question_id = gen_random_uuid(), is_new = TRUE
+                WHERE error IS NULL AND question_id IS NULL
+                """);
+
+        Set<UUID> updatedIds = new HashSet<>();
+        int[] imported = { 0 };
+        jdbcTemplate.query(UPSERT_QUESTIONS_SQL, rs -> {
+            if (rs.getBoolean(2)) {
+                imported[0]++;
+            } else {
+                updatedIds.add(rs.getObject(1, UUID.class));
+            }
+        });
+        jdbcTemplate.update(INSERT_OPTIONS_SQL);
+        updatedIds.addAll(jdbcTemplate.queryForList(UPDATE_OPTIONS_SQL, UUID.class));
+        // Sau commit: evict sớm hơn thì quiz chấm đồng thời có thể nạp lại đáp án cũ vào cache
+        TransactionCallbacks.afterCommit(() -> updatedIds.forEach(answerKeyCache::evict));
+        List<QuestionImportResultDTO.SimilarRowDTO> similar = flagNearDuplicates(nearDuplicates);
+
+        List<QuestionImportResultDTO.RowErrorDTO> errors = jdbcTemplate.query(
+                "SELECT line_no, error FROM question_import_staging WHERE error IS NOT NULL ORDER BY line_no",
+                (rs, i) -> QuestionImportResultDTO.RowErrorDTO.builder()
+                        .line(rs.getInt(1))
+                        .message(rs.getString(2))
+                        .build());
+
+        int updated = updatedIds.size();
+        int unchanged = total - errors.size() - imported[0] - updated;
+        log.info("Imported {} new, {} updated, {} unchanged of {} question rows in {} ms",
+                imported[0], updated, unchanged, total, System.currentTimeMillis() - start);
+        return QuestionImportResultDTO.builder()
+                .success(true)
+                .imported(imported[0])
+                .updated(updated)
+                .unchanged(unchanged)
+                .failed(errors.size())
+                .errors(errors)
+                .similar(similar)
+                .message("Import thành công " + imported[0] + " câu hỏi mới, cập nhật " + updated + " câu hỏi")
+                .build();
+    }
+
+    /**
+     * Đối chiếu câu hỏi mới với index gần trùng và với các dòng trước trong batch (theo
+     * thứ tự dòng, nên các dòng gần trùng nhau trong cùng file cũng được cảnh báo); index
+     * chỉ nhận các câu hỏi này khi transaction commit
+     */
+    private List<QuestionImportResultDTO.SimilarRowDTO> flagNearDuplicates(NearDuplicateService.Batch batch) {
+        List<QuestionImportResultDTO.SimilarRowDTO> similar = new ArrayList<>();
+        jdbcTemplate.query("""
+                SELECT line_no, question_id, content, code_snippet FROM question_import_staging
+                WHERE error IS NULL AND is_new ORDER BY line_no
+                """, rs -> {
+            UUID questionId = rs.getObject(2, UUID.class);
+            String content = rs.getString(3);
+            String codeSnippet = rs.getString(4);
+            List<SimilarQuestionDTO> matches = batch.findSimilarAndAdd(questionId, content, codeSnippet);
+            if (!matches.isEmpty()) {
+                similar.add(QuestionImportResultDTO.SimilarRowDTO.builder()
+                        .line(rs.getInt(1))
+                        .questionId(questionId)
+                        .similarTo(matches)
+                        .build());
+            }
+        });
+        batch.addAfterCommit();
+        return similar;
+    }
+
+    /**
+     * Ghi các dòng vào bảng tạm qua COPY (CSV), dùng chung connection của transaction
+     *
+     * @return số dòng đã ghi
+     */
+    private int copyRows(Iterator<QuestionImportRow> rows) throws IOException {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            CopyManager copyManager = new CopyManager(connection.unwrap(BaseConnection.class));
+            int count = 0;
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                    new PGCopyOutputStream(copyManager.copyIn(COPY_SQL)), StandardCharsets.UTF_8), 64 * 1024)) {
+                while (rows.hasNext()) {
+                    writeCopyLine(writer, rows.next());
+                    count++;
+                }
+            }
+            return count;
+        } catch (SQLException e) {
+            throw new IOException("COPY vào bảng tạm thất bại: " + e.getMessage(), e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    private static void writeCopyLine(Writer writer, QuestionImportRow row) throws IOException {
+        writer.write(Integer.toString(row.lineNumber()));
+        for (int i = 0; i < QuestionImportRow.COLUMN_COUNT; i++) {
+            writer.write(',');
+            writeCopyValue(writer, row.values() != null ? normalize(i, row.values().get(i)) : null);
+        }
+        writer.write(',');
+        writeCopyValue(writer, row.error());
+        writer.write('\n');
+    }
+
+    /**
+     * Chuẩn hóa trước khi COPY: loại câu hỏi viết hoa, đáp án đúng chỉ giữ chữ cái
+     * ("a, c" -> "AC")
+     */
+    private static String normalize(int column, String value) {
+        if (value == null) {
+            return null;
+        }
+        return switch (column) {
+            case 3 -> value.trim().toUpperCase();
+            case 10 -> value.replaceAll("[^A-Za-z]", "").toUpperCase();
+            default -> value;
+        };
+    }
+
+    /**
+     * CSV của COPY: giá trị không quote là NULL, chuỗi rỗng phải quote
+     */
+    private static void writeCopyValue(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private void validate() {
+        for (String[] validation : VALIDATIONS) {
+            jdbcTemplate.update("UPDATE question_import_staging s SET error = ? WHERE error IS NULL AND ("
+                    + validation[0] + ")", validation[1]);
+        }
+    }
+
+    /**
+     * Đọc từng record của file, mỗi record là một câu hỏi (có thể trải trên nhiều dòng
+     * nếu field nằm trong dấu ngoặc kép). Record sai cú pháp trở thành dòng lỗi.
+     */
+    private static final class RecordRowIterator implements Iterator<QuestionImportRow> {
+        private final CsvReader reader;
+        private QuestionImportRow next;
+
+        RecordRowIterator(CsvReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next != null) {
+                return true;
+            }
+            try {
+                List<String> record;
+                while ((record = readRecord()) != null) {
+                    if (next != null) {
+                        return true;
+                    }
+                    if (!isBlank(record)) {
+                        next = QuestionImportRow.of(reader.getRecordLine(), trimFields(record));
+                        return true;
+                    }
+                }
+                return false;
+            } catch (IOException e) {
+                throw new IllegalStateException("Lỗi đọc file: " + e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public QuestionImportRow next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            QuestionImportRow row = next;
+            next = null;
+            return row;
+        }
+
+        /**
+         * Lỗi cú pháp được ghi thành dòng lỗi (next) và trả về record rỗng để đọc tiếp
+         */
+        private List<String> readRecord() throws IOException {
+            try {
+                return reader.readRecord();
+            } catch (CsvReader.CsvParseException e) {
+                next = QuestionImportRow.invalid(reader.getRecordLine(), e.getMessage());
+                return List.of();
+            }
+        }
+    }
+
+    private static boolean isBlank(List<String> record) {
+        for (String value : record) {
+            if (!value.isBlank()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Bỏ khoảng trắng hai đầu field, riêng code snippet chỉ bỏ cuối để giữ thụt lề
+     */
+    private static List<String> trimFields(List<String> record) {
+        List<String> result = new ArrayList<>(record.size());
+        for (int i = 0; i < record.size(); i++) {
+            String value = record.get(i);
+            result.add(i == CODE_SNIPPET_COLUMN ? value.stripTrailing() : value.trim());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,317 @@
+package com.ocp.study.service;
+
+import com.ocp.study.repository.QuestionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Pool ID câu hỏi giữ trong bộ nhớ để chọn câu hỏi ngẫu nhiên cho quiz.
+ * Thay cho {@code ORDER BY RANDOM()}: chỉ load (id, topic_id, difficulty) một lần,
+ * sau đó mỗi lần lấy N câu hỏi chỉ tốn O(N) bằng partial Fisher-Yates, không phụ
+ * thuộc số lượng câu hỏi trong ngân hàng.
+ *
+ * @author OCP Study Team
+ * @since 1.0.0
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class QuestionPoolService {
+
+    public static final int MIN_DIFFICULTY = 1;
+    public static final int MAX_DIFFICULTY = 5;
+
+    private final QuestionRepository questionRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile boolean loaded = false;
+    private IdBucket all = new IdBucket();
+    private Map<UUID, IdBucket> byTopic = new HashMap<>();
+    private Map<UUID, IdBucket[]> byTopicAndDifficulty = new HashMap<>();
+
+    /**
+     * Tăng mỗi khi pool thay đổi - dùng để biết dữ liệu dựng từ pool đã cũ chưa
+     */
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * Chọn ngẫu nhiên tối đa {@code limit} ID câu hỏi (không trùng lặp).
+     *
+     * @param topicId null để chọn trên toàn bộ ngân hàng câu hỏi
+     */
+    public List<UUID> sample(UUID topicId, int limit) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            IdBucket bucket = topicId != null ? byTopic.get(topicId) : all;
+            if (bucket == null || limit <= 0) {
+                return new ArrayList<>();
+            }
+            return bucket.sample(limit, ThreadLocalRandom.current());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Chọn ngẫu nhiên tối đa {@code limit} ID câu hỏi của topic theo độ khó
+     */
+    public List<UUID> sample(UUID topicId, int difficulty, int limit) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            IdBucket[] buckets = byTopicAndDifficulty.get(topicId);
+            if (buckets == null || limit <= 0) {
+                return new ArrayList<>();
+            }
+            return buckets[difficultyIndex(difficulty)].sample(limit, ThreadLocalRandom.current());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Số câu hỏi của topic theo từng độ khó, index 0 = độ khó 1
+     */
+    public int[] countByDifficulty(UUID topicId) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            int[] counts = new int[MAX_DIFFICULTY - MIN_DIFFICULTY + 1];
+            IdBucket[] buckets = byTopicAndDifficulty.get(topicId);
+            if (buckets != null) {
+                for (int i = 0; i < counts.length; i++) {
+                    counts[i] = buckets[i].size();
+                }
+            }
+            return counts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Số câu hỏi theo độ khó của tất cả topic đang có câu hỏi trong pool
+     */
+    public Map<UUID, int[]> countsByTopic() {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            Map<UUID, int[]> result = new HashMap<>();
+            byTopicAndDifficulty.forEach((topicId, buckets) -> {
+                int[] counts = new int[buckets.length];
+                for (int i = 0; i < buckets.length; i++) {
+                    counts[i] = buckets[i].size();
+                }
+                result.put(topicId, counts);
+            });
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long version() {
+        return version.get();
+    }
+
+    /**
+     * Thêm câu hỏi mới vào pool (sau khi admin tạo câu hỏi)
+     */
+    public void add(UUID topicId, Integer difficulty, UUID questionId) {
+        if (!loaded) {
+            return; // Lần load đầu tiên sẽ đọc câu hỏi này từ DB
+        }
+        lock.writeLock().lock();
+        try {
+            all.add(questionId);
+            byTopic.computeIfAbsent(topicId, k -> new IdBucket()).add(questionId);
+            byTopicAndDifficulty.computeIfAbsent(topicId, k -> newDifficultyBuckets())[difficultyIndex(difficulty)]
+                    .add(questionId);
+            version.incrementAndGet();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Xóa câu hỏi khỏi pool (sau khi admin xóa câu hỏi)
+     */
+    public void remove(UUID questionId) {
+        if (!loaded) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!all.remove(questionId)) {
+                return;
+            }
+            for (Map.Entry<UUID, IdBucket> entry : byTopic.entrySet()) {
+                if (entry.getValue().remove(questionId)) {
+                    for (IdBucket bucket : byTopicAndDifficulty.get(entry.getKey())) {
+                        if (bucket.remove(questionId)) {
+                            break;
+                        }
+                    }
+                    break;
+                }
+            }
+            version.incrementAndGet();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Load lại toàn bộ pool từ DB (sau import hoặc khi phát hiện pool bị lệch)
+     */
+    public void refresh() {
+        lock.writeLock().lock();
+        try {
+            load();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                load();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Gọi khi đang giữ write lock
+     */
+    private void load() {
+        long start = System.currentTimeMillis();
+        List<Object[]> rows = questionRepository.findAllPoolEntries();
+
+        IdBucket newAll = new IdBucket(rows.size());
+        Map<UUID, IdBucket> newByTopic = new HashMap<>();
+        Map<UUID, IdBucket[]> newByTopicAndDifficulty = new HashMap<>();
+        for (Object[] row : rows) {
+            UUID questionId = (UUID) row[0];
+            UUID topicId = (UUID) row[1];
+            Integer difficulty = (Integer) row[2];
+            newAll.add(questionId);
+            newByTopic.computeIfAbsent(topicId, k -> new IdBucket()).add(questionId);
+            newByTopicAndDifficulty.computeIfAbsent(topicId, k -> newDifficultyBuckets())[difficultyIndex(difficulty)]
+                    .add(questionId);
+        }
+
+        all = newAll;
+        byTopic = newByTopic;
+        byTopicAndDifficulty = newByTopicAndDifficulty;
+        version.incrementAndGet();
+        loaded = true;
+        log.info("Loaded question pool: {} questions, {} topics in {} ms",
+                newAll.size(), newByTopic.size(), System.currentTimeMillis() - start);
+    }
+
+    private static IdBucket[] newDifficultyBuckets() {
+        IdBucket[] buckets = new IdBucket[MAX_DIFFICULTY - MIN_DIFFICULTY + 1];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new IdBucket();
+        }
+        return buckets;
+    }
+
+    private static int difficultyIndex(Integer difficulty) {
+        int d = difficulty != null ? difficulty : 3;
+        return Math.max(MIN_DIFFICULTY, Math.min(MAX_DIFFICULTY, d)) - MIN_DIFFICULTY;
+    }
+
+    /**
+     * Mảng ID tự giãn, mỗi UUID lưu thành 2 long liên tiếp để tránh giữ hàng
+     * triệu object UUID trong heap.
+     */
+    static final class IdBucket {
+
+        private long[] bits;
+        private int size;
+
+        IdBucket() {
+            this(16);
+        }
+
+        IdBucket(int capacity) {
+            bits = new long[Math.max(capacity, 16) * 2];
+        }
+
+        int size() {
+            return size;
+        }
+
+        void add(UUID id) {
+            if (size * 2 == bits.length) {
+                bits = Arrays.copyOf(bits, bits.length * 2);
+            }
+            bits[size * 2] = id.getMostSignificantBits();
+            bits[size * 2 + 1] = id.getLeastSignificantBits();
+            size++;
+        }
+
+        /**
+         * Xóa bằng cách đổi chỗ với phần tử cuối - O(n) để tìm, chỉ dùng cho thao
+         * tác admin hiếm gặp
+         */
+        boolean remove(UUID id) {
+            long msb = id.getMostSignificantBits();
+            long lsb = id.getLeastSignificantBits();
+            for (int i = 0; i < size; i++) {
+                if (bits[i * 2] == msb && bits[i * 2 + 1] == lsb) {
+                    size--;
+                    bits[i * 2] = bits[size * 2];
+                    bits[i * 2 + 1] = bits[size * 2 + 1];
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        UUID get(int index) {
+            return new UUID(bits[index * 2], bits[index * 2 + 1]);
+        }
+
+        /**
+         * Partial Fisher-Yates "ảo": các vị trí bị hoán đổi được ghi vào map thay vì
+         * sửa mảng, nên nhiều thread có thể sample đồng thời trên cùng một mảng.
+         */
+        List<UUID> sample(int k, ThreadLocalRandom random) {
+            int n = size;
+            int count = Math.min(k, n);
+            List<UUID> result = new ArrayList<>(count);
+            Map<Integer, Integer> swapped = new HashMap<>(count * 2);
+
+            for (int i = 0; i < count; i++) {
+                int j = i + random.nextInt(n - i);
+                int valueAtJ = swapped.getOrDefault(j, j);
+                int valueAtI = swapped.getOrDefault(i, i);
+                swapped.put(j, valueAtI);
+                result.add(get(valueAtJ));
+            }
+            return result;
+        }
+    }
+}
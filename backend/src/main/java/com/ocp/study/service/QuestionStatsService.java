@@ -0,0 +1,212 @@
+package com.ocp.study.service;
+
+import com.ocp.study.dto.QuestionStatsDTO;
+import com.ocp.study.repository.QuestionStatsRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thống kê kết quả làm bài theo từng câu hỏi (số lần làm, số lần đúng, thời gian,
+ * phân bố đáp án được chọn).
+ * Khi chấm điểm chỉ tăng các bộ đếm {@link LongAdder} trong bộ nhớ, không ghi DB.
+ * Theo chu kỳ, toàn bộ bộ đếm được tách ra và cộng dồn vào bảng question_stats
+ * bằng một batch upsert (write-behind).
+ *
+ * @author OCP Study Team
+ * @since 1.0.0
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class QuestionStatsService {
+
+    /**
+     * Số đáp án được thống kê (A-F)
+     */
+    static final int TRACKED_OPTIONS = 6;
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO question_stats (question_id, attempts, correct, skipped, total_time_seconds,
+                picked_a, picked_b, picked_c, picked_d, picked_e, picked_f, updated_at)
+            SELECT ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP
+            WHERE EXISTS (SELECT 1 FROM questions q WHERE q.id = ?)
+            ON CONFLICT (question_id) DO UPDATE
+            SET attempts = question_stats.attempts + EXCLUDED.attempts,
+                correct = question_stats.correct + EXCLUDED.correct,
+                skipped = question_stats.skipped + EXCLUDED.skipped,
+                total_time_seconds = question_stats.total_time_seconds + EXCLUDED.total_time_seconds,
+                picked_a = question_stats.picked_a + EXCLUDED.picked_a,
+                picked_b = question_stats.picked_b + EXCLUDED.picked_b,
+                picked_c = question_stats.picked_c + EXCLUDED.picked_c,
+                picked_d = question_stats.picked_d + EXCLUDED.picked_d,
+                picked_e = question_stats.picked_e + EXCLUDED.picked_e,
+                picked_f = question_stats.picked_f + EXCLUDED.picked_f,
+                updated_at = EXCLUDED.updated_at
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final QuestionStatsRepository questionStatsRepository;
+
+    /**
+     * Bộ đếm của chu kỳ hiện tại. Người ghi không giữ lock nào: flush đổi sang map mới
+     * bằng một lần ghi volatile rồi lấy và reset từng bộ đếm của map cũ
+     * ({@link LongAdder#sumThenReset()}). Lượt tăng đến muộn vào map cũ (người ghi đã
+     * lấy tham chiếu trước lúc đổi) vẫn nằm trong {@link #previous} và được ghi ở lần flush sau.
+     */
+    private volatile Map<UUID, Counters> current = new ConcurrentHashMap<>();
+
+    /**
+     * Map của chu kỳ trước, chỉ flush đọc / ghi
+     */
+    private Map<UUID, Counters> previous = Map.of();
+
+    /**
+     * Ghi nhận kết quả một câu hỏi đã chấm
+     *
+     * @param selectedMask bitmask đáp án đã chọn (bit 0 = A), 0 nếu bỏ qua
+     * @param timeSpent    thời gian làm câu hỏi (seconds), null nếu client không gửi
+     */
+    public void record(UUID questionId, int selectedMask, boolean correct, Integer timeSpent) {
+        Counters counters = current.computeIfAbsent(questionId, k -> new Counters());
+        counters.attempts.increment();
+        if (correct) {
+            counters.correct.increment();
+        }
+        if (selectedMask == 0) {
+            counters.skipped.increment();
+        }
+        if (timeSpent != null && timeSpent > 0) {
+            counters.timeSeconds.add(timeSpent);
+        }
+        for (int i = 0; i < TRACKED_OPTIONS; i++) {
+            if ((selectedMask & (1 << i)) != 0) {
+                counters.picks[i].increment();
+            }
+        }
+    }
+
+    /**
+     * Câu hỏi khó nhất (tỉ lệ đúng thấp nhất) hoặc bị làm sai nhiều nhất của topic.
+     * Chỉ gồm dữ liệu đã flush xuống DB.
+     *
+     * @param sort "hardest" hoặc "missed"
+     */
+    public List<QuestionStatsDTO> getTopicStats(UUID topicId, String sort, long minAttempts, int limit) {
+        PageRequest page = PageRequest.of(0, Math.max(1, Math.min(limit, 100)));
+        if ("missed".equalsIgnoreCase(sort)) {
+            return questionStatsRepository.findMostMissedByTopic(topicId, minAttempts, page);
+        }
+        return questionStatsRepository.findHardestByTopic(topicId, minAttempts, page);
+    }
+
+    /**
+     * Cộng dồn bộ đếm của chu kỳ vừa rồi vào bảng question_stats
+     */
+    @Scheduled(fixedDelayString = "${quiz.stats.flush-interval-ms:30000}")
+    public synchronized void flush() {
+        Map<UUID, Counters> drained = current;
+        if (!drained.isEmpty()) {
+            current = new ConcurrentHashMap<>();
+        }
+        Map<UUID, long[]> totals = new HashMap<>();
+        drain(previous, totals);
+        drain(drained, totals);
+        previous = drained;
+        if (totals.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> args = new ArrayList<>(totals.size());
+        totals.forEach((questionId, v) -> args.add(new Object[] {
+                questionId, v[0], v[1], v[2], v[3], v[4], v[5], v[6], v[7], v[8], v[9], questionId }));
+        try {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, args);
+            log.debug("Flushed stats for {} questions", args.size());
+        } catch (Exception e) {
+            log.error("Failed to flush question stats ({} questions): {}", args.size(), e.getMessage());
+            merge(totals);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * Lấy và reset bộ đếm, cộng vào {@code totals}; bỏ qua bộ đếm không có gì mới
+     */
+    private static void drain(Map<UUID, Counters> counters, Map<UUID, long[]> totals) {
+        counters.forEach((questionId, c) -> {
+            long[] values = c.sumThenReset();
+            if (Arrays.stream(values).allMatch(v -> v == 0)) {
+                return;
+            }
+            long[] total = totals.computeIfAbsent(questionId, k -> new long[values.length]);
+            for (int i = 0; i < values.length; i++) {
+                total[i] += values[i];
+            }
+        });
+    }
+
+    /**
+     * Trả lại bộ đếm chưa ghi được vào chu kỳ hiện tại để lần flush sau thử lại
+     */
+    private void merge(Map<UUID, long[]> failed) {
+        failed.forEach((questionId, values) -> current.computeIfAbsent(questionId, k -> new Counters()).add(values));
+    }
+
+    private static final class Counters {
+        final LongAdder attempts = new LongAdder();
+        final LongAdder correct = new LongAdder();
+        final LongAdder skipped = new LongAdder();
+        final LongAdder timeSeconds = new LongAdder();
+        final LongAdder[] picks = new LongAdder[TRACKED_OPTIONS];
+
+        Counters() {
+            for (int i = 0; i < picks.length; i++) {
+                picks[i] = new LongAdder();
+            }
+        }
+
+        /**
+         * (attempts, correct, skipped, timeSeconds, picks A-F). Mỗi bộ đếm được lấy và
+         * reset nguyên tử, lượt tăng đồng thời được tính ở lần này hoặc lần sau.
+         */
+        long[] sumThenReset() {
+            long[] values = new long[4 + TRACKED_OPTIONS];
+            values[0] = attempts.sumThenReset();
+            values[1] = correct.sumThenReset();
+            values[2] = skipped.sumThenReset();
+            values[3] = timeSeconds.sumThenReset();
+            for (int i = 0; i < picks.length; i++) {
+                values[4 + i] = picks[i].sumThenReset();
+            }
+            return values;
+        }
+
+        void add(long[] values) {
+            attempts.add(values[0]);
+            correct.add(values[1]);
+            skipped.add(values[2]);
+            timeSeconds.add(values[3]);
+            for (int i = 0; i < picks.length; i++) {
+                picks[i].add(values[4 + i]);
+            }
+        }
+    }
+}
@@ -1,20 +1,39 @@
 package com.ocp.study.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.ocp.study.dto.CursorPageDTO;
 import com.ocp.study.dto.QuestionDTO;
+import com.ocp.study.dto.QuizHistoryDTO;
+import com.ocp.study.dto.QuizResultDTO;
+import com.ocp.study.dto.QuizScorePointDTO;
 import com.ocp.study.dto.QuizSubmissionDTO;
 import com.ocp.study.entity.Question;
-import com.ocp.study.entity.QuestionOption;
 import com.ocp.study.entity.QuizHistory;
+import com.ocp.study.repository.QuestionOptionRepository;
 import com.ocp.study.repository.QuestionRepository;
 import com.ocp.study.repository.QuizHistoryRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service xử lý logic Quiz - Lấy câu hỏi và chấm điểm.
@@ -27,55 +46,214 @@ import java.util.stream.Collectors;
 @Slf4j
 public class QuizService {
 
+    private static final DateTimeFormatter HISTORY_DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
     private final QuestionRepository questionRepository;
+    private final QuestionOptionRepository questionOptionRepository;
     private final QuizHistoryRepository quizHistoryRepository;
     private final UserService userService;
     private final NotificationService notificationService;
+    private final QuestionPoolService questionPoolService;
+    private final AnswerKeyCache answerKeyCache;
+    private final AdaptiveSelectionService adaptiveSelectionService;
+    private final QuestionStatsService questionStatsService;
+    private final QuizStatsService quizStatsService;
+    private final ObjectMapper objectMapper;
 
     /**
-     * Lấy câu hỏi ngẫu nhiên cho quiz
+     * Lấy câu hỏi ngẫu nhiên cho quiz.
+     * ID được chọn từ {@link QuestionPoolService}, sau đó chỉ load đúng các câu hỏi đó:
+     * một query cho câu hỏi + topic, một query cho options.
      */
     public List<QuestionDTO> getRandomQuestions(UUID topicId, int limit) {
-        List<Question> questions;
+        List<UUID> ids = questionPoolService.sample(topicId, limit);
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
 
-        if (topicId != null) {
-            questions = questionRepository.findRandomQuestionsByTopic(topicId, limit);
-        } else {
-            questions = questionRepository.findRandomQuestions(limit);
+        List<Question> questions = loadInOrder(ids);
+        if (questions.size() < ids.size()) {
+            // Pool đang lệch với DB (VD: topic vừa bị xóa) -> load lại và chọn lại
+            log.warn("Question pool is stale ({} of {} ids found), refreshing", questions.size(), ids.size());
+            questionPoolService.refresh();
+            questions = loadInOrder(questionPoolService.sample(topicId, limit));
         }
 
-        return questions.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return assemble(questions, questionOptionRepository::findQuizRowsByQuestionIdIn, true);
+    }
+
+    /**
+     * Lấy câu hỏi adaptive - ưu tiên topic/độ khó mà user hay làm sai
+     */
+    public List<QuestionDTO> getAdaptiveQuestions(UUID topicId, int limit) {
+        List<UUID> ids = adaptiveSelectionService.selectQuestionIds(userService.getCurrentUserId(), topicId, limit);
+        return getQuestionsByIds(ids);
+    }
+
+    /**
+     * Lấy câu hỏi theo danh sách ID, giữ nguyên thứ tự (dùng cho mock exam)
+     */
+    public List<QuestionDTO> getQuestionsByIds(List<UUID> ids) {
+        return assemble(loadInOrder(ids), questionOptionRepository::findQuizRowsByQuestionIdIn, true);
+    }
+
+    /**
+     * Load câu hỏi (kèm topic) theo ID và giữ nguyên thứ tự ngẫu nhiên đã chọn
+     */
+    private List<Question> loadInOrder(List<UUID> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<UUID, Question> byId = questionRepository.findAllWithTopicByIdIn(ids).stream()
+                .collect(Collectors.toMap(Question::getId, q -> q));
+
+        List<Question> ordered = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            Question question = byId.get(id);
+            if (question != null) {
+                ordered.add(question);
+            }
+        }
+        return ordered;
     }
 
     /**
      * Lấy tất cả câu hỏi theo topic
      */
     public List<QuestionDTO> getQuestionsByTopic(UUID topicId) {
-        List<Question> questions = questionRepository.findByTopicIdWithOptions(topicId);
-        return questions.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        List<Question> questions = questionRepository.findAllWithTopicByTopicId(topicId);
+        return assemble(questions, ids -> questionOptionRepository.findQuizRowsByTopicId(topicId), true);
     }
 
     /**
-     * Convert Question entity to DTO
+     * Ghi toàn bộ câu hỏi của topic ra {@code out} dưới dạng JSON array ngay trong lúc
+     * đọc từ DB (cursor + Jackson streaming), nên bộ nhớ không tăng theo số câu hỏi.
+     * Các dòng (câu hỏi x option) về theo thứ tự question_id, nên chỉ cần giữ một
+     * câu hỏi đang dựng dở. Đáp án không được ghi vào {@link AnswerKeyCache}: toàn bộ
+     * ngân hàng câu hỏi sẽ đẩy các câu đang được làm quiz ra khỏi cache.
      */
-    private QuestionDTO convertToDTO(Question question) {
-        List<QuestionDTO.OptionDTO> optionDTOs = new ArrayList<>();
+    @Transactional(readOnly = true)
+    public void streamQuestionsByTopic(UUID topicId, OutputStream out) throws IOException {
+        try (Stream<Object[]> rows = questionRepository.streamQuizRowsByTopicId(topicId);
+                JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            // Tự flush theo lô thay vì sau mỗi câu hỏi
+            ObjectWriter writer = objectMapper.writerFor(QuestionDTO.class)
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+            generator.writeStartArray();
 
-        if (question.getOptions() != null) {
-            int idx = 0;
-            for (QuestionOption option : question.getOptions()) {
-                optionDTOs.add(QuestionDTO.OptionDTO.builder()
-                        .id(option.getId())
-                        .optionKey(String.valueOf((char) ('A' + idx)))
-                        .content(option.getContent())
-                        .isCorrect(option.getIsCorrect())
-                        .build());
-                idx++;
+            QuestionDTO current = null;
+            int written = 0;
+            for (Object[] row : (Iterable<Object[]>) rows::iterator) {
+                UUID questionId = (UUID) row[0];
+                if (current == null || !current.getId().equals(questionId)) {
+                    if (current != null) {
+                        writer.writeValue(generator, current);
+                        if (++written % 100 == 0) {
+                            generator.flush();
+                        }
+                    }
+                    current = QuestionDTO.builder()
+                            .id(questionId)
+                            .content((String) row[1])
+                            .codeSnippet((String) row[2])
+                            .questionType((Question.QuestionType) row[3])
+                            .difficulty((Integer) row[4])
+                            .topicId((UUID) row[5])
+                            .topicName((String) row[6])
+                            .options(new ArrayList<>())
+                            .build();
+                }
+                if (row[7] != null) {
+                    current.getOptions().add(QuestionDTO.OptionDTO.builder()
+                            .id((UUID) row[7])
+                            .optionKey(String.valueOf((char) ('A' + current.getOptions().size())))
+                            .content((String) row[8])
+                            .build());
+                }
             }
+            if (current != null) {
+                writer.writeValue(generator, current);
+            }
+
+            generator.writeEndArray();
+        }
+    }
+
+    /**
+     * Lấy một trang câu hỏi của topic theo keyset (thứ tự id)
+     *
+     * @param cursor ID câu hỏi cuối của trang trước, null cho trang đầu
+     */
+    public CursorPageDTO<QuestionDTO> getQuestionsByTopicPage(UUID topicId, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, 200));
+        // Lấy thêm 1 câu để biết còn trang sau không
+        Limit limit = Limit.of(pageSize + 1);
+        List<Question> questions = cursor == null || cursor.isBlank()
+                ? questionRepository.findPageByTopicId(topicId, limit)
+                : questionRepository.findPageByTopicIdAfter(topicId, UUID.fromString(cursor), limit);
+
+        boolean hasMore = questions.size() > pageSize;
+        if (hasMore) {
+            questions = questions.subList(0, pageSize);
+        }
+
+        return CursorPageDTO.<QuestionDTO>builder()
+                .items(assemble(questions, questionOptionRepository::findQuizRowsByQuestionIdIn, false))
+                .nextCursor(hasMore ? questions.get(questions.size() - 1).getId().toString() : null)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    /**
+     * Dựng DTO cho danh sách câu hỏi đã load kèm topic: options của tất cả câu hỏi
+     * được lấy bằng đúng một query, nên số query không phụ thuộc số câu hỏi
+     * (không chạm vào {@code question.getOptions()} lazy).
+     *
+     * @param optionLoader nhận danh sách ID câu hỏi, trả về các dòng
+     *                     (question_id, option_id, content, is_correct) sắp theo option_key
+     * @param cacheAnswers ghi đáp án vào {@link AnswerKeyCache} (chỉ khi câu hỏi được phát ra để làm quiz)
+     */
+    private List<QuestionDTO> assemble(List<Question> questions,
+            Function<List<UUID>, List<Object[]>> optionLoader, boolean cacheAnswers) {
+        if (questions.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<UUID> ids = questions.stream().map(Question::getId).collect(Collectors.toList());
+
+        Map<UUID, List<Object[]>> optionsByQuestion = new HashMap<>();
+        for (Object[] row : optionLoader.apply(ids)) {
+            optionsByQuestion.computeIfAbsent((UUID) row[0], k -> new ArrayList<>()).add(row);
+        }
+
+        List<QuestionDTO> result = new ArrayList<>(questions.size());
+        for (Question question : questions) {
+            result.add(convertToDTO(question, optionsByQuestion.getOrDefault(question.getId(), List.of()),
+                    cacheAnswers));
+        }
+        return result;
+    }
+
+    /**
+     * Convert Question entity to DTO.
+     * Không gửi đáp án đúng và giải thích cho client - đáp án được ghi vào
+     * {@link AnswerKeyCache} để chấm điểm qua {@link #gradeQuiz(QuizSessionStore.Session)}.
+     */
+    private QuestionDTO convertToDTO(Question question, List<Object[]> optionRows, boolean cacheAnswers) {
+        List<QuestionDTO.OptionDTO> optionDTOs = new ArrayList<>(optionRows.size());
+        List<Boolean> correctFlags = new ArrayList<>(optionRows.size());
+
+        int idx = 0;
+        for (Object[] row : optionRows) {
+            optionDTOs.add(QuestionDTO.OptionDTO.builder()
+                    .id((UUID) row[1])
+                    .optionKey(String.valueOf((char) ('A' + idx)))
+                    .content((String) row[2])
+                    .build());
+            correctFlags.add((Boolean) row[3]);
+            idx++;
+        }
+        if (cacheAnswers) {
+            answerKeyCache.put(question.getId(), correctFlags);
         }
 
         return QuestionDTO.builder()
@@ -86,15 +264,92 @@ public class QuizService {
                 .codeSnippet(question.getCodeSnippet())
                 .questionType(question.getQuestionType())
                 .options(optionDTOs)
-                .explanation(question.getExplanation())
                 .difficulty(question.getDifficulty())
                 .build();
     }
 
     /**
-     * Lưu kết quả quiz vào lịch sử
+     * Chấm điểm phiên quiz phía server và lưu vào lịch sử.
+     * Chỉ các câu hỏi server đã phát cho phiên được chấm, và điểm tính trên toàn bộ số câu
+     * đó (câu chưa trả lời tính là sai), nên client không thể tự chọn câu hỏi hay mẫu số.
+     * Đáp án lấy từ {@link AnswerKeyCache} (không đọc DB nếu câu hỏi vừa được phát ra),
+     * chỉ tốn một query để lấy giải thích và một insert quiz_history. Kết quả từng câu
+     * cũng cập nhật trọng số cho chế độ adaptive và thống kê câu hỏi (đều ghi DB theo
+     * chu kỳ, không ghi trong request).
      */
-    public QuizHistory saveQuizResult(QuizSubmissionDTO submission) {
+    @Transactional
+    public QuizResultDTO gradeQuiz(QuizSessionStore.Session session) {
+        List<UUID> questionIds = session.getQuestionIds();
+
+        Map<UUID, Short> answerKeys = answerKeyCache.getAll(questionIds);
+        Map<UUID, Object[]> gradingInfo = new HashMap<>(); // id -> (id, explanation, topicId, difficulty)
+        for (Object[] row : questionRepository.findGradingInfoByIdIn(answerKeys.keySet())) {
+            gradingInfo.put((UUID) row[0], row);
+        }
+
+        List<QuizResultDTO.QuestionResultDTO> results = new ArrayList<>();
+        List<AdaptiveSelectionService.Outcome> outcomes = new ArrayList<>();
+        int correct = 0;
+
+        for (UUID questionId : questionIds) {
+            Short key = answerKeys.get(questionId);
+            if (key == null) {
+                continue; // Câu hỏi đã bị xóa sau khi phát
+            }
+            QuizSessionStore.Answer answer = session.getAnswers().get(questionId);
+            List<String> selectedOptions = answer != null ? answer.selectedOptions() : List.of();
+
+        int correctMask = AnswerKeyCache.correctMask(key);
+            int selectedMask = AnswerKeyCache.toMask(selectedOptions);
+            boolean isCorrect = correctMask != 0 && selectedMask == correctMask;
+            if (isCorrect) {
+                correct++;
+            }
+            questionStatsService.record(questionId, selectedMask, isCorrect,
+                    answer != null ? answer.timeSpent() : null);
+
+            Object[] info = gradingInfo.get(questionId);
+            if (info != null) {
+                outcomes.add(new AdaptiveSelectionService.Outcome((UUID) info[2], (Integer) info[3], isCorrect));
+            }
+
+            results.add(QuizResultDTO.QuestionResultDTO.builder()
+                    .questionId(questionId)
+                    .selectedOptions(selectedOptions)
+                    .correctOptions(AnswerKeyCache.toKeys(correctMask))
+                    .isCorrect(isCorrect)
+                    .explanation(info != null ? (String) info[1] : null)
+                    .build());
+        }
+
+        int total = questionIds.size();
+        int scorePercentage = total > 0 ? Math.round(correct * 100f / total) : 0;
+
+        QuizHistory saved = saveQuizResult(QuizSubmissionDTO.builder()
+                .quizType(session.getQuizType())
+                .topicId(session.getTopicId())
+                .topicName(session.getTopicName())
+                .totalQuestions(total)
+                .correctAnswers(correct)
+                .scorePercentage(scorePercentage)
+                .timeSpent((int) ((System.currentTimeMillis() - session.getStartedAt()) / 1000))
+                .build());
+
+        adaptiveSelectionService.recordResults(saved.getUser().getId(), outcomes);
+
+        return QuizResultDTO.builder()
+                .historyId(saved.getId())
+                .score(correct)
+                .totalQuestions(total)
+                .percentage(total > 0 ? Math.round(correct * 1000.0 / total) / 10.0 : 0.0)
+                .results(results)
+                .build();
+    }
+
+    /**
+     * Lưu kết quả quiz vào lịch sử và cập nhật tổng hợp quiz của user
+     */
+    private QuizHistory saveQuizResult(QuizSubmissionDTO submission) {
         QuizHistory history = QuizHistory.builder()
                 .user(userService.getCurrentUser())
                 .quizType(submission.getQuizType())
@@ -107,6 +362,7 @@ public class QuizService {
                 .build();
 
         QuizHistory saved = quizHistoryRepository.save(history);
+        quizStatsService.record(saved.getUser().getId(), saved);
 
         // Tạo achievement notification nếu điểm >= 80%
         if (submission.getScorePercentage() >= 80) {
@@ -157,7 +413,100 @@ public class QuizService {
     /**
      * Lấy 10 lịch sử gần nhất của user
      */
-    public List<QuizHistory> getQuizHistory() {
-        return quizHistoryRepository.findTop10ByUserOrderByCompletedAtDesc(userService.getCurrentUser());
+    public List<QuizHistoryDTO> getQuizHistory() {
+        return getQuizHistoryPage(null, 10).getItems();
+    }
+
+    /**
+     * Lấy một trang lịch sử quiz theo keyset (completed_at, id), mới nhất trước.
+     * Mỗi trang chỉ đọc đúng số dòng cần qua index (user_id, completed_at, id).
+     *
+     * @param cursor nextCursor của trang trước ("completedAt_id"), null cho trang đầu
+     */
+    public CursorPageDTO<QuizHistoryDTO> getQuizHistoryPage(String cursor, int size) {
+        UUID userId = userService.getCurrentUserId();
+        int pageSize = Math.max(1, Math.min(size, 100));
+
+        List<QuizHistory> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = quizHistoryRepository.findFirstPage(userId, pageSize + 1);
+        } else {
+            int separator = cursor.lastIndexOf('_');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Cursor không hợp lệ: " + cursor);
+            }
+            rows = quizHistoryRepository.findPageAfter(userId,
+                    LocalDateTime.parse(cursor.substring(0, separator)),
+                    UUID.fromString(cursor.substring(separator + 1)),
+                    pageSize + 1);
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
+        }
+        QuizHistory last = rows.isEmpty() ? null : rows.get(rows.size() - 1);
+
+        return CursorPageDTO.<QuizHistoryDTO>builder()
+                .items(rows.stream().map(this::toHistoryDTO).collect(Collectors.toList()))
+                .nextCursor(hasMore ? last.getCompletedAt() + "_" + last.getId() : null)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    /**
+     * Điểm quiz tổng hợp theo ngày / tuần / tháng, tính bằng SQL
+     *
+     * @param granularity day, week hoặc month
+     */
+    public List<QuizScorePointDTO> getScoreSeries(String granularity, LocalDate from, LocalDate to) {
+        String unit = switch (granularity == null ? "day" : granularity.toLowerCase()) {
+            case "day", "daily" -> "day";
+            case "week", "weekly" -> "week";
+            case "month", "monthly" -> "month";
+            default -> throw new IllegalArgumentException("Granularity không hợp lệ: " + granularity);
+        };
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : switch (unit) {
+            case "day" -> end.minusDays(30);
+            case "week" -> end.minusWeeks(26);
+            default -> end.minusMonths(12);
+        };
+
+        return quizHistoryRepository.findScoreSeries(userService.getCurrentUserId(), unit,
+                start.atStartOfDay(), end.plusDays(1).atStartOfDay()).stream()
+                .map(row -> QuizScorePointDTO.builder()
+                        .period(row[0] instanceof java.sql.Date date ? date.toLocalDate() : (LocalDate) row[0])
+                        .quizzes(((Number) row[1]).longValue())
+                        .averageScore(Math.round(((Number) row[2]).doubleValue() * 10.0) / 10.0)
+                        .bestScore(((Number) row[3]).intValue())
+                        .worstScore(((Number) row[4]).intValue())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    private QuizHistoryDTO toHistoryDTO(QuizHistory history) {
+        return QuizHistoryDTO.builder()
+                .id(history.getId())
+                .type(formatQuizType(history.getQuizType(), history.getTopicName()))
+                .quizType(history.getQuizType())
+                .topicId(history.getTopicId())
+                .topicName(history.getTopicName())
+                .date(history.getCompletedAt().format(HISTORY_DATE_FORMAT))
+                .completedAt(history.getCompletedAt())
+                .score(history.getScorePercentage())
+                .correctAnswers(history.getCorrectAnswers())
+                .totalQuestions(history.getTotalQuestions())
+                .timeSpent(history.getTimeSpent())
+                .build();
+    }
+
+    private String formatQuizType(String type, String topicName) {
+        return switch (type) {
+            case "MOCK_EXAM" -> "Mock Exam";
+            case "QUICK_QUIZ" -> "Quick Quiz";
+            case "TOPIC_QUIZ" -> "Topic: " + (topicName != null ? topicName : "Unknown");
+            default -> type;
+        };
     }
 }
@@ -0,0 +1,153 @@
+package com.ocp.study.service;
+
+import com.ocp.study.dto.QuestionDTO;
+import com.ocp.study.dto.QuizResultDTO;
+import com.ocp.study.dto.QuizSessionDTO;
+import com.ocp.study.dto.QuizSessionStartDTO;
+import com.ocp.study.dto.QuizSubmitDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Service xử lý phiên quiz giữ trên server: bắt đầu, trả lời từng câu, kết thúc.
+ * Trong lúc làm bài mọi thao tác chỉ chạm {@link QuizSessionStore}; DB chỉ được
+ * ghi một lần khi kết thúc (chấm điểm qua {@link QuizService#gradeQuiz(QuizSessionStore.Session)}).
+ * Chỉ các câu hỏi đã phát cho phiên được chấm, mỗi phiên chỉ được chấm một lần.
+ *
+ * @author OCP Study Team
+ * @since 1.0.0
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class QuizSessionService {
+
+    private static final int MAX_QUESTIONS = 200;
+
+    private final QuizSessionStore sessionStore;
+    private final QuizService quizService;
+    private final UserService userService;
+
+    /**
+     * Bắt đầu phiên mới: chọn câu hỏi và trả về kèm ID phiên
+     */
+    public QuizSessionDTO start(QuizSessionStartDTO request) {
+        UUID userId = userService.getCurrentUserId();
+        int limit = Math.max(1, Math.min(request.getLimit() != null ? request.getLimit() : 10, MAX_QUESTIONS));
+
+        List<QuestionDTO> questions;
+        if (request.getQuestionIds() != null && !request.getQuestionIds().isEmpty()) {
+            questions = quizService.getQuestionsByIds(request.getQuestionIds().stream()
+                    .distinct()
+                    .limit(MAX_QUESTIONS)
+                    .collect(Collectors.toList()));
+        } else if ("adaptive".equalsIgnoreCase(request.getMode())) {
+            questions = quizService.getAdaptiveQuestions(request.getTopicId(), limit);
+        } else {
+            questions = quizService.getRandomQuestions(request.getTopicId(), limit);
+        }
+
+        QuizSessionStore.Session session = new QuizSessionStore.Session(
+                userId,
+                request.getQuizType() != null ? request.getQuizType() : "QUICK_QUIZ",
+                request.getTopicId(),
+                request.getTopicName(),
+                questions.stream().map(QuestionDTO::getId).collect(Collectors.toList()));
+        sessionStore.put(session);
+
+        QuizSessionDTO dto = toDTO(session);
+        dto.setQuestions(questions);
+        return dto;
+    }
+
+    /**
+     * Trạng thái phiên của user hiện tại
+     */
+    public Optional<QuizSessionDTO> getSession(UUID sessionId) {
+        return findOwnSession(sessionId).map(this::toDTO);
+    }
+
+    /**
+     * Ghi câu trả lời (ghi đè nếu trả lời lại). Câu hỏi không thuộc phiên bị bỏ qua.
+     *
+     * @return empty nếu phiên không tồn tại, đã hết hạn hoặc không thuộc user hiện tại
+     */
+    public Optional<QuizSessionDTO> answer(UUID sessionId, List<QuizSubmitDTO.AnswerDTO> answers) {
+        return findOwnSession(sessionId).map(session -> {
+            record(session, answers);
+            return toDTO(session);
+        });
+    }
+
+    private static void record(QuizSessionStore.Session session, List<QuizSubmitDTO.AnswerDTO> answers) {
+        for (QuizSubmitDTO.AnswerDTO answer : answers) {
+            if (answer.getQuestionId() != null && session.hasQuestion(answer.getQuestionId())) {
+                session.getAnswers().put(answer.getQuestionId(), new QuizSessionStore.Answer(
+                        answer.getSelectedOptions() != null ? List.copyOf(answer.getSelectedOptions()) : List.of(),
+                        answer.getTimeSpent()));
+            }
+        }
+    }
+
+    /**
+     * Kết thúc phiên: chấm điểm, lưu lịch sử và xóa phiên khỏi bộ nhớ.
+     * Câu chưa trả lời được tính là bỏ qua.
+     */
+    public Optional<QuizResultDTO> finish(UUID sessionId) {
+        return findOwnSession(sessionId).flatMap(this::finish);
+    }
+
+    /**
+     * Ghi các câu trả lời rồi kết thúc phiên trong một request
+     */
+    public Optional<QuizResultDTO> submit(QuizSubmitDTO submit) {
+        return findOwnSession(submit.getSessionId()).flatMap(session -> {
+            record(session, submit.getAnswers());
+            return finish(session);
+        });
+    }
+
+    private Optional<QuizResultDTO> finish(QuizSessionStore.Session session) {
+        if (!session.markFinished()) {
+            return Optional.empty(); // Đã được kết thúc bởi request khác
+        }
+        try {
+            QuizResultDTO result = quizService.gradeQuiz(session);
+            sessionStore.remove(session.getId());
+            return Optional.of(result);
+        } catch (RuntimeException e) {
+            log.error("Failed to finish quiz session {}: {}", session.getId(), e.getMessage());
+            session.reopen();
+            throw e;
+        }
+    }
+
+    private Optional<QuizSessionStore.Session> findOwnSession(UUID sessionId) {
+        UUID userId = userService.getCurrentUserId();
+        return sessionStore.get(sessionId).filter(session -> session.getUserId().equals(userId));
+    }
+
+    private QuizSessionDTO toDTO(QuizSessionStore.Session session) {
+        return QuizSessionDTO.builder()
+                .sessionId(session.getId())
+                .quizType(session.getQuizType())
+                .totalQuestions(session.getQuestionIds().size())
+                .answeredCount(session.getAnswers().size())
+                .startedAt(toLocalDateTime(session.getStartedAt()))
+                .expiresAt(toLocalDateTime(sessionStore.expiresAt(session)))
+                .build();
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+}
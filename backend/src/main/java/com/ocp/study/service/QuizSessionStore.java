@@ -0,0 +1,195 @@
+package com.ocp.study.service;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Lưu các phiên quiz đang làm trong bộ nhớ.
+ * Chia thành nhiều stripe, mỗi stripe là một LinkedHashMap theo thứ tự truy cập có
+ * lock riêng, nên các phiên khác stripe không tranh chấp nhau. Phiên hết hạn sau
+ * {@code quiz.session.ttl-minutes} không hoạt động; khi stripe đầy thì bỏ phiên ít
+ * được dùng nhất.
+ *
+ * @author OCP Study Team
+ * @since 1.0.0
+ */
+@Service
+@Slf4j
+public class QuizSessionStore {
+
+    private final long ttlMillis;
+    private final int maxPerStripe;
+    private final Stripe[] stripes;
+
+    public QuizSessionStore(
+            @Value("${quiz.session.ttl-minutes:180}") long ttlMinutes,
+            @Value("${quiz.session.max-sessions:50000}") int maxSessions,
+            @Value("${quiz.session.stripes:16}") int stripeCount) {
+        this.ttlMillis = ttlMinutes * 60_000;
+        this.stripes = new Stripe[Math.max(1, stripeCount)];
+        this.maxPerStripe = Math.max(1, maxSessions / stripes.length);
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Một phiên quiz. Danh sách câu hỏi không đổi sau khi tạo, câu trả lời có thể
+     * được ghi đồng thời từ nhiều request.
+     */
+    @Getter
+    public static final class Session {
+        private final UUID id = UUID.randomUUID();
+        private final UUID userId;
+        private final String quizType;
+        private final UUID topicId;
+        private final String topicName;
+        private final List<UUID> questionIds;
+        @Getter(AccessLevel.NONE)
+        private final Set<UUID> questionIdSet;
+        private final Map<UUID, Answer> answers = new ConcurrentHashMap<>();
+        private final long startedAt = System.currentTimeMillis();
+        private volatile long lastAccessAt = startedAt;
+        @Getter(AccessLevel.NONE)
+        private final AtomicBoolean finished = new AtomicBoolean();
+
+        public Session(UUID userId, String quizType, UUID topicId, String topicName, List<UUID> questionIds) {
+            this.userId = userId;
+            this.quizType = quizType;
+            this.topicId = topicId;
+            this.topicName = topicName;
+            this.questionIds = List.copyOf(questionIds);
+            this.questionIdSet = Set.copyOf(questionIds);
+        }
+
+        public boolean hasQuestion(UUID questionId) {
+            return questionIdSet.contains(questionId);
+        }
+
+        /**
+         * Đánh dấu phiên đã kết thúc, chỉ trả về true cho lần gọi đầu tiên
+         */
+        public boolean markFinished() {
+            return finished.compareAndSet(false, true);
+        }
+
+        /**
+         * Cho phép kết thúc lại khi lần lưu trước bị lỗi
+         */
+        public void reopen() {
+            finished.set(false);
+        }
+    }
+
+    /**
+     * Câu trả lời của một câu hỏi trong phiên
+     *
+     * @param timeSpent seconds, null nếu client không gửi
+     */
+    public record Answer(List<String> selectedOptions, Integer timeSpent) {
+    }
+
+    public void put(Session session) {
+        Stripe stripe = stripeFor(session.getId());
+        stripe.lock.lock();
+        try {
+            stripe.sessions.put(session.getId(), session);
+            if (stripe.sessions.size() > maxPerStripe) {
+                Iterator<Session> eldest = stripe.sessions.values().iterator();
+                log.warn("Quiz session store full, evicting session {}", eldest.next().getId());
+                eldest.remove();
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Lấy phiên còn hạn và làm mới thời điểm truy cập
+     */
+    public Optional<Session> get(UUID sessionId) {
+        Stripe stripe = stripeFor(sessionId);
+        long now = System.currentTimeMillis();
+        stripe.lock.lock();
+        try {
+            Session session = stripe.sessions.get(sessionId); // Đưa lên cuối thứ tự truy cập
+            if (session == null) {
+                return Optional.empty();
+            }
+            if (now - session.lastAccessAt > ttlMillis) {
+                stripe.sessions.remove(sessionId);
+                return Optional.empty();
+            }
+            session.lastAccessAt = now;
+            return Optional.of(session);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    public void remove(UUID sessionId) {
+        Stripe stripe = stripeFor(sessionId);
+        stripe.lock.lock();
+        try {
+            stripe.sessions.remove(sessionId);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Thời điểm phiên hết hạn nếu không có thêm thao tác nào
+     */
+    public long expiresAt(Session session) {
+        return session.lastAccessAt + ttlMillis;
+    }
+
+    /**
+     * Dọn các phiên hết hạn. Map theo thứ tự truy cập nên chỉ cần duyệt từ đầu đến
+     * phiên đầu tiên còn hạn.
+     */
+    @Scheduled(fixedDelayString = "${quiz.session.sweep-interval-ms:60000}")
+    public void evictExpired() {
+        long expiredBefore = System.currentTimeMillis() - ttlMillis;
+        int evicted = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                Iterator<Session> it = stripe.sessions.values().iterator();
+                while (it.hasNext() && it.next().lastAccessAt < expiredBefore) {
+                    it.remove();
+                    evicted++;
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        if (evicted > 0) {
+            log.debug("Evicted {} expired quiz sessions", evicted);
+        }
+    }
+
+    private Stripe stripeFor(UUID sessionId) {
+        return stripes[Math.floorMod(sessionId.hashCode(), stripes.length)];
+    }
+
+    private static final class Stripe {
+        final ReentrantLock lock = new ReentrantLock();
+        final LinkedHashMap<UUID, Session> sessions = new LinkedHashMap<>(16, 0.75f, true);
+    }
+}
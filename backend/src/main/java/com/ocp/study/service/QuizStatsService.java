@@ -0,0 +1,262 @@
+package com.ocp.study.service;
+
+import com.ocp.study.dto.QuizStatsDTO;
+import com.ocp.study.entity.QuizHistory;
+import com.ocp.study.entity.UserQuizStats;
+import com.ocp.study.entity.UserTopicQuizStats;
+import com.ocp.study.repository.UserQuizStatsRepository;
+import com.ocp.study.repository.UserTopicQuizStatsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Tổng hợp kết quả quiz theo user (số quiz, tổng điểm, điểm cao nhất, điểm gần đây)
+ * và theo (user, topic) với trung bình trượt.
+ * Mỗi lần nộp bài chỉ tốn hai câu upsert trên một dòng, dashboard đọc đúng một dòng
+ * thay vì quét quiz_history.
+ *
+ * @author OCP Study Team
+ * @since 1.0.0
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class QuizStatsService {
+
+    /**
+     * Tính lại tổng hợp của một nhóm user từ quiz_history và ghi đè bằng một câu lệnh.
+     * 10 điểm gần nhất khớp với slice [1:10] trong {@link UserQuizStatsRepository#addResult}.
+     */
+    private static final String REBUILD_USER_SQL = """
+            INSERT INTO user_quiz_stats (user_id, quizzes_taken, score_sum, best_score, recent_scores, last_quiz_at,
+                updated_at)
+            SELECT user_id, COUNT(*), SUM(score_percentage), MAX(score_percentage),
+                   array_to_string((array_agg(score_percentage ORDER BY completed_at DESC, id DESC))[1:10], ','),
+                   MAX(completed_at), CURRENT_TIMESTAMP
+            FROM quiz_history
+            WHERE user_id = ANY(?)
+            GROUP BY user_id
+            ON CONFLICT (user_id) DO UPDATE
+            SET quizzes_taken = EXCLUDED.quizzes_taken, score_sum = EXCLUDED.score_sum,
+                best_score = EXCLUDED.best_score, recent_scores = EXCLUDED.recent_scores,
+                last_quiz_at = EXCLUDED.last_quiz_at, updated_at = EXCLUDED.updated_at
+            """;
+
+    /**
+     * Như trên cho từng (user, topic). Trung bình trượt EWMA viết dưới dạng tổng có trọng số:
+     * điểm thứ rn (theo thời gian, 1..n) có trọng số (rn = 1 ? 1 : alpha) * (1 - alpha)^(n - rn),
+     * đúng bằng kết quả áp dụng lần lượt rolling = alpha * score + (1 - alpha) * rolling.
+     * Tham số: alpha, ln(1 - alpha), id các user; số mũ bị chặn ở -700 để exp không underflow.
+     */
+    private static final String REBUILD_TOPIC_SQL = """
+            INSERT INTO user_topic_quiz_stats (user_id, topic_id, quizzes_taken, score_sum, best_score,
+                rolling_average, last_quiz_at, updated_at)
+            SELECT user_id, topic_id, COUNT(*), SUM(score_percentage), MAX(score_percentage),
+                   SUM(score_percentage * CASE WHEN rn = 1 THEN 1 ELSE ? END * exp(GREATEST(? * (n - rn), -700))),
+                   MAX(completed_at), CURRENT_TIMESTAMP
+            FROM (
+                SELECT user_id, topic_id, score_percentage, completed_at,
+                       ROW_NUMBER() OVER (PARTITION BY user_id, topic_id ORDER BY completed_at, id) AS rn,
+                       COUNT(*) OVER (PARTITION BY user_id, topic_id) AS n
+                FROM quiz_history
+                WHERE topic_id IS NOT NULL AND user_id = ANY(?)
+            ) h
+            GROUP BY user_id, topic_id
+            ON CONFLICT (user_id, topic_id) DO UPDATE
+            SET quizzes_taken = EXCLUDED.quizzes_taken, score_sum = EXCLUDED.score_sum,
+                best_score = EXCLUDED.best_score, rolling_average = EXCLUDED.rolling_average,
+                last_quiz_at = EXCLUDED.last_quiz_at, updated_at = EXCLUDED.updated_at
+            """;
+
+    private final UserQuizStatsRepository userQuizStatsRepository;
+    private final UserTopicQuizStatsRepository userTopicQuizStatsRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Hệ số EWMA cho trung bình trượt theo topic
+     */
+    @Value("${quiz.stats.rolling-alpha:0.3}")
+    private double rollingAlpha;
+
+    @Value("${quiz.stats.rebuild-chunk-size:500}")
+    private int rebuildChunkSize;
+
+    @Value("${quiz.stats.rebuild-threads:4}")
+    private int rebuildThreads;
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    /**
+     * Cộng một quiz vừa lưu vào tổng hợp. Phải chạy trong transaction của việc lưu
+     * quiz_history để hai bên luôn khớp nhau.
+     */
+    @Transactional
+    public void record(UUID userId, QuizHistory history) {
+        userQuizStatsRepository.addResult(userId, history.getScorePercentage(), history.getCompletedAt());
+        if (history.getTopicId() != null) {
+            userTopicQuizStatsRepository.addResult(userId, history.getTopicId(), history.getScorePercentage(),
+                    rollingAlpha, history.getCompletedAt());
+        }
+    }
+
+    /**
+     * Tổng hợp của user (một dòng), empty nếu user chưa làm quiz nào
+     */
+    @Transactional(readOnly = true)
+    public Optional<UserQuizStats> getUserStats(UUID userId) {
+        return userQuizStatsRepository.findById(userId);
+    }
+
+    /**
+     * Tổng hợp đầy đủ của user, gồm từng topic
+     */
+    @Transactional(readOnly = true)
+    public QuizStatsDTO getStats(UUID userId) {
+        Optional<UserQuizStats> stats = userQuizStatsRepository.findById(userId);
+        List<QuizStatsDTO.TopicStatsDTO> topics = userTopicQuizStatsRepository
+                .findByUserIdOrderByLastQuizAtDesc(userId).stream()
+                .map(this::toTopicDTO)
+                .collect(Collectors.toList());
+
+        return QuizStatsDTO.builder()
+                .quizzesTaken(stats.map(UserQuizStats::getQuizzesTaken).orElse(0))
+                .averageScore(stats.map(UserQuizStats::getAverageScore).orElse(0.0))
+                .bestScore(stats.map(UserQuizStats::getBestScore).orElse(0))
+                .recentScores(stats.map(s -> parseScores(s.getRecentScores())).orElse(List.of()))
+                .lastQuizAt(stats.map(UserQuizStats::getLastQuizAt).orElse(null))
+                .topics(topics)
+                .build();
+    }
+
+    /**
+     * Tính lại toàn bộ tổng hợp từ quiz_history. User được chia thành các khoảng (from, to]
+     * theo id, mỗi khoảng chạy trong một transaction ngắn riêng trên một thread của pool;
+     * mỗi bảng một câu INSERT ... SELECT ... ON CONFLICT DO UPDATE, không đưa dữ liệu về
+     * ứng dụng.
+     *
+     * @return số user đã tính lại, -1 nếu đang có một lần rebuild khác chạy
+     */
+    public int rebuildAll() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return -1;
+        }
+        long start = System.currentTimeMillis();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, rebuildThreads));
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            UUID from = null;
+            do {
+                UUID lower = from;
+                UUID upper = nextBoundary(from);
+                futures.add(executor.submit(() -> transactionTemplate.execute(status -> rebuildChunk(lower, upper))));
+                from = upper;
+            } while (from != null);
+
+            int rebuilt = 0;
+            for (Future<Integer> future : futures) {
+                rebuilt += future.get();
+            }
+            log.info("Rebuilt quiz stats for {} users in {} ms", rebuilt, System.currentTimeMillis() - start);
+            return rebuilt;
+        } catch (Exception e) {
+            throw new RuntimeException("Không thể rebuild quiz stats: " + e.getMessage(), e);
+        } finally {
+            executor.shutdown();
+            rebuilding.set(false);
+        }
+    }
+
+    /**
+     * id user cuối của khoảng bắt đầu sau from, null nếu khoảng chạy đến hết bảng
+     */
+    private UUID nextBoundary(UUID from) {
+        List<UUID> ids = from == null
+                ? jdbcTemplate.queryForList("SELECT id FROM users ORDER BY id OFFSET ? LIMIT 1",
+                        UUID.class, rebuildChunkSize - 1)
+                : jdbcTemplate.queryForList("SELECT id FROM users WHERE id > ? ORDER BY id OFFSET ? LIMIT 1",
+                        UUID.class, from, rebuildChunkSize - 1);
+        return ids.isEmpty() ? null : ids.get(0);
+    }
+
+    /**
+     * Tính lại tổng hợp của các user trong khoảng (from, to]. Dòng users của khoảng bị khóa
+     * FOR UPDATE trước khi tính: insert quiz_history giữ FOR KEY SHARE trên dòng users (khóa
+     * ngoại), nên quiz đang nộp dở của các user này được commit trước rồi mới được tính,
+     * còn quiz nộp sau phải chờ chunk commit rồi mới cộng thêm bằng {@link #record}. Khóa
+     * dòng users thay vì dòng tổng hợp vì user chưa có dòng tổng hợp thì không có gì để khóa.
+     * Chỉ các user trong khoảng bị chặn, và chỉ trong thời gian của một chunk.
+     *
+     * @return số user có lịch sử quiz trong khoảng
+     */
+    private int rebuildChunk(UUID from, UUID to) {
+        StringBuilder sql = new StringBuilder("SELECT id FROM users WHERE TRUE");
+        List<Object> args = new ArrayList<>();
+        if (from != null) {
+            sql.append(" AND id > ?");
+            args.add(from);
+        }
+        if (to != null) {
+            sql.append(" AND id <= ?");
+            args.add(to);
+        }
+        sql.append(" ORDER BY id FOR UPDATE");
+        List<UUID> userIds = jdbcTemplate.queryForList(sql.toString(), UUID.class, args.toArray());
+        if (userIds.isEmpty()) {
+            return 0;
+        }
+
+        int users = jdbcTemplate.update(con -> {
+            var ps = con.prepareStatement(REBUILD_USER_SQL);
+            ps.setArray(1, con.createArrayOf("uuid", userIds.toArray()));
+            return ps;
+        });
+        jdbcTemplate.update(con -> {
+            var ps = con.prepareStatement(REBUILD_TOPIC_SQL);
+            ps.setDouble(1, rollingAlpha);
+            ps.setDouble(2, Math.log(Math.max(1 - rollingAlpha, Double.MIN_NORMAL)));
+            ps.setArray(3, con.createArrayOf("uuid", userIds.toArray()));
+            return ps;
+        });
+        return users;
+    }
+
+    private QuizStatsDTO.TopicStatsDTO toTopicDTO(UserTopicQuizStats stats) {
+        return QuizStatsDTO.TopicStatsDTO.builder()
+                .topicId(stats.getTopicId())
+                .quizzesTaken(stats.getQuizzesTaken())
+                .averageScore(stats.getQuizzesTaken() > 0
+                        ? Math.round(stats.getScoreSum() * 10.0 / stats.getQuizzesTaken()) / 10.0
+                        : 0.0)
+                .rollingAverage(Math.round(stats.getRollingAverage() * 10.0) / 10.0)
+                .bestScore(stats.getBestScore())
+                .lastQuizAt(stats.getLastQuizAt())
+                .build();
+    }
+
+    static List<Integer> parseScores(String recentScores) {
+        if (recentScores == null || recentScores.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(recentScores.split(","))
+                .map(String::trim)
+                .map(Integer::valueOf)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,528 @@
+package com.ocp.study.service;
+
+import com.ocp.study.dto.RelatedContentDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Gợi ý flashcard và subtopic liên quan đến một câu hỏi (hiển thị khi học viên trả lời sai).
+ * Job nền dựng vector TF-IDF cho toàn bộ câu hỏi và flashcard, với mỗi câu hỏi lấy top-k
+ * flashcard có cosine cao nhất qua inverted index, rồi ghi vào bảng question_related
+ * (xem migration V12). Flashcard cùng topic với câu hỏi được cộng điểm; subtopic được suy
+ * ra từ subtopic của các flashcard liên quan. API chỉ đọc một dòng theo khóa chính.
+ * Câu hỏi chưa có kết quả tính sẵn thì trả về flashcard và subtopic cùng topic.
+ *
+ * @author OCP Study Team
+ * @since 1.0.0
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RelatedContentService {
+
+    /**
+     * Bỏ qua từ xuất hiện trong hơn tỉ lệ này của tài liệu (gần như stop word)
+     */
+    private static final double MAX_DF_RATIO = 0.5;
+
+    private static final float MIN_SCORE = 0.05f;
+    private static final float SAME_TOPIC_BOOST = 1.25f;
+
+    /**
+     * Số flashcard tốt nhất dùng để suy ra subtopic liên quan
+     */
+    private static final int SUBTOPIC_CANDIDATES = 30;
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO question_related (question_id, flashcard_ids, flashcard_scores, subtopic_ids,
+                subtopic_scores, computed_at)
+            VALUES (?, ?, ?, ?, ?, ?)
+            ON CONFLICT (question_id) DO UPDATE SET
+                flashcard_ids = EXCLUDED.flashcard_ids,
+                flashcard_scores = EXCLUDED.flashcard_scores,
+                subtopic_ids = EXCLUDED.subtopic_ids,
+                subtopic_scores = EXCLUDED.subtopic_scores,
+                computed_at = EXCLUDED.computed_at
+            """;
+
+    /**
+     * Flashcard và subtopic đã tính sẵn, giữ thứ tự trong mảng. Flashcard / subtopic đã
+     * bị xóa sau lần tính gần nhất tự rơi khỏi kết quả qua JOIN.
+     */
+    private static final String RELATED_SQL = """
+            SELECT 'flashcard' AS kind, u.ord, u.score, f.id, f.topic_id, f.subtopic_id,
+                   f.front, f.back, f.code_example, r.computed_at
+            FROM question_related r
+            CROSS JOIN LATERAL unnest(r.flashcard_ids, r.flashcard_scores) WITH ORDINALITY AS u(id, score, ord)
+            JOIN flashcards f ON f.id = u.id
+            WHERE r.question_id = ?
+            UNION ALL
+            SELECT 'subtopic' AS kind, u.ord, u.score, s.id, s.topic_id, NULL,
+                   s.name, NULL, NULL, r.computed_at
+            FROM question_related r
+            CROSS JOIN LATERAL unnest(r.subtopic_ids, r.subtopic_scores) WITH ORDINALITY AS u(id, score, ord)
+            JOIN subtopics s ON s.id = u.id
+            WHERE r.question_id = ?
+            ORDER BY 1, 2
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${quiz.related.top-k:10}")
+    private int topK;
+
+    @Value("${quiz.related.subtopic-top-k:3}")
+    private int subtopicTopK;
+
+    @Value("${quiz.related.rebuild-chunk-size:1000}")
+    private int rebuildChunkSize;
+
+    @Value("${quiz.related.rebuild-threads:4}")
+    private int rebuildThreads;
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    /**
+     * Flashcard và subtopic liên quan đến câu hỏi
+     *
+     * @return empty nếu câu hỏi không tồn tại
+     */
+    public Optional<RelatedContentDTO> getRelated(UUID questionId) {
+        List<RelatedContentDTO.RelatedFlashcardDTO> flashcards = new ArrayList<>();
+        List<RelatedContentDTO.RelatedSubtopicDTO> subtopics = new ArrayList<>();
+        LocalDateTime[] computedAt = new LocalDateTime[1];
+        jdbcTemplate.query(RELATED_SQL, rs -> {
+            computedAt[0] = rs.getTimestamp(10).toLocalDateTime();
+            if ("flashcard".equals(rs.getString(1))) {
+                flashcards.add(RelatedContentDTO.RelatedFlashcardDTO.builder()
+                        .id(rs.getObject(4, UUID.class))
+                        .topicId(rs.getObject(5, UUID.class))
+                        .subtopicId(rs.getObject(6, UUID.class))
+                        .front(rs.getString(7))
+                        .back(rs.getString(8))
+                        .codeExample(rs.getString(9))
+                        .score(rs.getFloat(3))
+                        .build());
+            } else {
+                subtopics.add(RelatedContentDTO.RelatedSubtopicDTO.builder()
+                        .id(rs.getObject(4, UUID.class))
+                        .topicId(rs.getObject(5, UUID.class))
+                        .name(rs.getString(7))
+                        .score(rs.getFloat(3))
+                        .build());
+            }
+        }, questionId, questionId);
+
+        if (!flashcards.isEmpty() || !subtopics.isEmpty()) {
+            return Optional.of(RelatedContentDTO.builder()
+                    .questionId(questionId)
+                    .flashcards(flashcards)
+                    .subtopics(subtopics)
+                    .computedAt(computedAt[0])
+                    .build());
+        }
+        return sameTopic(questionId);
+    }
+
+    /**
+     * Dự phòng khi chưa có kết quả tính sẵn: flashcard mới nhất và subtopic của topic câu hỏi
+     */
+    private Optional<RelatedContentDTO> sameTopic(UUID questionId) {
+        List<UUID> topic = jdbcTemplate.queryForList(
+                "SELECT topic_id FROM questions WHERE id = ?", UUID.class, questionId);
+        if (topic.isEmpty()) {
+            return Optional.empty();
+        }
+        UUID topicId = topic.get(0);
+        List<RelatedContentDTO.RelatedFlashcardDTO> flashcards = jdbcTemplate.query(
+                "SELECT id, topic_id, subtopic_id, front, back, code_example FROM flashcards"
+                        + " WHERE topic_id = ? ORDER BY created_at DESC, id LIMIT ?",
+                (rs, i) -> RelatedContentDTO.RelatedFlashcardDTO.builder()
+                        .id(rs.getObject(1, UUID.class))
+                        .topicId(rs.getObject(2, UUID.class))
+                        .subtopicId(rs.getObject(3, UUID.class))
+                        .front(rs.getString(4))
+                        .back(rs.getString(5))
+                        .codeExample(rs.getString(6))
+                        .build(),
+                topicId, topK);
+        List<RelatedContentDTO.RelatedSubtopicDTO> subtopics = jdbcTemplate.query(
+                "SELECT id, topic_id, name FROM subtopics WHERE topic_id = ? ORDER BY order_index LIMIT ?",
+                (rs, i) -> RelatedContentDTO.RelatedSubtopicDTO.builder()
+                        .id(rs.getObject(1, UUID.class))
+                        .topicId(rs.getObject(2, UUID.class))
+                        .name(rs.getString(3))
+                        .build(),
+                topicId, subtopicTopK);
+        return Optional.of(RelatedContentDTO.builder()
+                .questionId(questionId)
+                .flashcards(flashcards)
+                .subtopics(subtopics)
+                .build());
+    }
+
+    @Scheduled(cron = "${quiz.related.cron:0 30 3 * * ?}")
+    public void scheduledRebuild() {
+        if (rebuildAll() < 0) {
+            log.info("Related content rebuild already running, skipped");
+        }
+    }
+
+    /**
+     * Tính lại nội dung liên quan của mọi câu hỏi. Corpus được đọc và vector hóa một lần,
+     * câu hỏi chia thành từng nhóm, mỗi nhóm tính và ghi trong một transaction riêng
+     * trên một thread của pool.
+     *
+     * @return số câu hỏi đã tính, -1 nếu đang có một lần rebuild khác chạy
+     */
+    public int rebuildAll() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return -1;
+        }
+        long start = System.currentTimeMillis();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, rebuildThreads));
+        try {
+            Model model = loadCorpus().build();
+            Timestamp computedAt = Timestamp.valueOf(LocalDateTime.now());
+
+            List<Future<Integer>> futures = new ArrayList<>();
+            int total = model.questions.size();
+            for (int from = 0; from < total; from += rebuildChunkSize) {
+                int chunkFrom = from;
+                int chunkTo = Math.min(from + rebuildChunkSize, total);
+                futures.add(executor.submit(() -> transactionTemplate.execute(
+                        status -> writeChunk(model, chunkFrom, chunkTo, computedAt))));
+            }
+
+            int rebuilt = 0;
+            for (Future<Integer> future : futures) {
+                rebuilt += future.get();
+            }
+            log.info("Rebuilt related content for {} questions ({} flashcards, {} terms) in {} ms", rebuilt,
+                    model.flashcards.size(), model.idf.length, System.currentTimeMillis() - start);
+            return rebuilt;
+        } catch (Exception e) {
+            throw new RuntimeException("Không thể tính nội dung liên quan: " + e.getMessage(), e);
+        } finally {
+            executor.shutdown();
+            rebuilding.set(false);
+        }
+    }
+
+    private Corpus loadCorpus() {
+        Corpus corpus = new Corpus();
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "SELECT id, topic_id, content, code_snippet, explanation FROM questions");
+            ps.setFetchSize(1000);
+            return ps;
+        }, rs -> {
+            corpus.questions.add(corpus.document(rs.getObject(1, UUID.class), rs.getObject(2, UUID.class), null,
+                    rs.getString(3), rs.getString(4), rs.getString(5)));
+        });
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "SELECT id, topic_id, subtopic_id, front, back, code_example FROM flashcards");
+            ps.setFetchSize(1000);
+            return ps;
+        }, rs -> {
+            String front = rs.getString(4);
+            // Mặt trước là khái niệm chính của thẻ nên được tính hai lần
+            corpus.flashcards.add(corpus.document(rs.getObject(1, UUID.class), rs.getObject(2, UUID.class),
+                    rs.getObject(3, UUID.class), front, front, rs.getString(5), rs.getString(6)));
+        });
+        return corpus;
+    }
+
+    /**
+     * Tính top-k cho các câu hỏi [from, to) và ghi bằng một JDBC batch
+     */
+    private int writeChunk(Model model, int from, int to, Timestamp computedAt) {
+        float[] scores = new float[model.flashcards.size()];
+        int[] touched = new int[model.flashcards.size()];
+        List<Related> rows = new ArrayList<>(to - from);
+        for (int q = from; q < to; q++) {
+            rows.add(related(model, model.questions.get(q), scores, touched));
+        }
+
+        jdbcTemplate.batchUpdate(UPSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Related row = rows.get(i);
+                Connection con = ps.getConnection();
+                ps.setObject(1, row.questionId());
+                ps.setArray(2, con.createArrayOf("uuid", row.flashcardIds()));
+                ps.setArray(3, con.createArrayOf("float4", row.flashcardScores()));
+                ps.setArray(4, con.createArrayOf("uuid", row.subtopicIds()));
+                ps.setArray(5, con.createArrayOf("float4", row.subtopicScores()));
+                ps.setTimestamp(6, computedAt);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        });
+        return rows.size();
+    }
+
+    /**
+     * Cộng dồn tích vô hướng qua inverted index, chỉ chạm các flashcard có chung từ
+     * với câu hỏi. scores / touched là bộ đệm của thread, được trả về trạng thái 0.
+     */
+    private Related related(Model model, Document question, float[] scores, int[] touched) {
+        int touchedCount = 0;
+        for (int i = 0; i < question.terms.length; i++) {
+            float weight = question.weights[i];
+            int term = question.terms[i];
+            if (weight == 0) {
+                continue;
+            }
+            for (int p = model.postingStart[term]; p < model.postingStart[term + 1]; p++) {
+                int flashcard = model.postingDoc[p];
+                if (scores[flashcard] == 0) {
+                    touched[touchedCount++] = flashcard;
+                }
+                scores[flashcard] += weight * model.postingWeight[p];
+            }
+        }
+
+        int keep = Math.max(topK, SUBTOPIC_CANDIDATES);
+        PriorityQueue<Candidate> best = new PriorityQueue<>(keep + 1,
+                (a, b) -> Float.compare(a.score(), b.score()));
+        for (int i = 0; i < touchedCount; i++) {
+            int flashcard = touched[i];
+            float score = scores[flashcard];
+            scores[flashcard] = 0;
+            if (question.topicId != null && question.topicId.equals(model.flashcards.get(flashcard).topicId)) {
+                score = Math.min(1f, score * SAME_TOPIC_BOOST);
+            }
+            if (score < MIN_SCORE) {
+                continue;
+            }
+            best.add(new Candidate(flashcard, score));
+            if (best.size() > keep) {
+                best.poll();
+            }
+        }
+        List<Candidate> ranked = new ArrayList<>(best);
+        ranked.sort((a, b) -> Float.compare(b.score(), a.score()));
+
+        int flashcardCount = Math.min(topK, ranked.size());
+        UUID[] flashcardIds = new UUID[flashcardCount];
+        Float[] flashcardScores = new Float[flashcardCount];
+        for (int i = 0; i < flashcardCount; i++) {
+            flashcardIds[i] = model.flashcards.get(ranked.get(i).flashcard()).id;
+            flashcardScores[i] = ranked.get(i).score();
+        }
+
+        // Điểm subtopic = tổng điểm các flashcard liên quan thuộc subtopic đó
+        Map<UUID, Float> subtopicScores = new HashMap<>();
+        for (Candidate candidate : ranked) {
+            UUID subtopicId = model.flashcards.get(candidate.flashcard()).subtopicId;
+            if (subtopicId != null) {
+                subtopicScores.merge(subtopicId, candidate.score(), Float::sum);
+            }
+        }
+        List<Map.Entry<UUID, Float>> subtopics = new ArrayList<>(subtopicScores.entrySet());
+        subtopics.sort(Map.Entry.<UUID, Float>comparingByValue().reversed());
+        int subtopicCount = Math.min(subtopicTopK, subtopics.size());
+        UUID[] subtopicIds = new UUID[subtopicCount];
+        Float[] subtopicValues = new Float[subtopicCount];
+        for (int i = 0; i < subtopicCount; i++) {
+            subtopicIds[i] = subtopics.get(i).getKey();
+            subtopicValues[i] = subtopics.get(i).getValue();
+        }
+        return new Related(question.id, flashcardIds, flashcardScores, subtopicIds, subtopicValues);
+    }
+
+    /**
+     * Tách từ: chữ thường, bỏ dấu, các dãy chữ / số dài từ 2 ký tự (bỏ số thuần)
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        String normalized = AutocompleteService.normalize(text);
+        int start = -1;
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean word = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+            if (word && start < 0) {
+                start = i;
+            } else if (!word && start >= 0) {
+                if (i - start >= 2 && !isNumber(normalized, start, i)) {
+                    tokens.add(normalized.substring(start, i));
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private static boolean isNumber(String value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (!Character.isDigit(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Từ điển và document frequency, dựng dần khi đọc corpus
+     */
+    private static final class Corpus {
+        final Map<String, Integer> termIds = new HashMap<>();
+        final List<Document> questions = new ArrayList<>();
+        final List<Document> flashcards = new ArrayList<>();
+        int[] documentFrequency = new int[1024];
+
+        Document document(UUID id, UUID topicId, UUID subtopicId, String... texts) {
+            int[] tokens = new int[64];
+            int count = 0;
+            for (String text : texts) {
+                for (String token : tokenize(text)) {
+                    if (count == tokens.length) {
+                        tokens = Arrays.copyOf(tokens, count * 2);
+                    }
+                    tokens[count++] = termIds.computeIfAbsent(token, t -> termIds.size());
+                }
+            }
+            Arrays.sort(tokens, 0, count);
+
+            int distinct = 0;
+            for (int i = 0; i < count; i++) {
+                if (i == 0 || tokens[i] != tokens[i - 1]) {
+                    distinct++;
+                }
+            }
+            int[] terms = new int[distinct];
+            float[] frequencies = new float[distinct];
+            for (int i = 0, d = -1; i < count; i++) {
+                if (i == 0 || tokens[i] != tokens[i - 1]) {
+                    terms[++d] = tokens[i];
+                }
+                frequencies[d]++;
+            }
+            if (termIds.size() > documentFrequency.length) {
+                documentFrequency = Arrays.copyOf(documentFrequency, Math.max(termIds.size(),
+                        documentFrequency.length * 2));
+            }
+            for (int term : terms) {
+                documentFrequency[term]++;
+            }
+            return new Document(id, topicId, subtopicId, terms, frequencies);
+        }
+
+        /**
+         * Đổi tần suất thành trọng số TF-IDF chuẩn hóa và dựng inverted index của flashcard
+         */
+        Model build() {
+            int documents = questions.size() + flashcards.size();
+            int maxDf = (int) Math.max(2, documents * MAX_DF_RATIO);
+            float[] idf = new float[termIds.size()];
+            for (int term = 0; term < idf.length; term++) {
+                int df = documentFrequency[term];
+                idf[term] = df > maxDf ? 0 : (float) (Math.log((documents + 1.0) / (df + 1.0)) + 1);
+            }
+            questions.forEach(document -> document.weigh(idf));
+            flashcards.forEach(document -> document.weigh(idf));
+
+            int[] postingStart = new int[idf.length + 1];
+            for (Document flashcard : flashcards) {
+                for (int i = 0; i < flashcard.terms.length; i++) {
+                    if (flashcard.weights[i] > 0) {
+                        postingStart[flashcard.terms[i] + 1]++;
+                    }
+                }
+            }
+            for (int term = 0; term < idf.length; term++) {
+                postingStart[term + 1] += postingStart[term];
+            }
+            int[] next = Arrays.copyOf(postingStart, idf.length);
+            int[] postingDoc = new int[postingStart[idf.length]];
+            float[] postingWeight = new float[postingDoc.length];
+            for (int f = 0; f < flashcards.size(); f++) {
+                Document flashcard = flashcards.get(f);
+                for (int i = 0; i < flashcard.terms.length; i++) {
+                    if (flashcard.weights[i] > 0) {
+                        int p = next[flashcard.terms[i]]++;
+                        postingDoc[p] = f;
+                        postingWeight[p] = flashcard.weights[i];
+                    }
+                }
+            }
+            return new Model(questions, flashcards, idf, postingStart, postingDoc, postingWeight);
+        }
+    }
+
+    /**
+     * Một câu hỏi hoặc flashcard: từ (đã sắp xếp) và tần suất, sau build() là trọng số
+     */
+    private static final class Document {
+        final UUID id;
+        final UUID topicId;
+        final UUID subtopicId;
+        final int[] terms;
+        final float[] weights;
+
+        Document(UUID id, UUID topicId, UUID subtopicId, int[] terms, float[] frequencies) {
+            this.id = id;
+            this.topicId = topicId;
+            this.subtopicId = subtopicId;
+            this.terms = terms;
+            this.weights = frequencies;
+        }
+
+        /**
+         * TF dạng 1 + ln(tf) nhân IDF, chuẩn hóa L2 để tích vô hướng là cosine
+         */
+        void weigh(float[] idf) {
+            double norm = 0;
+            for (int i = 0; i < terms.length; i++) {
+                weights[i] = (float) (1 + Math.log(weights[i])) * idf[terms[i]];
+                norm += weights[i] * weights[i];
+            }
+            if (norm > 0) {
+                float scale = (float) (1 / Math.sqrt(norm));
+                for (int i = 0; i < weights.length; i++) {
+                    weights[i] *= scale;
+                }
+            }
+        }
+    }
+
+    private record Model(List<Document> questions, List<Document> flashcards, float[] idf,
+            int[] postingStart, int[] postingDoc, float[] postingWeight) {
+    }
+
+    private record Candidate(int flashcard, float score) {
+    }
+
+    private record Related(UUID questionId, UUID[] flashcardIds, Float[] flashcardScores, UUID[] subtopicIds,
+            Float[] subtopicScores) {
+    }
+}
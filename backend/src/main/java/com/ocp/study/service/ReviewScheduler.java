@@ -0,0 +1,71 @@
+package com.ocp.study.service;
+
+import com.ocp.study.entity.FlashcardReview;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Thuật toán spaced repetition: tính lịch review tiếp theo của một thẻ từ state riêng
+ * của thuật toán lưu trên {@link FlashcardReview}. Mỗi implementation bất biến, tham số
+ * được truyền khi tạo; đổi thuật toán hoặc tham số là tạo scheduler mới.
+ *
+ * @author OCP Study Team
+ * @since 1.0.0
+ */
+public interface ReviewScheduler {
+
+    /**
+     * Tên thuật toán, lưu trong review_scheduler_config
+     */
+    String getName();
+
+    /**
+     * Tham số đang dùng (đầy đủ, kể cả giá trị mặc định)
+     */
+    Object getParameters();
+
+    /**
+     * Áp dụng một lần review: cập nhật repetitions, lapses, state của thuật toán và
+     * nextReview. Gọi trước khi lastReviewed được đặt thành now.
+     */
+    void review(FlashcardReview review, boolean correct, LocalDateTime now);
+
+    /**
+     * Tính lại nextReview tính từ lastReviewed theo tham số hiện tại, không coi là một
+     * lần review. State của thuật toán khác hoặc dữ liệu cũ được chuyển đổi nếu thiếu.
+     */
+    void reschedule(FlashcardReview review);
+
+    /**
+     * Khoảng cách hiện tại giữa lần review cuối và lần review tiếp theo (ngày)
+     */
+    static double currentIntervalDays(FlashcardReview review) {
+        if (review.getLastReviewed() == null || review.getNextReview() == null) {
+            return 0;
+        }
+        return Duration.between(review.getLastReviewed(), review.getNextReview()).toSeconds() / 86400.0;
+    }
+
+    static LocalDateTime plusDays(LocalDateTime time, double days) {
+        return time.plusSeconds(Math.round(days * 86400));
+    }
+
+    /**
+     * Quy đổi giữa ease SM-2 (1.3 - ~3.5) và difficulty FSRS (1 - 10) khi đổi thuật toán
+     */
+    static double easeFromDifficulty(double difficulty) {
+        return 2.5 - (difficulty - 5) * 0.24;
+    }
+
+    static double difficultyFromEase(double ease) {
+        return Math.max(1, Math.min(10, 5 - (ease - 2.5) / 0.24));
+    }
+
+    /**
+     * Difficulty FSRS ước lượng từ difficulty_level (0-5) của dữ liệu trước khi có scheduler
+     */
+    static double difficultyFromLevel(Integer level) {
+        return 1 + (level != null ? level : 3) * 1.8;
+    }
+}
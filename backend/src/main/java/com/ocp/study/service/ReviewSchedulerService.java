@@ -0,0 +1,313 @@
+package com.ocp.study.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ocp.study.dto.ReviewSchedulerConfigDTO;
+import com.ocp.study.entity.FlashcardReview;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Giữ thuật toán spaced repetition đang dùng ({@link ReviewScheduler}) và tham số của nó
+ * (bảng review_scheduler_config), áp dụng cho mỗi lần review flashcard.
+ * Khi admin đổi thuật toán hoặc tham số, next_review của mọi dòng flashcard_reviews được
+ * tính lại ở nền: bảng được chia theo khoảng id, mỗi khoảng đọc và ghi lại bằng một JDBC
+ * batch trong transaction ngắn của riêng nó trên một thread của pool, nên chỉ khóa vài
+ * nghìn dòng mỗi lúc. Dòng được user review trong lúc chạy (last_reviewed đã đổi) được bỏ qua.
+ *
+ * @author OCP Study Team
+ * @since 1.0.0
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReviewSchedulerService {
+
+    private static final String SELECT_CHUNK_SQL = """
+            SELECT id, repetitions, lapses, difficulty_level, ease_factor, stability, fsrs_difficulty,
+                   last_reviewed, next_review
+            FROM flashcard_reviews
+            WHERE last_reviewed IS NOT NULL
+            """;
+
+    private static final String UPDATE_SQL = """
+            UPDATE flashcard_reviews
+            SET repetitions = ?, ease_factor = ?, stability = ?, fsrs_difficulty = ?, next_review = ?
+            WHERE id = ? AND last_reviewed = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final DueQueueService dueQueueService;
+    private final DueCountService dueCountService;
+
+    @Value("${quiz.review-scheduler.reschedule-chunk-size:5000}")
+    private int rescheduleChunkSize;
+
+    @Value("${quiz.review-scheduler.reschedule-threads:4}")
+    private int rescheduleThreads;
+
+    private volatile ReviewScheduler active;
+    private volatile LocalDateTime updatedAt;
+    private volatile ReviewSchedulerConfigDTO.RescheduleResultDTO lastReschedule;
+
+    private final AtomicBoolean rescheduling = new AtomicBoolean();
+    private ExecutorService rescheduleExecutor;
+
+    @PostConstruct
+    void init() {
+        rescheduleExecutor = Executors.newSingleThreadExecutor();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        rescheduleExecutor.shutdownNow();
+    }
+
+    /**
+     * Áp dụng một lần review lên entity theo thuật toán đang dùng
+     */
+    public void review(FlashcardReview review, boolean correct) {
+        review(review, correct, LocalDateTime.now());
+    }
+
+    /**
+     * Áp dụng một lần review đã diễn ra lúc {@code now} (review offline gửi lên sau)
+     */
+    public void review(FlashcardReview review, boolean correct, LocalDateTime now) {
+        current().review(review, correct, now);
+        review.setReviewCount((review.getReviewCount() != null ? review.getReviewCount() : 0) + 1);
+        if (correct) {
+            review.setCorrectCount((review.getCorrectCount() != null ? review.getCorrectCount() : 0) + 1);
+        }
+        review.setLastReviewed(now);
+    }
+
+    public ReviewSchedulerConfigDTO getConfig() {
+        ReviewScheduler scheduler = current();
+        return ReviewSchedulerConfigDTO.builder()
+                .algorithm(scheduler.getName())
+                .parameters(objectMapper.convertValue(scheduler.getParameters(),
+                        new TypeReference<Map<String, Object>>() {
+                        }))
+                .updatedAt(updatedAt)
+                .rescheduling(rescheduling.get())
+                .lastReschedule(lastReschedule)
+                .build();
+    }
+
+    /**
+     * Lưu thuật toán / tham số mới và bắt đầu tính lại lịch review ở nền
+     *
+     * @return cấu hình mới, null nếu đang có một lần reschedule khác chạy
+     * @throws IllegalArgumentException nếu thuật toán hoặc tham số không hợp lệ
+     */
+    public ReviewSchedulerConfigDTO update(String algorithm, Map<String, Object> parameters) {
+        ReviewScheduler scheduler = create(algorithm, parameters);
+        if (!rescheduling.compareAndSet(false, true)) {
+            return null;
+        }
+        try {
+            jdbcTemplate.update("""
+                    INSERT INTO review_scheduler_config (id, algorithm, parameters, updated_at)
+                    VALUES (1, ?, ?, CURRENT_TIMESTAMP)
+                    ON CONFLICT (id) DO UPDATE SET algorithm = EXCLUDED.algorithm,
+                        parameters = EXCLUDED.parameters, updated_at = EXCLUDED.updated_at
+                    """, scheduler.getName(), objectMapper.writeValueAsString(scheduler.getParameters()));
+        } catch (JsonProcessingException | RuntimeException e) {
+            rescheduling.set(false);
+            throw new IllegalStateException("Không thể lưu cấu hình scheduler: " + e.getMessage(), e);
+        }
+        active = scheduler;
+        updatedAt = LocalDateTime.now();
+        log.info("Review scheduler switched to {}", scheduler.getName());
+        submitReschedule(scheduler);
+        return getConfig();
+    }
+
+    /**
+     * Tính lại lịch review theo cấu hình hiện tại ở nền
+     *
+     * @return false nếu đang có một lần reschedule khác chạy
+     */
+    public boolean reschedule() {
+        if (!rescheduling.compareAndSet(false, true)) {
+            return false;
+        }
+        submitReschedule(current());
+        return true;
+    }
+
+    private void submitReschedule(ReviewScheduler scheduler) {
+        rescheduleExecutor.submit(() -> {
+            try {
+                rescheduleAll(scheduler);
+            } catch (Exception e) {
+                log.error("Reschedule with {} failed", scheduler.getName(), e);
+            } finally {
+                rescheduling.set(false);
+            }
+        });
+    }
+
+    /**
+     * Chia bảng thành các khoảng (from, to] theo id và xử lý song song. Ranh giới được tìm
+     * bằng index khóa chính, không cần đọc trước toàn bộ id.
+     */
+    private void rescheduleAll(ReviewScheduler scheduler) throws Exception {
+        long start = System.currentTimeMillis();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, rescheduleThreads));
+        try {
+            List<Future<long[]>> futures = new ArrayList<>();
+            UUID from = null;
+            do {
+                UUID lower = from;
+                UUID upper = nextBoundary(from);
+                futures.add(executor.submit(() -> transactionTemplate.execute(
+                        status -> rescheduleChunk(scheduler, lower, upper))));
+                from = upper;
+            } while (from != null);
+
+            long rows = 0;
+            long updated = 0;
+            for (Future<long[]> future : futures) {
+                long[] result = future.get();
+                rows += result[0];
+                updated += result[1];
+            }
+            dueQueueService.clear();
+            dueCountService.clear();
+            long duration = System.currentTimeMillis() - start;
+            lastReschedule = ReviewSchedulerConfigDTO.RescheduleResultDTO.builder()
+                    .algorithm(scheduler.getName())
+                    .rows(rows)
+                    .updated(updated)
+                    .durationMs(duration)
+                    .finishedAt(LocalDateTime.now())
+                    .build();
+            log.info("Rescheduled {} flashcard reviews with {} ({} updated) in {} ms", rows, scheduler.getName(),
+                    updated, duration);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * id cuối của khoảng bắt đầu sau from, null nếu khoảng chạy đến hết bảng
+     */
+    private UUID nextBoundary(UUID from) {
+        List<UUID> ids = from == null
+                ? jdbcTemplate.queryForList("SELECT id FROM flashcard_reviews ORDER BY id OFFSET ? LIMIT 1",
+                        UUID.class, rescheduleChunkSize - 1)
+                : jdbcTemplate.queryForList(
+                        "SELECT id FROM flashcard_reviews WHERE id > ? ORDER BY id OFFSET ? LIMIT 1",
+                        UUID.class, from, rescheduleChunkSize - 1);
+        return ids.isEmpty() ? null : ids.get(0);
+    }
+
+    /**
+     * @return {số dòng đã tính, số dòng đã ghi}
+     */
+    private long[] rescheduleChunk(ReviewScheduler scheduler, UUID from, UUID to) {
+        StringBuilder sql = new StringBuilder(SELECT_CHUNK_SQL);
+        List<Object> args = new ArrayList<>();
+        if (from != null) {
+            sql.append(" AND id > ?");
+            args.add(from);
+        }
+        if (to != null) {
+            sql.append(" AND id <= ?");
+            args.add(to);
+        }
+
+        List<Object[]> updates = new ArrayList<>();
+        jdbcTemplate.query(sql.toString(), rs -> {
+            Timestamp lastReviewed = rs.getTimestamp(8);
+            Timestamp nextReview = rs.getTimestamp(9);
+            FlashcardReview review = FlashcardReview.builder()
+                    .repetitions(rs.getInt(2))
+                    .lapses(rs.getInt(3))
+                    .difficultyLevel(rs.getObject(4, Integer.class))
+                    .easeFactor(rs.getObject(5, Double.class))
+                    .stability(rs.getObject(6, Double.class))
+                    .fsrsDifficulty(rs.getObject(7, Double.class))
+                    .lastReviewed(lastReviewed.toLocalDateTime())
+                    .nextReview(nextReview != null ? nextReview.toLocalDateTime() : null)
+                    .build();
+            scheduler.reschedule(review);
+            updates.add(new Object[] { review.getRepetitions(), review.getEaseFactor(), review.getStability(),
+                    review.getFsrsDifficulty(), Timestamp.valueOf(review.getNextReview()),
+                    rs.getObject(1, UUID.class), lastReviewed });
+        }, args.toArray());
+
+        long updated = 0;
+        if (!updates.isEmpty()) {
+            for (int count : jdbcTemplate.batchUpdate(UPDATE_SQL, updates)) {
+                updated += count > 0 ? count : 0;
+            }
+        }
+        return new long[] { updates.size(), updated };
+    }
+
+    private ReviewScheduler current() {
+        ReviewScheduler scheduler = active;
+        if (scheduler != null) {
+            return scheduler;
+        }
+        synchronized (this) {
+            if (active == null) {
+                List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                        "SELECT algorithm, parameters, updated_at FROM review_scheduler_config WHERE id = 1");
+                if (rows.isEmpty()) {
+                    active = create(Sm2ReviewScheduler.NAME, null);
+                } else {
+                    Map<String, Object> row = rows.get(0);
+                    try {
+                        active = create((String) row.get("algorithm"), objectMapper.readValue(
+                                (String) row.get("parameters"), new TypeReference<Map<String, Object>>() {
+                                }));
+                    } catch (JsonProcessingException | IllegalArgumentException e) {
+                        log.warn("Invalid review scheduler config, using SM-2 defaults: {}", e.getMessage());
+                        active = create(Sm2ReviewScheduler.NAME, null);
+                    }
+                    updatedAt = ((Timestamp) row.get("updated_at")).toLocalDateTime();
+                }
+            }
+            return active;
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException nếu thuật toán hoặc tham số không hợp lệ
+     */
+    private ReviewScheduler create(String algorithm, Map<String, Object> parameters) {
+        Map<String, Object> values = parameters != null ? parameters : Map.of();
+        String name = algorithm == null ? "" : algorithm.trim().toUpperCase();
+        return switch (name) {
+            case Sm2ReviewScheduler.NAME -> new Sm2ReviewScheduler(
+                    objectMapper.convertValue(values, Sm2ReviewScheduler.Parameters.class));
+            case FsrsReviewScheduler.NAME -> new FsrsReviewScheduler(
+                    objectMapper.convertValue(values, FsrsReviewScheduler.Parameters.class));
+            default -> throw new IllegalArgumentException("Thuật toán không hợp lệ: " + algorithm);
+        };
+    }
+}
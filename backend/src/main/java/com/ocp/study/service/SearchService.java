@@ -0,0 +1,148 @@
+package com.ocp.study.service;
+
+import com.ocp.study.dto.CursorPageDTO;
+import com.ocp.study.dto.SearchResultDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Tìm kiếm toàn văn trên câu hỏi, flashcard, topic và subtopic bằng cột tsvector
+ * (GIN index, xem migration V11). Mỗi loại lấy tối đa một trang theo rank rồi gộp lại,
+ * ts_headline chỉ chạy trên các dòng của trang trả về.
+ * Cursor là (rank, type, id) của dòng cuối trang trước.
+ *
+ * @author OCP Study Team
+ * @since 1.0.0
+ */
+@Service
+@RequiredArgsConstructor
+public class SearchService {
+
+    public static final int MAX_PAGE_SIZE = 50;
+
+    /**
+     * type -> câu SELECT (type, id, topic_id, title, body, search_vector) của loại đó
+     */
+    private static final Map<String, String> SOURCES = new LinkedHashMap<>();
+
+    static {
+        SOURCES.put("question",
+                "SELECT 'question' AS type, id, topic_id, content AS title, code_snippet AS body, search_vector"
+                        + " FROM questions");
+        SOURCES.put("flashcard",
+                "SELECT 'flashcard' AS type, id, topic_id, front AS title, back AS body, search_vector"
+                        + " FROM flashcards");
+        SOURCES.put("topic",
+                "SELECT 'topic' AS type, id, id AS topic_id, name AS title, description AS body, search_vector"
+                        + " FROM topics");
+        SOURCES.put("subtopic",
+                "SELECT 'subtopic' AS type, id, topic_id, name AS title, description AS body, search_vector"
+                        + " FROM subtopics");
+    }
+
+    private static final String HEADLINE_OPTIONS =
+            "StartSel=<mark>, StopSel=</mark>, MaxWords=30, MinWords=10, MaxFragments=2, FragmentDelimiter=\" ... \"";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @param query  cú pháp websearch: từ khóa, "cụm từ", -loại trừ, or
+     * @param types  null hoặc rỗng để tìm tất cả các loại
+     * @param cursor nextCursor của trang trước, null cho trang đầu
+     * @throws IllegalArgumentException nếu query trống, type hoặc cursor không hợp lệ
+     */
+    public CursorPageDTO<SearchResultDTO> search(String query, Set<String> types, String cursor, int size) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Query trống");
+        }
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        List<String> selected = new ArrayList<>();
+        if (types == null || types.isEmpty()) {
+            selected.addAll(SOURCES.keySet());
+        } else {
+            for (String type : types) {
+                String key = type.trim().toLowerCase();
+                if (!SOURCES.containsKey(key)) {
+                    throw new IllegalArgumentException("Loại không hợp lệ: " + type);
+                }
+                if (!selected.contains(key)) {
+                    selected.add(key);
+                }
+            }
+        }
+
+        Float afterRank = null;
+        String afterType = null;
+        UUID afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts = cursor.split("_", 3);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Cursor không hợp lệ");
+            }
+            afterRank = Float.valueOf(parts[0]);
+            afterType = parts[1];
+            afterId = UUID.fromString(parts[2]);
+        }
+
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("WITH query AS (SELECT websearch_to_tsquery('simple', ?) AS q)\n")
+                .append("SELECT p.type, p.id, p.topic_id, left(p.title, 200), ")
+                .append("ts_headline('simple', html_escape(coalesce(p.title, '') || ' ' || coalesce(p.body, '')), ")
+                .append("query.q, '").append(HEADLINE_OPTIONS).append("'), p.rank\nFROM (\n");
+        args.add(query);
+        for (int i = 0; i < selected.size(); i++) {
+            if (i > 0) {
+                sql.append("  UNION ALL\n");
+            }
+            // Mỗi nhánh tự lọc theo cursor và giới hạn, để chỉ xếp hạng các dòng khớp
+            sql.append("  (SELECT * FROM (SELECT s.type, s.id, s.topic_id, s.title, s.body, ")
+                    .append("ts_rank_cd(s.search_vector, query.q) AS rank FROM (")
+                    .append(SOURCES.get(selected.get(i)))
+                    .append(") s, query WHERE s.search_vector @@ query.q) b");
+            if (afterRank != null) {
+                sql.append(" WHERE b.rank < ? OR (b.rank = ? AND (b.type > ? OR (b.type = ? AND b.id > ?)))");
+                args.add(afterRank);
+                args.add(afterRank);
+                args.add(afterType);
+                args.add(afterType);
+                args.add(afterId);
+            }
+            sql.append(" ORDER BY b.rank DESC, b.id LIMIT ?)\n");
+            args.add(limit + 1);
+        }
+        sql.append(") p, query\nORDER BY p.rank DESC, p.type, p.id\nLIMIT ?");
+        args.add(limit + 1);
+
+        List<SearchResultDTO> items = jdbcTemplate.query(sql.toString(), (rs, i) -> SearchResultDTO.builder()
+                .type(rs.getString(1))
+                .id(rs.getObject(2, UUID.class))
+                .topicId(rs.getObject(3, UUID.class))
+                .title(rs.getString(4))
+                .highlight(rs.getString(5))
+                .rank(rs.getFloat(6))
+                .build(), args.toArray());
+
+        boolean hasMore = items.size() > limit;
+        if (hasMore) {
+            items = items.subList(0, limit);
+        }
+        String nextCursor = null;
+        if (hasMore) {
+            SearchResultDTO last = items.get(items.size() - 1);
+            nextCursor = last.getRank() + "_" + last.getType() + "_" + last.getId();
+        }
+        return CursorPageDTO.<SearchResultDTO>builder()
+                .items(new ArrayList<>(items))
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+}
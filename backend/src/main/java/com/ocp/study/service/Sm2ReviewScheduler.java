@@ -0,0 +1,116 @@
+package com.ocp.study.service;
+
+import com.ocp.study.entity.FlashcardReview;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * SM-2 (SuperMemo 2): ease factor thay đổi theo chất lượng câu trả lời, interval là
+ * firstInterval, secondInterval rồi nhân ease sau mỗi lần đúng. Câu trả lời chỉ có
+ * đúng / sai nên được quy về quality 0-5 bằng tham số. Interval tính dạng đóng từ
+ * (repetitions, ease) để review trực tiếp và reschedule hàng loạt cho cùng kết quả.
+ *
+ * @author OCP Study Team
+ * @since 1.0.0
+ */
+public class Sm2ReviewScheduler implements ReviewScheduler {
+
+    public static final String NAME = "SM2";
+
+    @Data
+    public static class Parameters {
+        private double initialEase = 2.5;
+        private double minEase = 1.3;
+        private double firstIntervalDays = 1;
+        private double secondIntervalDays = 6;
+        private double maxIntervalDays = 365;
+        private double relearnHours = 4;   // Học lại sau khi trả lời sai
+        private int correctQuality = 4;
+        private int incorrectQuality = 1;
+    }
+
+    private final Parameters parameters;
+
+    /**
+     * @throws IllegalArgumentException nếu tham số không hợp lệ
+     */
+    public Sm2ReviewScheduler(Parameters parameters) {
+        if (parameters.minEase < 1 || parameters.initialEase < parameters.minEase) {
+            throw new IllegalArgumentException("Ease không hợp lệ");
+        }
+        if (parameters.firstIntervalDays <= 0 || parameters.secondIntervalDays < parameters.firstIntervalDays
+                || parameters.maxIntervalDays < parameters.secondIntervalDays || parameters.relearnHours <= 0) {
+            throw new IllegalArgumentException("Interval không hợp lệ");
+        }
+        if (parameters.correctQuality < 3 || parameters.correctQuality > 5
+                || parameters.incorrectQuality < 0 || parameters.incorrectQuality > 2) {
+            throw new IllegalArgumentException("Quality phải trong 3-5 (đúng) và 0-2 (sai)");
+        }
+        this.parameters = parameters;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public Parameters getParameters() {
+        return parameters;
+    }
+
+    @Override
+    public void review(FlashcardReview review, boolean correct, LocalDateTime now) {
+        prepare(review);
+        int quality = correct ? parameters.correctQuality : parameters.incorrectQuality;
+        if (correct) {
+            review.setRepetitions(review.getRepetitions() + 1);
+        } else {
+            review.setRepetitions(0);
+            review.setLapses(review.getLapses() + 1);
+        }
+        int miss = 5 - quality;
+        review.setEaseFactor(Math.max(parameters.minEase,
+                review.getEaseFactor() + 0.1 - miss * (0.08 + miss * 0.02)));
+        review.setNextReview(ReviewScheduler.plusDays(now,
+                intervalDays(review.getRepetitions(), review.getEaseFactor())));
+    }
+
+    @Override
+    public void reschedule(FlashcardReview review) {
+        prepare(review);
+        review.setNextReview(ReviewScheduler.plusDays(review.getLastReviewed(),
+                intervalDays(review.getRepetitions(), review.getEaseFactor())));
+    }
+
+    private double intervalDays(int repetitions, double ease) {
+        double days = switch (repetitions) {
+            case 0 -> parameters.relearnHours / 24;
+            case 1 -> parameters.firstIntervalDays;
+            default -> parameters.secondIntervalDays * Math.pow(ease, repetitions - 2);
+        };
+        return Math.min(days, parameters.maxIntervalDays);
+    }
+
+    /**
+     * Chuyển state FSRS / dữ liệu cũ sang SM-2: ease từ difficulty, số lần đúng liên tiếp
+     * ước lượng từ interval hiện tại nếu chưa có
+     */
+    private void prepare(FlashcardReview review) {
+        if (review.getEaseFactor() == null) {
+            double ease = review.getFsrsDifficulty() != null
+                    ? ReviewScheduler.easeFromDifficulty(review.getFsrsDifficulty())
+                    : parameters.initialEase;
+            review.setEaseFactor(Math.max(parameters.minEase, ease));
+            double interval = ReviewScheduler.currentIntervalDays(review);
+            if (review.getRepetitions() == 0 && interval >= 1) {
+                review.setRepetitions(interval < parameters.secondIntervalDays ? 1
+                        : 2 + (int) Math.round(Math.log(interval / parameters.secondIntervalDays)
+                                / Math.log(review.getEaseFactor())));
+            }
+        }
+        review.setStability(null);
+        review.setFsrsDifficulty(null);
+    }
+}
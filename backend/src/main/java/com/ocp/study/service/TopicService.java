@@ -31,6 +31,7 @@ public class TopicService {
         private final TopicRepository topicRepository;
         private final SubtopicRepository subtopicRepository;
         private final TopicProgressRepository progressRepository;
+        private final AutocompleteService autocompleteService;
 
         /**
          * Lấy tất cả topics với progress của user
@@ -197,6 +198,7 @@ public class TopicService {
                 }
 
                 topic = topicRepository.save(topic);
+                autocompleteService.refreshTopicAfterCommit(topic.getId());
                 return mapToDTO(topic, new java.util.HashMap<>());
         }
 
@@ -209,6 +211,7 @@ public class TopicService {
                         throw new RuntimeException("Topic not found: " + id);
                 }
                 topicRepository.deleteById(id);
+                autocompleteService.removeTopicAfterCommit(id);
         }
 
 }
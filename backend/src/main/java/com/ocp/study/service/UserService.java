@@ -4,8 +4,12 @@ import com.ocp.study.entity.User;
 import com.ocp.study.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 
+import java.util.Optional;
+import java.util.UUID;
+
 /**
  * Service helper để lấy current authenticated user.
  * 
@@ -32,4 +36,34 @@ public class UserService {
         return userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not authenticated"));
     }
+
+    /**
+     * Lấy ID của current user mà không query DB.
+     * JwtAuthFilter đặt User entity làm principal, nên chỉ fallback về
+     * {@link #getCurrentUser()} khi principal không phải User.
+     * 
+     * @return ID của current user
+     * @throws RuntimeException nếu user không tồn tại
+     */
+    public UUID getCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof User user) {
+            return user.getId();
+        }
+        return getCurrentUser().getId();
+    }
+
+    /**
+     * Lấy ID của user đã đăng nhập, empty nếu request không có token hợp lệ
+     * (dùng cho các API không bắt buộc đăng nhập như dashboard).
+     * 
+     * @return ID của current user hoặc empty
+     */
+    public Optional<UUID> findCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof User user) {
+            return Optional.of(user.getId());
+        }
+        return Optional.empty();
+    }
 }
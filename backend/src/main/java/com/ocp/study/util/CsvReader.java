@@ -0,0 +1,215 @@
+package com.ocp.study.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Đọc CSV theo RFC 4180 dạng streaming: đọc qua một buffer char cố định, hỗ trợ
+ * field trong dấu ngoặc kép chứa dấu phẩy / xuống dòng và {@code ""} để escape dấu
+ * ngoặc kép. Buffer của field được dùng lại giữa các field, mỗi field chỉ tạo đúng
+ * một String.
+ * <p>
+ * Khoảng trắng (space, tab) trước dấu ngoặc kép mở và sau dấu ngoặc kép đóng được bỏ qua,
+ * nên {@code a, "b"} và {@code "a" ,b} đọc giống {@code a,"b"} và {@code "a",b}. Field không
+ * quote được giữ nguyên khoảng trắng; dấu ngoặc kép nằm giữa field không quote được giữ
+ * nguyên như ký tự thường.
+ */
+public final class CsvReader implements Closeable {
+
+    private static final int EOF = -1;
+
+    private final Reader in;
+    private final char[] buffer;
+    private int pos;
+    private int limit;
+
+    private char[] field = new char[256];
+    private int fieldLength;
+
+    private int line = 1;
+    private int column;
+    private int recordLine;
+
+    public CsvReader(Reader in) {
+        this(in, 64 * 1024);
+    }
+
+    public CsvReader(Reader in, int bufferSize) {
+        this.in = in;
+        this.buffer = new char[bufferSize];
+    }
+
+    /**
+     * Đọc record tiếp theo
+     *
+     * @return danh sách field, null nếu đã hết dữ liệu. Dòng trống trả về một field rỗng.
+     * @throws CsvParseException nếu record sai cú pháp; có thể đọc tiếp record sau đó
+     */
+    public List<String> readRecord() throws IOException {
+        int startLine = line;
+        int c = read();
+        if (c == EOF) {
+            return null;
+        }
+        recordLine = startLine;
+        List<String> fields = new ArrayList<>(16);
+
+        while (true) {
+            fieldLength = 0;
+            while (isBlank(c)) {
+                append((char) c);
+                c = read();
+            }
+            if (c == '"') {
+                fieldLength = 0;
+                c = readQuoted();
+                while (isBlank(c)) {
+                    c = read();
+                }
+                if (c != ',' && c != '\n' && c != '\r' && c != EOF) {
+                    int errorLine = line;
+                    int errorColumn = column;
+                    skipRestOfLine(c);
+                    throw new CsvParseException("Ký tự không hợp lệ sau dấu ngoặc kép đóng", errorLine, errorColumn);
+                }
+            } else {
+                while (c != ',' && c != '\n' && c != '\r' && c != EOF) {
+                    append((char) c);
+                    c = read();
+                }
+            }
+            fields.add(new String(field, 0, fieldLength));
+
+            if (c == ',') {
+                c = read();
+                continue;
+            }
+            endOfLine(c);
+            return fields;
+        }
+    }
+
+    /**
+     * Số dòng (bắt đầu từ 1) nơi record vừa đọc bắt đầu
+     */
+    public int getRecordLine() {
+        return recordLine;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * Đọc field trong dấu ngoặc kép (dấu mở đã được đọc)
+     *
+     * @return ký tự ngay sau dấu ngoặc kép đóng
+     */
+    private int readQuoted() throws IOException {
+        int openLine = line;
+        int openColumn = column;
+        while (true) {
+            int c = read();
+            if (c == EOF) {
+                throw new CsvParseException("Dấu ngoặc kép chưa được đóng", openLine, openColumn);
+            }
+            if (c == '"') {
+                int next = read();
+                if (next != '"') {
+                    return next;
+                }
+            }
+            append((char) c);
+        }
+    }
+
+    private int read() throws IOException {
+        if (pos >= limit) {
+            limit = in.read(buffer, 0, buffer.length);
+            pos = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return EOF;
+            }
+        }
+        char c = buffer[pos++];
+        if (c == '\n') {
+            line++;
+            column = 0;
+        } else {
+            column++;
+        }
+        return c;
+    }
+
+    /**
+     * Kết thúc record: {@code \r\n} được tính là một lần xuống dòng, {@code \r} đứng
+     * riêng cũng là xuống dòng
+     */
+    private void endOfLine(int c) throws IOException {
+        if (c != '\r') {
+            return;
+        }
+        if (pos >= limit) {
+            limit = in.read(buffer, 0, buffer.length);
+            pos = 0;
+            if (limit <= 0) {
+                limit = 0;
+                line++;
+                return;
+            }
+        }
+        if (buffer[pos] == '\n') {
+            read();
+        } else {
+            line++;
+            column = 0;
+        }
+    }
+
+    private void skipRestOfLine(int c) throws IOException {
+        while (c != '\n' && c != '\r' && c != EOF) {
+            c = read();
+        }
+        endOfLine(c);
+    }
+
+    private static boolean isBlank(int c) {
+        return c == ' ' || c == '\t';
+    }
+
+    private void append(char c) {
+        if (fieldLength == field.length) {
+            field = Arrays.copyOf(field, field.length * 2);
+        }
+        field[fieldLength++] = c;
+    }
+
+    /**
+     * Lỗi cú pháp CSV kèm vị trí
+     */
+    public static class CsvParseException extends IOException {
+
+        private final int line;
+        private final int column;
+
+        public CsvParseException(String message, int line, int column) {
+            super(message + " (dòng " + line + ", cột " + column + ")");
+            this.line = line;
+            this.column = column;
+        }
+
+        public int getLine() {
+            return line;
+        }
+
+        public int getColumn() {
+            return column;
+        }
+    }
+}
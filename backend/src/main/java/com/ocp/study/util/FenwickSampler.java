@@ -0,0 +1,97 @@
+package com.ocp.study.util;
+
+import java.util.Random;
+
+/**
+ * Chọn ngẫu nhiên một index theo trọng số bằng cây Fenwick (binary indexed tree).
+ * Dựng từ mảng trọng số tốn O(n); đổi trọng số một phần tử và mỗi lần chọn đều tốn
+ * O(log n), nên trọng số thay đổi liên tục không cần dựng lại cả bảng. Không thread-safe.
+ */
+public final class FenwickSampler {
+
+    private final double[] weights;
+    /**
+     * tree[i] (1-based) là tổng trọng số của đoạn (i - lowbit(i), i]
+     */
+    private final double[] tree;
+    private final int highestStep;
+
+    /**
+     * @param weights trọng số không âm, tổng phải lớn hơn 0
+     */
+    public FenwickSampler(double[] weights) {
+        int n = weights.length;
+        if (n == 0) {
+            throw new IllegalArgumentException("Weights must not be empty");
+        }
+        this.weights = weights.clone();
+        this.tree = new double[n + 1];
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            if (weights[i] < 0) {
+                throw new IllegalArgumentException("Weights must not be negative");
+            }
+            sum += weights[i];
+            tree[i + 1] += weights[i];
+            int parent = (i + 1) + ((i + 1) & -(i + 1));
+            if (parent <= n) {
+                tree[parent] += tree[i + 1];
+            }
+        }
+        if (sum <= 0) {
+            throw new IllegalArgumentException("Sum of weights must be positive");
+        }
+        this.highestStep = Integer.highestOneBit(n);
+    }
+
+    public int size() {
+        return weights.length;
+    }
+
+    public double weight(int index) {
+        return weights[index];
+    }
+
+    /**
+     * Đổi trọng số của một phần tử
+     */
+    public void set(int index, double weight) {
+        if (weight < 0) {
+            throw new IllegalArgumentException("Weights must not be negative");
+        }
+        double delta = weight - weights[index];
+        weights[index] = weight;
+        for (int i = index + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    /**
+     * Tổng tất cả trọng số
+     */
+    public double total() {
+        double sum = 0;
+        for (int i = weights.length; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Chọn một index theo trọng số: tìm phần tử đầu tiên có tổng tiền tố vượt quá
+     * một điểm ngẫu nhiên trong [0, total) bằng cách đi xuống cây
+     */
+    public int sample(Random random) {
+        double target = random.nextDouble() * total();
+        int position = 0;
+        for (int step = highestStep; step > 0; step >>= 1) {
+            int next = position + step;
+            if (next < tree.length && tree[next] <= target) {
+                position = next;
+                target -= tree[next];
+            }
+        }
+        // Sai số làm tròn có thể vượt qua phần tử cuối
+        return Math.min(position, weights.length - 1);
+    }
+}
@@ -0,0 +1,150 @@
+package com.ocp.study.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Min-heap nhị phân có index theo key: thêm, đổi priority và xóa một key bất kỳ trong
+ * O(log n), xem phần tử nhỏ nhất trong O(1). Không thread-safe.
+ *
+ * @param <K> key (duy nhất trong heap)
+ * @param <V> giá trị đi kèm
+ */
+public final class IndexedMinHeap<K, V> {
+
+    private long[] priorities = new long[16];
+    private Object[] keys = new Object[16];
+    private Object[] values = new Object[16];
+    private final Map<K, Integer> positions = new HashMap<>();
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(K key) {
+        return positions.containsKey(key);
+    }
+
+    /**
+     * Thêm key hoặc cập nhật priority / giá trị nếu key đã có
+     */
+    public void put(K key, long priority, V value) {
+        Integer index = positions.get(key);
+        if (index == null) {
+            if (size == priorities.length) {
+                int capacity = size * 2;
+                priorities = Arrays.copyOf(priorities, capacity);
+                keys = Arrays.copyOf(keys, capacity);
+                values = Arrays.copyOf(values, capacity);
+            }
+            set(size, key, priority, value);
+            siftUp(size++);
+            return;
+        }
+        long old = priorities[index];
+        priorities[index] = priority;
+        values[index] = value;
+        if (priority < old) {
+            siftUp(index);
+        } else {
+            siftDown(index);
+        }
+    }
+
+    /**
+     * @return giá trị đã xóa, null nếu không có key
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(K key) {
+        Integer index = positions.remove(key);
+        if (index == null) {
+            return null;
+        }
+        V removed = (V) values[index];
+        int last = --size;
+        if (index != last) {
+            set(index, keys[last], priorities[last], values[last]);
+            siftDown(index);
+            siftUp(index);
+        }
+        keys[last] = null;
+        values[last] = null;
+        return removed;
+    }
+
+    /**
+     * Tối đa {@code limit} giá trị có priority nhỏ nhất và không lớn hơn maxPriority, theo
+     * thứ tự tăng dần, không thay đổi heap. Chỉ duyệt các nút có thể nằm trong kết quả:
+     * O(limit log limit).
+     */
+    @SuppressWarnings("unchecked")
+    public List<V> smallest(int limit, long maxPriority) {
+        List<V> result = new ArrayList<>(Math.min(limit, size));
+        if (size == 0 || limit <= 0) {
+            return result;
+        }
+        PriorityQueue<Integer> frontier = new PriorityQueue<>((a, b) -> Long.compare(priorities[a], priorities[b]));
+        frontier.add(0);
+        while (!frontier.isEmpty() && result.size() < limit) {
+            int index = frontier.poll();
+            if (priorities[index] > maxPriority) {
+                break;
+            }
+            result.add((V) values[index]);
+            for (int child = 2 * index + 1; child <= 2 * index + 2 && child < size; child++) {
+                frontier.add(child);
+            }
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void set(int index, Object key, long priority, Object value) {
+        keys[index] = key;
+        priorities[index] = priority;
+        values[index] = value;
+        positions.put((K) key, index);
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (priorities[parent] <= priorities[index]) {
+                return;
+            }
+            swap(index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index) {
+        while (true) {
+            int smallest = index;
+            int left = 2 * index + 1;
+            if (left < size && priorities[left] < priorities[smallest]) {
+                smallest = left;
+            }
+            if (left + 1 < size && priorities[left + 1] < priorities[smallest]) {
+                smallest = left + 1;
+            }
+            if (smallest == index) {
+                return;
+            }
+            swap(index, smallest);
+            index = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        Object key = keys[a];
+        long priority = priorities[a];
+        Object value = values[a];
+        set(a, keys[b], priorities[b], values[b]);
+        set(b, key, priority, value);
+    }
+}
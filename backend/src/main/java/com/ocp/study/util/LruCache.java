@@ -0,0 +1,96 @@
+package com.ocp.study.util;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.BiPredicate;
+
+/**
+ * Map LRU có giới hạn số phần tử, thread-safe (mọi thao tác giữ chung một lock).
+ * Khi thêm vượt giới hạn, phần tử lâu không được dùng nhất bị bỏ trong O(1).
+ * Phần tử bị bỏ (do vượt giới hạn hoặc {@link #evictIf}) được báo qua {@code onEvict}
+ * ngay trong lock, nên listener chỉ nên làm việc nhẹ (đánh dấu, chuyển sang hàng đợi).
+ *
+ * @param <K> key
+ * @param <V> giá trị
+ */
+public final class LruCache<K, V> {
+
+    private final BiConsumer<K, V> onEvict;
+    private final LinkedHashMap<K, V> map;
+
+    public LruCache(int maxSize) {
+        this(maxSize, (key, value) -> {
+        });
+    }
+
+    public LruCache(int maxSize, BiConsumer<K, V> onEvict) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize phải >= 1: " + maxSize);
+        }
+        this.onEvict = onEvict;
+        this.map = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                if (size() <= maxSize) {
+                    return false;
+                }
+                onEvict.accept(eldest.getKey(), eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    public synchronized V get(K key) {
+        return map.get(key);
+    }
+
+    public synchronized void put(K key, V value) {
+        map.put(key, value);
+    }
+
+    /**
+     * @return giá trị đang có, null nếu {@code value} vừa được thêm
+     */
+    public synchronized V putIfAbsent(K key, V value) {
+        return map.putIfAbsent(key, value);
+    }
+
+    public synchronized V remove(K key) {
+        return map.remove(key);
+    }
+
+    public synchronized int size() {
+        return map.size();
+    }
+
+    public synchronized void clear() {
+        map.clear();
+    }
+
+    /**
+     * Bản sao các phần tử hiện có, để duyệt mà không giữ lock
+     */
+    public synchronized List<Map.Entry<K, V>> entries() {
+        List<Map.Entry<K, V>> result = new ArrayList<>(map.size());
+        map.forEach((key, value) -> result.add(Map.entry(key, value)));
+        return result;
+    }
+
+    /**
+     * Bỏ các phần tử thỏa điều kiện, mỗi phần tử bị bỏ được báo qua {@code onEvict}
+     */
+    public synchronized void evictIf(BiPredicate<K, V> condition) {
+        Iterator<Map.Entry<K, V>> iterator = map.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<K, V> entry = iterator.next();
+            if (condition.test(entry.getKey(), entry.getValue())) {
+                iterator.remove();
+                onEvict.accept(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.ocp.study.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Hash nội dung câu hỏi dùng để nhận ra câu hỏi trùng khi tạo / import.
+ * Phải cho cùng kết quả với hàm SQL question_content_hash (migration V10): các
+ * khoảng trắng liên tiếp gộp thành một dấu cách, bỏ khoảng trắng hai đầu, option
+ * rỗng bị bỏ qua, các phần ngăn cách bằng ký tự 0x1F, sha256 dạng hex.
+ */
+public final class QuestionContentHash {
+
+    private static final char SEPARATOR = '\u001F';
+
+    private QuestionContentHash() {
+    }
+
+    /**
+     * @param options nội dung option theo thứ tự option_key
+     */
+    public static String of(String content, String codeSnippet, List<String> options) {
+        StringBuilder sb = new StringBuilder(256);
+        sb.append(normalize(content)).append(SEPARATOR).append(normalize(codeSnippet));
+        for (String option : options) {
+            String normalized = normalize(option);
+            if (!normalized.isEmpty()) {
+                sb.append(SEPARATOR).append(normalized);
+            }
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(sb.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(value.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f' || c == '\u000B') {
+                pendingSpace = true;
+                continue;
+            }
+            if (pendingSpace && sb.length() > 0) {
+                sb.append(' ');
+            }
+            pendingSpace = false;
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,31 @@
+package com.ocp.study.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Chạy việc cập nhật cache / index trong bộ nhớ chỉ khi dữ liệu đã được commit,
+ * để transaction bị rollback không để lại trạng thái không có trong DB.
+ */
+public final class TransactionCallbacks {
+
+    private TransactionCallbacks() {
+    }
+
+    /**
+     * Chạy {@code action} sau khi transaction hiện tại commit; chạy ngay nếu không có
+     * transaction. Không chạy nếu transaction rollback.
+     */
+    public static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+-- Flyway Migration: Question content hash
+-- Version: V10
+-- Description: Hash nội dung câu hỏi (content, code snippet, options) để import lại cùng file
+-- không tạo bản trùng. Phải khớp với QuestionContentHash (Java).
+
+-- Gộp các khoảng trắng liên tiếp thành một dấu cách và bỏ khoảng trắng hai đầu
+CREATE FUNCTION question_normalize(value TEXT) RETURNS TEXT
+    LANGUAGE sql IMMUTABLE AS $$
+    SELECT btrim(regexp_replace(coalesce(value, ''), '[ \t\n\r\f\v]+', ' ', 'g'), ' ')
+$$;
+
+-- sha256 (hex) của content, code snippet và các option không rỗng theo thứ tự option_key,
+-- ngăn cách bằng ký tự 0x1F
+CREATE FUNCTION question_content_hash(content TEXT, code_snippet TEXT, options TEXT[]) RETURNS VARCHAR(64)
+    LANGUAGE sql IMMUTABLE AS $$
+    SELECT encode(sha256(convert_to(
+        question_normalize(content) || chr(31) || question_normalize(code_snippet)
+            || coalesce((SELECT string_agg(chr(31) || question_normalize(o.value), '' ORDER BY o.ord)
+                         FROM unnest(options) WITH ORDINALITY AS o(value, ord)
+                         WHERE question_normalize(o.value) <> ''), ''),
+        'UTF8')), 'hex')
+$$;
+
+ALTER TABLE questions ADD COLUMN content_hash VARCHAR(64);
+
+UPDATE questions q
+SET content_hash = question_content_hash(q.content, q.code_snippet,
+        (SELECT array_agg(o.content ORDER BY o.option_key) FROM question_options o WHERE o.question_id = q.id));
+
+-- Câu hỏi trùng đã có: giữ hash cho một bản, các bản còn lại để NULL (không xóa dữ liệu)
+UPDATE questions q
+SET content_hash = NULL
+FROM (
+    SELECT id, row_number() OVER (PARTITION BY content_hash ORDER BY id) AS rn
+    FROM questions
+) d
+WHERE q.id = d.id AND d.rn > 1;
+
+CREATE UNIQUE INDEX uq_questions_content_hash ON questions(content_hash);
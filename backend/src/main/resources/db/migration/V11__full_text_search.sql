@@ -0,0 +1,72 @@
+-- Flyway Migration: Full-text search
+-- Version: V11
+-- Description: Cột tsvector + GIN index cho câu hỏi, flashcard, topic, subtopic; trigger
+-- giữ cột luôn khớp với nội dung. Dùng config 'simple' (không stemming) vì nội dung
+-- lẫn tiếng Việt, tiếng Anh và code.
+
+ALTER TABLE questions ADD COLUMN search_vector TSVECTOR;
+ALTER TABLE flashcards ADD COLUMN search_vector TSVECTOR;
+ALTER TABLE topics ADD COLUMN search_vector TSVECTOR;
+ALTER TABLE subtopics ADD COLUMN search_vector TSVECTOR;
+
+CREATE FUNCTION questions_search_vector_update() RETURNS TRIGGER
+    LANGUAGE plpgsql AS $$
+BEGIN
+    NEW.search_vector := setweight(to_tsvector('simple', coalesce(NEW.content, '')), 'A')
+        || setweight(to_tsvector('simple', coalesce(NEW.code_snippet, '')), 'B');
+    RETURN NEW;
+END
+$$;
+
+CREATE FUNCTION flashcards_search_vector_update() RETURNS TRIGGER
+    LANGUAGE plpgsql AS $$
+BEGIN
+    NEW.search_vector := setweight(to_tsvector('simple', coalesce(NEW.front, '')), 'A')
+        || setweight(to_tsvector('simple', coalesce(NEW.back, '')), 'B')
+        || setweight(to_tsvector('simple', coalesce(NEW.code_example, '')), 'C');
+    RETURN NEW;
+END
+$$;
+
+-- Dùng chung cho topics và subtopics (cùng cột name, description)
+CREATE FUNCTION named_search_vector_update() RETURNS TRIGGER
+    LANGUAGE plpgsql AS $$
+BEGIN
+    NEW.search_vector := setweight(to_tsvector('simple', coalesce(NEW.name, '')), 'A')
+        || setweight(to_tsvector('simple', coalesce(NEW.description, '')), 'B');
+    RETURN NEW;
+END
+$$;
+
+CREATE TRIGGER trg_questions_search_vector
+    BEFORE INSERT OR UPDATE OF content, code_snippet ON questions
+    FOR EACH ROW EXECUTE FUNCTION questions_search_vector_update();
+
+CREATE TRIGGER trg_flashcards_search_vector
+    BEFORE INSERT OR UPDATE OF front, back, code_example ON flashcards
+    FOR EACH ROW EXECUTE FUNCTION flashcards_search_vector_update();
+
+CREATE TRIGGER trg_topics_search_vector
+    BEFORE INSERT OR UPDATE OF name, description ON topics
+    FOR EACH ROW EXECUTE FUNCTION named_search_vector_update();
+
+CREATE TRIGGER trg_subtopics_search_vector
+    BEFORE INSERT OR UPDATE OF name, description ON subtopics
+    FOR EACH ROW EXECUTE FUNCTION named_search_vector_update();
+
+-- Backfill: UPDATE cột nguồn để trigger tính search_vector
+UPDATE questions SET content = content;
+UPDATE flashcards SET front = front;
+UPDATE topics SET name = name;
+UPDATE subtopics SET name = name;
+
+-- Escape HTML trước khi ts_headline thêm thẻ <mark> (nội dung có code như List<String>)
+CREATE FUNCTION html_escape(value TEXT) RETURNS TEXT
+    LANGUAGE sql IMMUTABLE AS $$
+    SELECT replace(replace(replace(value, '&', '&amp;'), '<', '&lt;'), '>', '&gt;')
+$$;
+
+CREATE INDEX idx_questions_search_vector ON questions USING GIN (search_vector);
+CREATE INDEX idx_flashcards_search_vector ON flashcards USING GIN (search_vector);
+CREATE INDEX idx_topics_search_vector ON topics USING GIN (search_vector);
+CREATE INDEX idx_subtopics_search_vector ON subtopics USING GIN (search_vector);
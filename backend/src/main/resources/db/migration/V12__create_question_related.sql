@@ -0,0 +1,14 @@
+-- Flyway Migration: Create Question Related Content
+-- Version: V12
+-- Description: Danh sách flashcard và subtopic liên quan nhất của mỗi câu hỏi (độ giống
+-- TF-IDF), do job nền tính sẵn. Mảng id và mảng điểm song song, đã sắp theo điểm giảm
+-- dần, để trang gợi ý sau khi trả lời sai chỉ cần đọc một dòng theo khóa chính.
+
+CREATE TABLE question_related (
+    question_id UUID PRIMARY KEY REFERENCES questions(id) ON DELETE CASCADE,
+    flashcard_ids UUID[] NOT NULL,
+    flashcard_scores REAL[] NOT NULL,
+    subtopic_ids UUID[] NOT NULL,
+    subtopic_scores REAL[] NOT NULL,
+    computed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
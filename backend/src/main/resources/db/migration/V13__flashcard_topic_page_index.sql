@@ -0,0 +1,7 @@
+-- Flyway Migration: Index for paged flashcard listing by topic
+-- Version: V13
+-- Description: Danh sách flashcard theo topic sắp theo created_at giảm dần đọc thẳng từ index,
+-- không phải sắp xếp cả topic. Review của user được join qua UNIQUE(user_id, flashcard_id).
+
+DROP INDEX IF EXISTS idx_flashcards_topic_id;
+CREATE INDEX idx_flashcards_topic_id_created_at ON flashcards(topic_id, created_at DESC, id);
@@ -0,0 +1,22 @@
+-- Flyway Migration: Pluggable spaced-repetition scheduler
+-- Version: V14
+-- Description: State theo từng thẻ của SM-2 (ease_factor) và FSRS (stability, fsrs_difficulty),
+-- cùng thuật toán / tham số đang dùng. Cột mới có default hằng hoặc NULL nên ALTER không
+-- ghi lại bảng; các dòng cũ được scheduler tự chuyển đổi ở lần review / reschedule tiếp theo.
+
+ALTER TABLE flashcard_reviews
+    ADD COLUMN repetitions INTEGER NOT NULL DEFAULT 0,   -- Số lần đúng liên tiếp
+    ADD COLUMN lapses INTEGER NOT NULL DEFAULT 0,        -- Số lần quên (trả lời sai)
+    ADD COLUMN ease_factor DOUBLE PRECISION,             -- SM-2
+    ADD COLUMN stability DOUBLE PRECISION,               -- FSRS, đơn vị ngày
+    ADD COLUMN fsrs_difficulty DOUBLE PRECISION;         -- FSRS, 1-10
+
+-- Một dòng duy nhất: thuật toán đang dùng và tham số (JSON)
+CREATE TABLE review_scheduler_config (
+    id SMALLINT PRIMARY KEY DEFAULT 1 CHECK (id = 1),
+    algorithm VARCHAR(20) NOT NULL,
+    parameters TEXT NOT NULL DEFAULT '{}',
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+INSERT INTO review_scheduler_config (algorithm) VALUES ('SM2');
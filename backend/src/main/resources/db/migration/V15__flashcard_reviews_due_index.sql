@@ -0,0 +1,7 @@
+-- Flyway Migration: Index for due flashcard reviews
+-- Version: V15
+-- Description: Review đến hạn của một user đọc theo thứ tự next_review thẳng từ index
+-- (dựng hàng đợi review, đếm thẻ đến hạn). Index cũ chỉ theo user_id là prefix của index mới.
+
+DROP INDEX IF EXISTS idx_flashcard_reviews_user_id;
+CREATE INDEX idx_flashcard_reviews_user_next_review ON flashcard_reviews(user_id, next_review);
@@ -0,0 +1,15 @@
+-- Flyway Migration: Persist Near-Duplicate Warnings Of Import Jobs
+-- Version: V16
+-- Description: Lưu các câu hỏi mới gần trùng câu hỏi đã có theo từng dòng của job import,
+-- để admin xem lại qua trạng thái job sau khi job chạy nền xong
+
+ALTER TABLE import_jobs ADD COLUMN rows_similar INTEGER NOT NULL DEFAULT 0;
+
+CREATE TABLE import_job_similar (
+    job_id UUID NOT NULL REFERENCES import_jobs(id) ON DELETE CASCADE,
+    line_no INTEGER NOT NULL,
+    question_id UUID NOT NULL, -- Câu hỏi mới tạo từ dòng này
+    similar_question_id UUID NOT NULL,
+    similarity REAL NOT NULL,
+    PRIMARY KEY (job_id, line_no, similar_question_id)
+);
@@ -0,0 +1,18 @@
+-- Flyway Migration: Hash Existing Duplicate Questions
+-- Version: V17
+-- Description: V10 để content_hash = NULL cho các bản trùng nội dung đã có, nên unique index
+-- không còn chặn được chúng và mỗi lần sửa câu hỏi đó sẽ chạy lại như câu hỏi mới.
+-- Các bản này được gán hash của nội dung kèm id của chính nó (ngăn cách bằng 0x1F), nên
+-- không đụng hash thật của bản được giữ; khi admin sửa một bản trùng, hash được tính lại
+-- theo nội dung và PUT /admin/questions/{id} trả 409 kèm id câu hỏi gốc.
+-- Các bản trùng vẫn hiện trong GET /admin/questions/duplicates (độ giống 1.0) để admin xử lý.
+
+UPDATE questions q
+SET content_hash = encode(sha256(convert_to(
+        question_content_hash(q.content, q.code_snippet,
+            (SELECT array_agg(o.content ORDER BY o.option_key) FROM question_options o WHERE o.question_id = q.id))
+            || chr(31) || q.id::text,
+        'UTF8')), 'hex')
+WHERE q.content_hash IS NULL;
+
+ALTER TABLE questions ALTER COLUMN content_hash SET NOT NULL;
@@ -0,0 +1,13 @@
+-- Flyway Migration: Create User Weakness Weights Table
+-- Version: V4
+-- Description: Lưu số lần làm / làm sai theo (user, topic, độ khó) cho chế độ quiz adaptive
+
+CREATE TABLE user_weakness_weights (
+    user_id UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    topic_id UUID NOT NULL REFERENCES topics(id) ON DELETE CASCADE,
+    difficulty INTEGER NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    wrong INTEGER NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (user_id, topic_id, difficulty)
+);
@@ -0,0 +1,18 @@
+-- Flyway Migration: Create Question Stats Table
+-- Version: V5
+-- Description: Thống kê theo từng câu hỏi (số lần làm, số lần đúng, thời gian, phân bố đáp án chọn)
+
+CREATE TABLE question_stats (
+    question_id UUID PRIMARY KEY REFERENCES questions(id) ON DELETE CASCADE,
+    attempts BIGINT NOT NULL DEFAULT 0,
+    correct BIGINT NOT NULL DEFAULT 0,
+    skipped BIGINT NOT NULL DEFAULT 0,
+    total_time_seconds BIGINT NOT NULL DEFAULT 0,
+    picked_a BIGINT NOT NULL DEFAULT 0,
+    picked_b BIGINT NOT NULL DEFAULT 0,
+    picked_c BIGINT NOT NULL DEFAULT 0,
+    picked_d BIGINT NOT NULL DEFAULT 0,
+    picked_e BIGINT NOT NULL DEFAULT 0,
+    picked_f BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
@@ -0,0 +1,41 @@
+-- Flyway Migration: Create Quiz Aggregate Tables
+-- Version: V6
+-- Description: Tổng hợp kết quả quiz theo user và theo (user, topic), cập nhật mỗi lần nộp bài
+
+CREATE TABLE user_quiz_stats (
+    user_id UUID PRIMARY KEY REFERENCES users(id) ON DELETE CASCADE,
+    quizzes_taken INTEGER NOT NULL DEFAULT 0,
+    score_sum BIGINT NOT NULL DEFAULT 0,
+    best_score INTEGER NOT NULL DEFAULT 0,
+    recent_scores VARCHAR(100), -- Điểm các quiz gần nhất, mới nhất trước: "80,65,90"
+    last_quiz_at TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE user_topic_quiz_stats (
+    user_id UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    topic_id UUID NOT NULL,
+    quizzes_taken INTEGER NOT NULL DEFAULT 0,
+    score_sum BIGINT NOT NULL DEFAULT 0,
+    best_score INTEGER NOT NULL DEFAULT 0,
+    rolling_average DOUBLE PRECISION NOT NULL DEFAULT 0, -- Trung bình trượt (EWMA)
+    last_quiz_at TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (user_id, topic_id)
+);
+
+-- Backfill từ lịch sử hiện có. Trung bình trượt tạm lấy bằng trung bình cộng,
+-- job rebuild (POST /admin/quiz-stats/rebuild) sẽ tính lại chính xác.
+INSERT INTO user_quiz_stats (user_id, quizzes_taken, score_sum, best_score, recent_scores, last_quiz_at)
+SELECT user_id, COUNT(*), SUM(score_percentage), MAX(score_percentage),
+       array_to_string((array_agg(score_percentage ORDER BY completed_at DESC))[1:10], ','),
+       MAX(completed_at)
+FROM quiz_history
+GROUP BY user_id;
+
+INSERT INTO user_topic_quiz_stats (user_id, topic_id, quizzes_taken, score_sum, best_score, rolling_average, last_quiz_at)
+SELECT user_id, topic_id, COUNT(*), SUM(score_percentage), MAX(score_percentage), AVG(score_percentage),
+       MAX(completed_at)
+FROM quiz_history
+WHERE topic_id IS NOT NULL
+GROUP BY user_id, topic_id;
@@ -0,0 +1,7 @@
+-- Flyway Migration: Indexes for keyset reads of questions
+-- Version: V7
+-- Description: Đọc câu hỏi theo topic theo thứ tự id (keyset / stream) và load options theo câu hỏi
+
+DROP INDEX IF EXISTS idx_questions_topic_id;
+CREATE INDEX idx_questions_topic_id_id ON questions(topic_id, id);
+CREATE INDEX idx_question_options_question_id ON question_options(question_id, option_key);
@@ -0,0 +1,6 @@
+-- Flyway Migration: Index for quiz history keyset pagination
+-- Version: V8
+-- Description: Đọc lịch sử quiz theo (completed_at, id) giảm dần và tổng hợp điểm theo thời gian
+
+DROP INDEX IF EXISTS idx_quiz_history_user_id;
+CREATE INDEX idx_quiz_history_user_completed ON quiz_history(user_id, completed_at DESC, id DESC);
@@ -0,0 +1,27 @@
+-- Flyway Migration: Create Import Jobs Tables
+-- Version: V9
+-- Description: Theo dõi tiến độ import câu hỏi chạy nền, cho phép hủy và chạy tiếp
+
+CREATE TABLE import_jobs (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    file_name VARCHAR(255),
+    file_path VARCHAR(500) NOT NULL, -- File upload được lưu tạm để chạy nền / chạy tiếp
+    status VARCHAR(20) NOT NULL, -- QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED
+    rows_parsed INTEGER NOT NULL DEFAULT 0,
+    rows_written INTEGER NOT NULL DEFAULT 0,
+    rows_failed INTEGER NOT NULL DEFAULT 0,
+    last_committed_line INTEGER NOT NULL DEFAULT 1, -- Dòng cuối của batch đã commit (header là dòng 1)
+    message TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    started_at TIMESTAMP,
+    finished_at TIMESTAMP
+);
+
+CREATE TABLE import_job_errors (
+    job_id UUID NOT NULL REFERENCES import_jobs(id) ON DELETE CASCADE,
+    line_no INTEGER NOT NULL,
+    message TEXT NOT NULL,
+    PRIMARY KEY (job_id, line_no)
+);
+
+CREATE INDEX idx_import_jobs_created_at ON import_jobs(created_at DESC);
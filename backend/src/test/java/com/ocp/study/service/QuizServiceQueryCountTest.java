@@ -0,0 +1,142 @@
+package com.ocp.study.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ocp.study.entity.Certification;
+import com.ocp.study.entity.Question;
+import com.ocp.study.entity.QuestionOption;
+import com.ocp.study.entity.Topic;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Số câu SQL khi lấy câu hỏi quiz không phụ thuộc số câu hỏi (không có N+1 khi đọc options).
+ *
+ * @author OCP Study Team
+ * @since 1.0.0
+ */
+@DataJpaTest(showSql = false)
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ QuizService.class, QuestionPoolService.class, AnswerKeyCache.class })
+class QuizServiceQueryCountTest {
+
+    @Autowired
+    private QuizService quizService;
+
+    @Autowired
+    private QuestionPoolService questionPoolService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    private UserService userService;
+
+    @MockitoBean
+    private NotificationService notificationService;
+
+    @MockitoBean
+    private AdaptiveSelectionService adaptiveSelectionService;
+
+    @MockitoBean
+    private QuestionStatsService questionStatsService;
+
+    @MockitoBean
+    private QuizStatsService quizStatsService;
+
+    @MockitoBean
+    private ObjectMapper objectMapper;
+
+    private Statistics statistics;
+    private Certification certification;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        certification = entityManager.persist(Certification.builder()
+                .name("OCP Java SE 11")
+                .code("1Z0-819")
+                .build());
+    }
+
+    @Test
+    void randomQuestionsUseSameStatementCountForFiveAndFiftyQuestions() {
+        Topic topic = createTopic("Collections", 60);
+        questionPoolService.refresh();
+
+        long five = countStatements(() -> assertThat(quizService.getRandomQuestions(topic.getId(), 5)).hasSize(5));
+        long fifty = countStatements(() -> assertThat(quizService.getRandomQuestions(topic.getId(), 50)).hasSize(50));
+
+        assertThat(fifty).isEqualTo(five);
+        assertThat(five).isEqualTo(2); // Câu hỏi + topic, options
+    }
+
+    @Test
+    void topicQuestionsUseSameStatementCountForFiveAndFiftyQuestions() {
+        Topic small = createTopic("Generics", 5);
+        Topic large = createTopic("Streams", 50);
+
+        long five = countStatements(() -> assertThat(quizService.getQuestionsByTopic(small.getId())).hasSize(5));
+        long fifty = countStatements(() -> assertThat(quizService.getQuestionsByTopic(large.getId())).hasSize(50));
+
+        assertThat(fifty).isEqualTo(five);
+        assertThat(five).isEqualTo(2);
+    }
+
+    /**
+     * Số câu SQL được prepare trong lúc chạy {@code call}, với persistence context rỗng
+     */
+    private long countStatements(Runnable call) {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+        call.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private Topic createTopic(String name, int questionCount) {
+        Topic topic = entityManager.persist(Topic.builder()
+                .certification(certification)
+                .name(name)
+                .month(1)
+                .orderIndex(1)
+                .build());
+        for (int i = 0; i < questionCount; i++) {
+            Question question = Question.builder()
+                    .topic(topic)
+                    .content(name + " question " + i)
+                    .difficulty(i % 5 + 1)
+                    .build();
+            List<QuestionOption> options = new ArrayList<>();
+            for (char key = 'A'; key <= 'D'; key++) {
+                QuestionOption option = new QuestionOption();
+                option.setQuestion(question);
+                option.setOptionKey(String.valueOf(key));
+                option.setContent("Option " + key);
+                option.setIsCorrect(key == 'A');
+                options.add(option);
+            }
+            question.setOptions(options);
+            entityManager.persist(question);
+        }
+        return topic;
+    }
+}
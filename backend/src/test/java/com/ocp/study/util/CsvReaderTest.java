@@ -0,0 +1,130 @@
+package com.ocp.study.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Cú pháp CSV mà {@link CsvReader} chấp nhận và vị trí lỗi nó báo lại.
+ *
+ * @author OCP Study Team
+ * @since 1.0.0
+ */
+class CsvReaderTest {
+
+    @Test
+    void readsPlainFields() throws IOException {
+        assertThat(readAll("a,b,c\n1,,3\n")).containsExactly(
+                List.of("a", "b", "c"),
+                List.of("1", "", "3"));
+    }
+
+    @Test
+    void unescapesDoubledQuotes() throws IOException {
+        assertThat(readAll("\"say \"\"hi\"\"\",\"\"\"\"\n")).containsExactly(
+                List.of("say \"hi\"", "\""));
+    }
+
+    @Test
+    void keepsCommasAndLineBreaksInsideQuotedFields() throws IOException {
+        CsvReader reader = reader("\"a,b\",\"line 1\nline 2\r\nline 3\"\nnext,row\n");
+
+        assertThat(reader.readRecord()).containsExactly("a,b", "line 1\nline 2\r\nline 3");
+        assertThat(reader.getRecordLine()).isEqualTo(1);
+        assertThat(reader.readRecord()).containsExactly("next", "row");
+        assertThat(reader.getRecordLine()).isEqualTo(4);
+        assertThat(reader.readRecord()).isNull();
+    }
+
+    @Test
+    void acceptsCrLfAndBareCrLineEndings() throws IOException {
+        CsvReader reader = reader("a,b\r\nc,d\re,f\r");
+
+        assertThat(reader.readRecord()).containsExactly("a", "b");
+        assertThat(reader.readRecord()).containsExactly("c", "d");
+        assertThat(reader.getRecordLine()).isEqualTo(2);
+        assertThat(reader.readRecord()).containsExactly("e", "f");
+        assertThat(reader.getRecordLine()).isEqualTo(3);
+        assertThat(reader.readRecord()).isNull();
+    }
+
+    @Test
+    void handlesCrLfSplitAcrossBufferRefill() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("ab\r\ncd\r\n"), 3);
+
+        assertThat(reader.readRecord()).containsExactly("ab");
+        assertThat(reader.readRecord()).containsExactly("cd");
+        assertThat(reader.getRecordLine()).isEqualTo(2);
+        assertThat(reader.readRecord()).isNull();
+    }
+
+    @Test
+    void readsLastRecordWithoutTrailingNewline() throws IOException {
+        assertThat(readAll("a,b\nc,d")).containsExactly(List.of("a", "b"), List.of("c", "d"));
+    }
+
+    @Test
+    void ignoresBlanksAroundQuotedFields() throws IOException {
+        assertThat(readAll("a, \"b\"\n\"a\" ,b\n\t\"x, y\"\t,\"z\"  \n")).containsExactly(
+                List.of("a", "b"),
+                List.of("a", "b"),
+                List.of("x, y", "z"));
+    }
+
+    @Test
+    void keepsBlanksOfUnquotedFields() throws IOException {
+        assertThat(readAll("  indented code,b \n")).containsExactly(List.of("  indented code", "b "));
+    }
+
+    @Test
+    void keepsQuoteInsideUnquotedFieldAsText() throws IOException {
+        assertThat(readAll("say \"hi\",b\n")).containsExactly(List.of("say \"hi\"", "b"));
+    }
+
+    @Test
+    void reportsPositionOfTextAfterClosingQuoteAndContinues() throws IOException {
+        CsvReader reader = reader("ok\n\"a\" x,b\nnext\n");
+        reader.readRecord();
+
+        assertThatThrownBy(reader::readRecord)
+                .isInstanceOfSatisfying(CsvReader.CsvParseException.class, e -> {
+                    assertThat(e.getLine()).isEqualTo(2);
+                    assertThat(e.getColumn()).isEqualTo(5);
+                });
+        assertThat(reader.readRecord()).containsExactly("next");
+        assertThat(reader.getRecordLine()).isEqualTo(3);
+    }
+
+    @Test
+    void reportsPositionOfUnclosedQuote() throws IOException {
+        CsvReader reader = reader("a,b\nc,\"open\nstill open\n");
+        reader.readRecord();
+
+        assertThatThrownBy(reader::readRecord)
+                .isInstanceOfSatisfying(CsvReader.CsvParseException.class, e -> {
+                    assertThat(e.getLine()).isEqualTo(2);
+                    assertThat(e.getColumn()).isEqualTo(3);
+                });
+    }
+
+    private static CsvReader reader(String csv) {
+        return new CsvReader(new StringReader(csv));
+    }
+
+    private static List<List<String>> readAll(String csv) throws IOException {
+        List<List<String>> records = new ArrayList<>();
+        try (CsvReader reader = reader(csv)) {
+            List<String> record;
+            while ((record = reader.readRecord()) != null) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+}
@@ -126,16 +126,18 @@ export class ApiService {
 
     // ==================== QUIZ ====================
 
-    getQuizQuestions(topicId?: string, limit: number = 10): Observable<any[]> {
-        let url = `${this.baseUrl}/quiz/questions?limit=${limit}`;
-        if (topicId) {
-            url += `&topicId=${topicId}`;
-        }
-        return this.http.get<any[]>(url);
-    }
-
-    submitQuiz(submission: any): Observable<any> {
-        return this.http.post<any>(`${this.baseUrl}/quiz/submit`, submission);
+    /**
+     * Bắt đầu phiên quiz trên server: trả về sessionId và câu hỏi của phiên
+     */
+    startQuizSession(request: any): Observable<any> {
+        return this.http.post<any>(`${this.baseUrl}/quiz/sessions`, request);
+    }
+
+    /**
+     * Nộp đáp án của phiên ({ sessionId, answers }), server chấm điểm trên các câu đã phát
+     */
+    gradeQuiz(submission: any): Observable<any> {
+        return this.http.post<any>(`${this.baseUrl}/quiz/grade`, submission);
     }
 
     getQuizHistory(): Observable<any[]> {
@@ -10,7 +10,7 @@ interface Question {
     topicName: string;
     question: string;
     options: string[];
-    correctAnswer: number;
+    correctAnswer?: number; // Có sau khi server chấm điểm
     explanation?: string;
     codeSnippet?: string;
     difficulty: number;
@@ -22,12 +22,20 @@ interface ApiQuestion {
     topicId: string;
     topicName: string;
     content: string;
-    options: { id: string; optionKey: string; content: string; isCorrect: boolean }[];
-    explanation?: string;
+    options: { id: string; optionKey: string; content: string }[];
     codeSnippet?: string;
     difficulty: number;
 }
 
+// Kết quả chấm điểm từ server (POST /quiz/grade)
+interface QuizResult {
+    historyId: string;
+    score: number;
+    totalQuestions: number;
+    percentage: number;
+    results: { questionId: string; selectedOptions: string[]; correctOptions: string[]; isCorrect: boolean; explanation?: string }[];
+}
+
 /**
  * Quiz Session component - Làm quiz với timer và chấm điểm.
  */
@@ -48,6 +56,7 @@ export class QuizSessionComponent implements OnInit, OnDestroy {
     currentIndex = signal(0);
     answers = signal<(number | undefined)[]>([]);
     showResult = signal(false);
+    sessionId: string | null = null; // Phiên quiz trên server, null khi dùng câu hỏi mock
 
     // Timer (seconds)
     totalTime = signal(600); // 10 minutes default
@@ -85,17 +94,24 @@ export class QuizSessionComponent implements OnInit, OnDestroy {
             this.remainingTime.set(5400);
         }
 
-        this.loadQuestions(topicId || undefined, limit);
+        this.loadQuestions(this.quizType(), topicId || undefined, limit);
     }
 
     ngOnDestroy() {
         this.stopTimer();
     }
 
-    loadQuestions(topicId?: string, limit = 10) {
+    quizType(): string {
+        const quizMode = this.route.snapshot.queryParamMap.get('mode') || 'quick';
+        return quizMode === 'mock' ? 'MOCK_EXAM' : quizMode === 'topic' ? 'TOPIC_QUIZ' : 'QUICK_QUIZ';
+    }
+
+    loadQuestions(quizType: string, topicId?: string, limit = 10) {
         this.loading.set(true);
-        this.apiService.getQuizQuestions(topicId, limit).subscribe({
-            next: (data: ApiQuestion[]) => {
+        this.apiService.startQuizSession({ quizType, topicId: topicId ?? null, limit }).subscribe({
+            next: (session: { sessionId: string; questions: ApiQuestion[] }) => {
+                const data = session.questions ?? [];
+                this.sessionId = data.length > 0 ? session.sessionId : null;
                 if (data.length === 0) {
                     // Mock data nếu API không có câu hỏi
                     this.questions.set(this.getMockQuestions());
@@ -123,23 +139,13 @@ export class QuizSessionComponent implements OnInit, OnDestroy {
      * Transform API question format to frontend format
      */
     transformApiQuestion(apiQ: ApiQuestion): Question {
-        // Find correct answer index
-        let correctIndex = 0;
-        const options = apiQ.options.map((opt, idx) => {
-            if (opt.isCorrect) {
-                correctIndex = idx;
-            }
-            return opt.content;
-        });
-
+        // Đáp án đúng không được gửi về, server chấm điểm khi submit
         return {
             id: apiQ.id,
             topicId: apiQ.topicId,
             topicName: apiQ.topicName,
             question: apiQ.content,
-            options: options,
-            correctAnswer: correctIndex,
-            explanation: apiQ.explanation,
+            options: apiQ.options.map(opt => opt.content),
             codeSnippet: apiQ.codeSnippet,
             difficulty: apiQ.difficulty
         };
@@ -265,29 +271,68 @@ export class QuizSessionComponent implements OnInit, OnDestroy {
 
     submitQuiz() {
         this.stopTimer();
-        this.showResult.set(true);
 
-        // Prepare submission với đúng format backend expect
-        const quizMode = this.route.snapshot.queryParamMap.get('mode') || 'quick';
-        const topicId = this.route.snapshot.queryParamMap.get('topicId');
+        if (!this.sessionId) {
+            // Câu hỏi mock (không có trên server) được chấm phía client
+            this.showResult.set(true);
+            return;
+        }
 
+        // Server chỉ chấm các câu hỏi đã phát cho phiên, điểm tính trên toàn bộ số câu đó
         const submission = {
-            quizType: quizMode === 'mock' ? 'MOCK_EXAM' : quizMode === 'topic' ? 'TOPIC_QUIZ' : 'QUICK_QUIZ',
-            topicId: topicId ? topicId : null,
-            topicName: null, // TODO: get from topic if available
-            totalQuestions: this.questions().length,
-            correctAnswers: this.correctCount(),
-            scorePercentage: this.score(),
-            timeSpent: this.elapsedTime()
+            sessionId: this.sessionId,
+            answers: this.questions().map((q, i) => {
+                const ans = this.answers()[i];
+                return {
+                    questionId: q.id,
+                    selectedOptions: ans !== undefined ? [String.fromCharCode(65 + ans)] : []
+                };
+            })
         };
 
-        this.apiService.submitQuiz(submission).subscribe({
-            next: (res) => console.log('Quiz saved:', res),
-            error: (err) => console.error('Error submitting quiz:', err)
+        this.apiService.gradeQuiz(submission).subscribe({
+            next: (res: QuizResult) => {
+                this.applyGradeResult(res);
+                this.showResult.set(true);
+            },
+            error: (err) => {
+                console.error('Error grading quiz:', err);
+                this.showResult.set(true);
+            }
         });
     }
 
+    /**
+     * Gán đáp án đúng và giải thích từ kết quả chấm điểm của server
+     */
+    applyGradeResult(res: QuizResult) {
+        const byId = new Map(res.results.map(r => [r.questionId, r]));
+        this.questions.update(qs => qs.map(q => {
+            const r = byId.get(q.id);
+            if (!r || r.correctOptions.length === 0) {
+                return q;
+            }
+            return {
+                ...q,
+                correctAnswer: r.correctOptions[0].charCodeAt(0) - 65,
+                explanation: r.explanation
+            };
+        }));
+    }
+
     restartQuiz() {
+        // Phiên cũ đã được chấm: làm lại cùng bộ câu hỏi trong một phiên mới
+        if (this.sessionId) {
+            this.sessionId = null;
+            this.apiService.startQuizSession({
+                quizType: this.quizType(),
+                topicId: this.route.snapshot.queryParamMap.get('topicId'),
+                questionIds: this.questions().map(q => q.id)
+            }).subscribe({
+                next: (session: { sessionId: string }) => this.sessionId = session.sessionId,
+                error: (err) => console.error('Error restarting quiz session:', err)
+            });
+        }
         this.showResult.set(false);
         this.currentIndex.set(0);
         this.answers.set(new Array(this.questions().length).fill(undefined));